@@ -31,6 +31,7 @@ import org.eclipse.kura.driver.Driver;
 import org.eclipse.kura.driver.PreparedRead;
 import org.ict.kura.asset.creator.thing.util.ThingPreparedRead;
 import org.ict.kura.driver.thing.ThingDriver;
+import org.ict.kura.driver.thing.ThingDriverOptions;
 import org.ict.kura.internal.driver.avm.api.AvmApi;
 import org.ict.kura.internal.driver.avm.api.AvmUpdateThread;
 import org.ict.kura.internal.driver.avm.api.data.Device;
@@ -42,6 +43,7 @@ import org.ict.kura.internal.driver.avm.things.ThingDect440;
 import org.ict.kura.internal.driver.avm.things.ThingDect500;
 import org.ict.kura.thing.creator.ThingProvider;
 import org.ict.model.wot.core.ActionAffordance;
+import org.osgi.service.component.ComponentConstants;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -110,13 +112,24 @@ public class AvmDriver extends ThingDriver<AvmBindingConfig> implements Driver,
 	/**
 	 * Binding method to shutdown the bundle, see component.xml, is called by the
 	 * OSGi framework.
+	 * 
+	 * @param componentContext The OSGi component informations of this bundle - in
+	 *                         this case we do nothing there.
+	 * @param reason           the reason of the deactivation, see
+	 *                         {@link ComponentConstants}
 	 */
 	@Deactivate
-	protected void deactivate() {
+	protected void deactivate(ComponentContext componentContext, int reason) {
 		LOGGER.info("Bundle " + APP_ID + " has stopped!");
 
-		/* Closes all resources */
-		doDeactivate();
+		/*
+		 * Deletes the assets only if the driver configuration was deleted, on a
+		 * shutdown the assets are kept for the warm-start
+		 */
+		if (reason == ComponentConstants.DEACTIVATION_REASON_CONFIGURATION_DELETED)
+			doDelete();
+		else
+			doDeactivate();
 	}
 
 	/**
@@ -143,6 +156,9 @@ public class AvmDriver extends ThingDriver<AvmBindingConfig> implements Driver,
 		try {
 			this.options = new AvmDriverOptions(properties, cryptoService);
 
+			/* Configures the common thing driver options, e.g. the event dispatch mode */
+			configure(new ThingDriverOptions(properties));
+
 			LOGGER.info(options.toString(true));
 			if (options.getFritzboxUsername() != null && !options.getFritzboxUsername().equals("")) {
 
@@ -232,8 +248,23 @@ public class AvmDriver extends ThingDriver<AvmBindingConfig> implements Driver,
 	}
 
 	/**
-	 * Deactivates all resources means deletes all assets and devices - bundle
-	 * shutdown.
+	 * Deletes all assets and channels of the driver and deactivates all resources.
+	 * The resources are deactivated, even if the assets could not be deleted.
+	 */
+	private void doDelete() {
+		try {
+			/* Deletes all assets and channels */
+			if (options != null)
+				getThingProvider().deleteAssetsWithChannels(options.getDriverServicePID());
+		} catch (Exception e) {
+			LOGGER.error("", e);
+		} finally {
+			doDeactivate();
+		}
+	}
+
+	/**
+	 * Deactivates all resources - bundle shutdown, the assets are kept.
 	 */
 	private void doDeactivate() {
 		LOGGER.info("doDeactivate...");
@@ -248,6 +279,17 @@ public class AvmDriver extends ThingDriver<AvmBindingConfig> implements Driver,
 		this.avmUpdateThread = null;
 		this.avmApi = null;
 
+		/* Stops the ingress ring after the pending values are processed */
+		closeIngressRing();
+
+		/* Stops the event dispatcher and sends the pending events */
+		getEventDispatcher().close();
+
+		/* Stops the metrics snapshots */
+		getMetrics().close();
+
+		/* Stops the asynchronous writes */
+		closeWriteQueue();
 	}
 
 	@Reference(name = "CryptoService", service = CryptoService.class, cardinality = ReferenceCardinality.MANDATORY, policy = ReferencePolicy.STATIC, unbind = "unsetCryptoService", bind = "setCryptoService")
@@ -44,8 +44,6 @@ public class AvmUpdateThread implements Runnable, Closeable {
 	/* The open weather update thread logger instance */
 	private static final Logger LOGGER = LoggerFactory.getLogger(AvmUpdateThread.class);
 
-	private static final String PAYLOAD = "{\"time\" : %d, \"%s\": %s}";
-
 	/* The Avm api implementation */
 	private AvmApi avmApi;
 
@@ -134,81 +132,57 @@ public class AvmUpdateThread implements Runnable, Closeable {
 	private void setValue(List<String> hrefs, Device device, long newTime) {
 		for (String string : hrefs) {
 			String propertie = string.substring(string.lastIndexOf("/") + 1);
+			/* The values are passed as primitives, without an intermediate JSON string */
+			ThingChannelListener listener = thingChannelListeners.get(string);
 			try {
 				switch (propertie) {
 				case "battery":
-					String battery = String.format(PAYLOAD, newTime, "battery", device.getBattery());
-					thingChannelListeners.get(string).doUpdate(battery);
+					listener.doUpdate(newTime, (long) device.getBattery());
 					break;
 				case "batteryLow":
-					String batteryLow = String.format(PAYLOAD, newTime, "batteryLow", device.getBatterylow());
-					thingChannelListeners.get(string).doUpdate(batteryLow);
+					listener.doUpdate(newTime, (long) device.getBatterylow());
 					break;
 				case "temperature":
 					// temperature must be converted eg.: 100 -> 10.0
-					float temp = device.getTemperature().getCelsius() / 10.0f;
-					String tempValue = String.format(PAYLOAD, newTime, "temperature", temp);
-					thingChannelListeners.get(string).doUpdate(tempValue);
+					listener.doUpdate(newTime, device.getTemperature().getCelsius() / 10.0);
 					break;
 				case "tempOffset":
 					// temperature offset needs to be converted eg.: 100 -> 10.0
-					float tOffset = device.getTemperature().getOffset() / 10.0f;
-					String tOffsetValue = String.format(PAYLOAD, newTime, "tempOffset", tOffset);
-					thingChannelListeners.get(string).doUpdate(tOffsetValue);
+					listener.doUpdate(newTime, device.getTemperature().getOffset() / 10.0);
 					break;
 				case "tIst":
 					// temperature ist must be divided by 2
-					double ist = Double.valueOf(device.getHkr().getTist());
-					ist = ist / 2;
-					String tIst = String.format(PAYLOAD, newTime, "tIst", ist);
-					thingChannelListeners.get(string).doUpdate(tIst);
+					listener.doUpdate(newTime, Double.valueOf(device.getHkr().getTist()) / 2);
 					break;
 				case "holidayActive":
-					String holidayActive = String.format(PAYLOAD, newTime, "holidayActive",
-							device.getHkr().getHolidayactive());
-					thingChannelListeners.get(string).doUpdate(holidayActive);
+					listener.doUpdate(newTime, Long.parseLong(device.getHkr().getHolidayactive()));
 					break;
 				case "summerActive":
-					String summerActive = String.format(PAYLOAD, newTime, "summerActive",
-							device.getHkr().getSummeractive());
-					thingChannelListeners.get(string).doUpdate(summerActive);
+					listener.doUpdate(newTime, Long.parseLong(device.getHkr().getSummeractive()));
 					break;
 				case "windowOpenActive":
-					String windowOpenActive = String.format(PAYLOAD, newTime, "windowOpenActive",
-							device.getHkr().getWindowopenactiv());
-					thingChannelListeners.get(string).doUpdate(windowOpenActive);
+					listener.doUpdate(newTime, (long) device.getHkr().getWindowopenactiv());
 					break;
 				case "lock":
-					String lock = String.format(PAYLOAD, newTime, "lock", device.getHkr().getDevicelock());
-					thingChannelListeners.get(string).doUpdate(lock);
+					listener.doUpdate(newTime, Long.parseLong(device.getHkr().getDevicelock()));
 					break;
 				case "tSoll":
 					// temperature soll must be divided by 2
-					double soll = Double.valueOf(device.getHkr().getTsoll());
-					soll = soll / 2;
-					String tSoll = String.format(PAYLOAD, newTime, "tSoll", soll);
-					thingChannelListeners.get(string).doUpdate(tSoll);
+					listener.doUpdate(newTime, Double.valueOf(device.getHkr().getTsoll()) / 2);
 					break;
 				case "humidity":
-					int humidity = device.getHumidity().getRelHumidity();
-					String humidityValue = String.format(PAYLOAD, newTime, "humidity", humidity);
-					thingChannelListeners.get(string).doUpdate(humidityValue);
+					listener.doUpdate(newTime, (long) device.getHumidity().getRelHumidity());
 					break;
 				case "onOff":
 					// state must be converted to a boolean value eg.: 1 = true; 0 = false
-					boolean state = device.getSimpleonoff().getState() == 1 ? true : false;
-					String onOff = String.format(PAYLOAD, newTime, "onOff", state);
-					thingChannelListeners.get(string).doUpdate(onOff);
+					listener.doUpdate(newTime, device.getSimpleonoff().getState() == 1);
 					break;
 				case "energy":
-					String energy = String.format(PAYLOAD, newTime, "energy", device.getPowermeter().getEnergy());
-					thingChannelListeners.get(string).doUpdate(energy);
+					listener.doUpdate(newTime, (long) device.getPowermeter().getEnergy());
 					break;
 				case "power":
-					// temperature must be divided by 1000.0 eg.: 5281 -> 5.2 watt
-					float power = device.getPowermeter().getPower() / 1000.0f;
-					String powerValue = String.format(PAYLOAD, newTime, "power", power);
-					thingChannelListeners.get(string).doUpdate(powerValue);
+					// power must be divided by 1000.0 eg.: 5281 -> 5.2 watt
+					listener.doUpdate(newTime, device.getPowermeter().getPower() / 1000.0);
 					break;
 				default:
 					break;
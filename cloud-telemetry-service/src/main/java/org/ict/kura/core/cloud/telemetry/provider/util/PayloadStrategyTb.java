@@ -20,6 +20,7 @@ import org.eclipse.kura.message.KuraPayload;
 import org.osgi.service.event.Event;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
 /**
@@ -56,12 +57,17 @@ public class PayloadStrategyTb implements PayloadStrategyIf {
 	public KuraMessage convertMessage(Event event) {
 		JsonObject root = new JsonObject();
 		JsonArray device = new JsonArray();
-		JsonObject property = new JsonObject();
 
-		JsonObject value = (JsonObject) event.getProperty("value");
-		property.addProperty("ts", value.get("time").getAsLong());
-		property.add("values", Util.getValuesFromJson(value));
-		device.add(property);
+		/* A batch event contains a block of WoT payloads - one entry per payload */
+		Object values = event.getProperty("values");
+		if (values instanceof JsonArray) {
+			for (JsonElement value : (JsonArray) values) {
+				if (value.isJsonObject())
+					device.add(getProperty(value.getAsJsonObject()));
+			}
+		} else {
+			device.add(getProperty((JsonObject) event.getProperty("value")));
+		}
 		root.add((String) event.getProperty("thingName"), device);
 
 		/* Create a {@link KuraPayload} */
@@ -72,4 +78,17 @@ public class PayloadStrategyTb implements PayloadStrategyIf {
 		/* Creates the {@link KuraMessage} */
 		return new KuraMessage(payload);
 	}
+
+	/**
+	 * Converts one WoT payload into a ThingsBoard telemetry entry.
+	 * 
+	 * @param value the WoT payload
+	 * @return the ThingsBoard entry with time stamp and values
+	 */
+	private JsonObject getProperty(JsonObject value) {
+		JsonObject property = new JsonObject();
+		property.addProperty("ts", value.get("time").getAsLong());
+		property.add("values", Util.getValuesFromJson(value));
+		return property;
+	}
 }
@@ -24,6 +24,7 @@ import org.osgi.service.event.Event;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
 /**
@@ -48,8 +49,15 @@ public class PayloadStrategyWot implements PayloadStrategyIf {
 		/* Create a {@link KuraPayload} */
 		KuraPayload payload = new KuraPayload();
 
-		/* Sets the value (wot payload) into the body */
-		payload.setBody(value.toString().getBytes());
+		/*
+		 * Sets the value (wot payload) into the body, a batch event is published as
+		 * one array of wot payloads [{timestamp: xx, temperature: xx}, ...]
+		 */
+		Object values = event.getProperty("values");
+		if (values instanceof JsonArray)
+			payload.setBody(values.toString().getBytes());
+		else
+			payload.setBody(value.toString().getBytes());
 
 		/* Create an options map for the {@link KuraMessage} */
 		Map<String, Object> map = new HashMap<>();
@@ -17,6 +17,7 @@ package org.ict.kura.internal.driver.coap;
 
 import java.util.Map;
 
+import org.ict.kura.driver.thing.ThingDriverConfig;
 import org.ict.kura.internal.driver.coap.client.CustomCoapClient;
 import org.osgi.service.metatype.annotations.AttributeDefinition;
 import org.osgi.service.metatype.annotations.AttributeType;
@@ -54,7 +55,7 @@ import org.osgi.service.metatype.annotations.ObjectClassDefinition;
 //@formatter:off
 @ObjectClassDefinition(id = "org.ict.kura.driver.coap", name = "Coap Driver", description = "Configuration parameters | Coap Driver", localization = "en_us")
 
-@interface CoapConfig {
+interface CoapConfig extends ThingDriverConfig {
 
 	/** Defines a boolean field indicating if service should be started */
 	@AttributeDefinition(name = "Enable", type = AttributeType.BOOLEAN, required = true, defaultValue = "false", description = "Enables the service")
@@ -77,5 +78,9 @@ import org.osgi.service.metatype.annotations.ObjectClassDefinition;
 	/** Defines a field for the connection timeOut between request and response. Input "0" sets client to wait indefinitely. */
 	@AttributeDefinition(name = "CoAP server connection timeout", type = AttributeType.INTEGER, required = true, defaultValue = "0", description = "Client timeOut for requests.")
 	String coap_connection_timeOut();
+
+	/** Defines a field for the maximum number of CoAP servers read in parallel. */
+	@AttributeDefinition(name = "CoAP read parallelism", type = AttributeType.INTEGER, required = true, defaultValue = "8", description = "The maximum number of CoAP servers read in parallel, 1 reads the servers one after another.")
+	String coap_read_parallelism();
 //@formatter:on	
 }
\ No newline at end of file
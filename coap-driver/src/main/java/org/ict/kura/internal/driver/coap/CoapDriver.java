@@ -19,16 +19,23 @@ import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
 import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import javax.jmdns.ServiceEvent;
 import javax.jmdns.ServiceInfo;
@@ -50,6 +57,7 @@ import org.eclipse.kura.driver.PreparedRead;
 import org.ict.gson.utils.AdapterFactory;
 import org.ict.kura.asset.creator.thing.util.ThingPreparedRead;
 import org.ict.kura.driver.thing.ThingDriver;
+import org.ict.kura.driver.thing.ThingDriverOptions;
 import org.ict.kura.internal.driver.coap.client.CustomCoapClient;
 import org.ict.kura.internal.driver.coap.client.ObserveHandler;
 import org.ict.kura.internal.driver.coap.mdns.MdnsService;
@@ -59,6 +67,7 @@ import org.ict.kura.internal.driver.coap.util.Util;
 import org.ict.kura.thing.creator.ThingProvider;
 import org.ict.model.wot.core.ActionAffordance;
 import org.ict.model.wot.core.Thing;
+import org.osgi.service.component.ComponentConstants;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -126,6 +135,9 @@ public class CoapDriver extends ThingDriver<CoapBindingConfig>
 	/* The executor service to handle the MDNS discovery start phase */
 	private ScheduledExecutorService scheduledExecutorService;
 
+	/* The executor service to read the resources of several devices in parallel */
+	private ExecutorService readExecutorService;
+
 	/* MDNS discovery start delay in milli seconds */
 	private int MDNS_DISCOVERY_START_DELAY = 100;
 
@@ -156,8 +168,11 @@ public class CoapDriver extends ThingDriver<CoapBindingConfig>
 	 */
 	@Modified
 	public void updated(Map<String, Object> properties) {
-		/* Deactivates all components */
-		doDeactivate();
+		/*
+		 * Deactivates all components, the assets are kept - the rediscovered things
+		 * are compared with the existing assets and only the changes are applied
+		 */
+		closeResources();
 
 		/* Updates all components with new configuration */
 		doUpdate(properties);
@@ -180,6 +195,13 @@ public class CoapDriver extends ThingDriver<CoapBindingConfig>
 			/** The instance of CoapDriverOptions */
 			options = new CoapDriverOptions(properties);
 
+			/* Configures the common thing driver options, e.g. the event dispatch mode */
+			configure(new ThingDriverOptions(properties));
+
+			/* Creates the executor service to read several devices in parallel */
+			if (options.getReadParallelism() > 1)
+				readExecutorService = Executors.newFixedThreadPool(options.getReadParallelism());
+
 			/*
 			 * If AutoCreateConfig is equals false, we do nothing, otherwise we are looking
 			 * for CoAP servers via a defined configuration or general in the network via
@@ -240,15 +262,24 @@ public class CoapDriver extends ThingDriver<CoapBindingConfig>
 	}
 
 	/**
-	 * Closes all resources
-	 * 
-	 * @throws Exception
+	 * Deletes all assets and channels of the driver and closes all resources. The
+	 * resources are closed, even if the assets could not be deleted.
 	 */
-	private void doDeactivate() {
+	private void doDelete() {
 		try {
 			/* Deletes all assets and channels */
-			getThingProvider().deleteAssetsWithChannels(options.getDriverServicePID());
+			if (options != null)
+				getThingProvider().deleteAssetsWithChannels(options.getDriverServicePID());
+		} catch (Exception e) {
+			LOGGER.error("", e);
+		} finally {
+			closeResources();
+		}
+	}
 
+	/* Closes the clients, the executors and the common thing driver resources */
+	private void closeResources() {
+		try {
 			/* Cancel all active observe relations */
 			customCoapClients.forEach((k, v) -> {
 				try {
@@ -270,6 +301,16 @@ public class CoapDriver extends ThingDriver<CoapBindingConfig>
 				LOGGER.info("ExecutorService is null");
 			}
 
+			/* Closes the read ExecutorService */
+			if (readExecutorService != null) {
+				readExecutorService.shutdownNow();
+				readExecutorService = null;
+			}
+		} catch (Exception e) {
+			LOGGER.error("" + e.getMessage());
+		}
+
+		try {
 			/* Closes the MDNS service */
 			if (mdnsService != null) {
 				mdnsService.close();
@@ -278,6 +319,18 @@ public class CoapDriver extends ThingDriver<CoapBindingConfig>
 			}
 		} catch (Exception e) {
 			LOGGER.error("" + e.getMessage());
+		} finally {
+			/* Stops the ingress ring after the pending values are processed */
+			closeIngressRing();
+
+			/* Stops the event dispatcher and sends the pending events */
+			getEventDispatcher().close();
+
+			/* Stops the metrics snapshots */
+			getMetrics().close();
+
+			/* Stops the asynchronous writes */
+			closeWriteQueue();
 		}
 	}
 
@@ -287,11 +340,19 @@ public class CoapDriver extends ThingDriver<CoapBindingConfig>
 	 * 
 	 * @param componentContext The OSGi component informations of this bundle - in
 	 *                         this case we do nothing there.
+	 * @param reason           the reason of the deactivation, see
+	 *                         {@link ComponentConstants}
 	 */
 	@Deactivate
-	protected void deactivate(ComponentContext componentContext) {
-		/* Closes all resources */
-		doDeactivate();
+	protected void deactivate(ComponentContext componentContext, int reason) {
+		/*
+		 * Deletes the assets only if the driver configuration was deleted, on a
+		 * shutdown the assets are kept for the warm-start
+		 */
+		if (reason == ComponentConstants.DEACTIVATION_REASON_CONFIGURATION_DELETED)
+			doDelete();
+		else
+			closeResources();
 
 		LOGGER.info("Bundle " + APP_ID + " has stopped!");
 	}
@@ -428,6 +489,45 @@ public class CoapDriver extends ThingDriver<CoapBindingConfig>
 		return Optional.empty();
 	}
 
+	/**
+	 * Reads the resources grouped by device (thing id). The devices are read in
+	 * parallel, the resources of one device one after another, because each
+	 * device has only one {@link CustomCoapClient}.
+	 */
+	@Override
+	public Map<CoapBindingConfig, Optional<JsonObject>> doReadBatch(Collection<CoapBindingConfig> coapBindingConfigs) {
+		/* Groups the bindings by the thing id */
+		Map<String, List<CoapBindingConfig>> devices = coapBindingConfigs.stream().collect(Collectors.groupingBy(
+				coapBindingConfig -> Util.extractThingIdFromFormHref(coapBindingConfig.getHref()), LinkedHashMap::new,
+				Collectors.toList()));
+
+		/* Only one device or no executor - reads one after another */
+		ExecutorService executorService = readExecutorService;
+		if (executorService == null || devices.size() < 2)
+			return super.doReadBatch(coapBindingConfigs);
+
+		LOGGER.debug("...doReadBatch {} resources of {} devices", coapBindingConfigs.size(), devices.size());
+
+		/* Reads the devices in parallel */
+		List<Future<Map<CoapBindingConfig, Optional<JsonObject>>>> futures = new ArrayList<>();
+		for (List<CoapBindingConfig> device : devices.values())
+			futures.add(executorService.submit(() -> super.doReadBatch(device)));
+
+		/* Collects the values of all devices */
+		Map<CoapBindingConfig, Optional<JsonObject>> values = new LinkedHashMap<>();
+		for (Future<Map<CoapBindingConfig, Optional<JsonObject>>> future : futures) {
+			try {
+				values.putAll(future.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			} catch (ExecutionException e) {
+				LOGGER.error("", e.getCause());
+			}
+		}
+		return values;
+	}
+
 	@Override
 	public void doWrite(CoapBindingConfig coapBindingConfig, ActionAffordance action, JsonObject jsonValue) {
 		CoapResponse coapResponse = null;
@@ -34,6 +34,7 @@ import org.slf4j.LoggerFactory;
  * <li>connectionIp</li>
  * <li>connectionPort</li>
  * <li>connectionTimeOut</li>
+ * <li>readParallelism</li>
  * <li>pid</li>
  * </ul>
  * 
@@ -65,6 +66,12 @@ public class CoapDriverOptions {
 	/** The stored key for the connection timeOut */
 	private static final String CONNECTION_TIMEOUT = "coap.connection.timeOut";
 
+	/** The stored key for the maximum number of servers read in parallel */
+	private static final String READ_PARALLELISM = "coap.read.parallelism";
+
+	/** The default maximum number of servers read in parallel */
+	private static final int DEFAULT_READ_PARALLELISM = 8;
+
 	/** The properties as associated */
 	private final Map<String, Object> properties;
 
@@ -154,6 +161,20 @@ public class CoapDriverOptions {
 		return connectionTimeOut;
 	}
 
+	/**
+	 * Returns the maximum number of CoAP servers read in parallel
+	 * 
+	 * @return the number of read threads, at least 1
+	 */
+	int getReadParallelism() {
+		int readParallelism = DEFAULT_READ_PARALLELISM;
+		final Object value = this.properties.get(READ_PARALLELISM);
+		if (nonNull(value) && value instanceof Integer) {
+			readParallelism = (int) value;
+		}
+		return Math.max(1, readParallelism);
+	}
+
 	/**
 	 * Returns service pid of driver
 	 * 
@@ -76,11 +76,20 @@ public class ObserveHandler implements CoapHandler {
 
 			if (response != null) {
 
-				/* Print information on current response */
-				LOGGER.info("Current response from CoapObserveRelation: " + Utils.prettyPrint(response));
-
-				/* Updates channel data using linked implementation of CoapListener */
-				coapDriver.getUpdateBindingConfigurations().get(bindingConfig).doUpdate(response.getResponseText());
+				/*
+				 * Updates channel data using linked implementation of CoapListener - via the
+				 * ingress ring of the driver, so the CoAP callback thread returns immediately
+				 */
+				String responseText = response.getResponseText();
+				coapDriver.ingress(bindingConfig, () -> {
+					/* Print information on current response */
+					if (LOGGER.isDebugEnabled())
+						LOGGER.debug("Current response from CoapObserveRelation: " + Utils.prettyPrint(response));
+
+					ThingChannelListener listener = coapDriver.getUpdateBindingConfigurations().get(bindingConfig);
+					if (listener != null)
+						listener.doUpdate(responseText);
+				});
 			}
 		}
 
@@ -0,0 +1,228 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.internal.driver.coap;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import org.eclipse.kura.configuration.ComponentConfiguration;
+import org.eclipse.kura.configuration.ConfigurationService;
+import org.ict.kura.asset.creator.thing.util.WoTUtils;
+import org.ict.kura.core.thing.asset.creator.impl.ThingProviderImpl;
+import org.ict.model.wot.core.PropertyAffordance;
+import org.ict.model.wot.core.Thing;
+import org.osgi.service.component.ComponentConstants;
+import org.osgi.service.event.Event;
+
+/**
+ * Warm-start with a real driver activation - the things of a CoAP driver are
+ * discovered and saved in the warm-start cache. After a reboot the cached
+ * things are provisioned before the driver is activated, the unchanged assets
+ * of the last run are kept. The activation, an update of the driver
+ * configuration and a shutdown of the driver must keep the assets, only the
+ * deletion of the driver configuration deletes them and removes the things
+ * from the cache. The {@link ConfigurationService} is
+ * simulated.
+ */
+public class CoapWarmStart_T {
+
+	/* The driver PID */
+	private static final String DRIVER_PID = "org.ict.kura.driver.coap.warmstart";
+
+	/* The number of things */
+	private static final int THINGS = 50;
+
+	/* The maximum time in milliseconds to wait for the provisioning */
+	private static final long TIMEOUT = 10000;
+
+	public static void main(String[] args) throws Exception {
+		Path directory = Files.createTempDirectory("thing-cache");
+		Map<String, Object> providerProperties = new HashMap<>();
+		providerProperties.put("thing.cache.directory", directory.toString());
+
+		/* The configurations survive the reboot, as the KURA snapshot */
+		Map<String, Map<String, Object>> configurations = new ConcurrentHashMap<>();
+		AtomicInteger deletes = new AtomicInteger();
+		ConfigurationService configurationService = createConfigurationService(configurations, deletes);
+
+		/* First run - the driver discovers its things, they are saved in the cache */
+		ThingProviderImpl provider = new ThingProviderImpl();
+		provider.setConfigurationService(configurationService);
+		provider.updated(providerProperties);
+		for (Thing thing : createThings()) {
+			Map<String, Object> properties = new HashMap<>();
+			properties.put("thing", thing);
+			properties.put("driverPid", DRIVER_PID);
+			provider.handleEvent(new Event("things/" + thing.getTitle(), properties));
+		}
+		await(() -> configurations.size() == THINGS && cacheFiles(directory) == 1, "first provisioning");
+
+		/* Reboot - the warm-start provisions the cached things, the assets are kept */
+		ThingProviderImpl rebooted = new ThingProviderImpl();
+		rebooted.setConfigurationService(configurationService);
+		long start = System.nanoTime();
+		rebooted.updated(providerProperties);
+		await(() -> rebooted.getAssetNames(DRIVER_PID).size() == THINGS, "warm-start");
+		System.out.println(
+				String.format("Warm-start of %d things: %8.2f ms", THINGS, (System.nanoTime() - start) / 1e6));
+		check(configurations.size() == THINGS && deletes.get() == 0, "warm-start deleted assets");
+		provider = rebooted;
+
+		/* Activates the driver, the warm-started assets are kept */
+		CoapDriver driver = new CoapDriver();
+		driver.setAssetProvider(provider);
+		driver.activate(null, createDriverProperties());
+		check(configurations.size() == THINGS && deletes.get() == 0, "activation deleted assets");
+
+		/* Updates the driver configuration, the assets are kept */
+		driver.updated(createDriverProperties());
+		check(configurations.size() == THINGS && deletes.get() == 0, "update deleted assets");
+
+		/* Shuts the driver down, the assets and cached things are kept */
+		driver.deactivate(null, ComponentConstants.DEACTIVATION_REASON_BUNDLE_STOPPED);
+		check(configurations.size() == THINGS && deletes.get() == 0, "shutdown deleted assets");
+		check(cacheFiles(directory) == 1, "shutdown removed the cached things");
+
+		/* Deletes the driver configuration, the assets and cached things are deleted */
+		driver = new CoapDriver();
+		driver.setAssetProvider(provider);
+		driver.activate(null, createDriverProperties());
+		driver.deactivate(null, ComponentConstants.DEACTIVATION_REASON_CONFIGURATION_DELETED);
+		check(configurations.isEmpty() && deletes.get() == THINGS, "deletion kept assets");
+		check(cacheFiles(directory) == 0, "deletion kept the cached things");
+
+		/* Reboot - the deleted things do not come back */
+		provider = new ThingProviderImpl();
+		provider.setConfigurationService(configurationService);
+		provider.updated(providerProperties);
+		Thread.sleep(1000);
+		check(configurations.isEmpty(), "deleted things came back");
+		System.out.println("Warm-start with driver activation: OK");
+	}
+
+	/* Creates the driver configuration without discovery */
+	private static Map<String, Object> createDriverProperties() {
+		Map<String, Object> properties = new HashMap<>();
+		properties.put("kura.service.pid", DRIVER_PID);
+		properties.put("common.enable", false);
+		return properties;
+	}
+
+	/* Creates the things with temperature properties */
+	private static List<Thing> createThings() throws Exception {
+		List<Thing> things = new ArrayList<>();
+		for (int i = 0; i < THINGS; i++) {
+			String href = "coap://localhost/things/thing" + i;
+			Map<String, PropertyAffordance> properties = new HashMap<>();
+			properties.put("temperature", WoTUtils.createTemperaturPropertie(href, "temperature"));
+			things.add(Thing.builder().id(URI.create(href)).title("thing" + i).properties(properties).build());
+		}
+		return things;
+	}
+
+	/* Returns the number of cache files */
+	private static long cacheFiles(Path directory) {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(file -> file.toString().endsWith(".json.gz")).count();
+		} catch (Exception e) {
+			return -1;
+		}
+	}
+
+	/* Waits until the condition is true */
+	private static void await(BooleanSupplier condition, String step) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline)
+				throw new IllegalStateException("Timeout: " + step);
+			Thread.sleep(50);
+		}
+	}
+
+	/* Fails if the condition is false */
+	private static void check(boolean condition, String failure) {
+		if (!condition)
+			throw new IllegalStateException(failure);
+	}
+
+	/* Simulates the configuration service, counts the deleted configurations */
+	private static ConfigurationService createConfigurationService(Map<String, Map<String, Object>> configurations,
+			AtomicInteger deletes) {
+		return (ConfigurationService) Proxy.newProxyInstance(ConfigurationService.class.getClassLoader(),
+				new Class<?>[] { ConfigurationService.class }, (proxy, method, arguments) -> {
+					switch (method.getName()) {
+					case "getConfigurableComponentPids":
+						return new HashSet<>(configurations.keySet());
+					case "getComponentConfiguration":
+						return createComponentConfiguration((String) arguments[0],
+								configurations.get(arguments[0]));
+					case "getComponentConfigurations":
+						List<ComponentConfiguration> list = new ArrayList<>();
+						configurations.forEach((pid, configuration) -> list
+								.add(createComponentConfiguration(pid, configuration)));
+						return list;
+					case "createFactoryConfiguration":
+						configurations.put((String) arguments[1], castConfiguration(arguments[2]));
+						return null;
+					case "updateConfiguration":
+						configurations.put((String) arguments[0], castConfiguration(arguments[1]));
+						return null;
+					case "deleteFactoryConfiguration":
+						if (configurations.remove(arguments[0]) != null)
+							deletes.incrementAndGet();
+						return null;
+					case "snapshot":
+						return 0L;
+					default:
+						return null;
+					}
+				});
+	}
+
+	/* Simulates the stored configuration of a component */
+	private static ComponentConfiguration createComponentConfiguration(String pid,
+			Map<String, Object> configuration) {
+		if (configuration == null)
+			return null;
+		return (ComponentConfiguration) Proxy.newProxyInstance(ComponentConfiguration.class.getClassLoader(),
+				new Class<?>[] { ComponentConfiguration.class }, (proxy, method, arguments) -> {
+					switch (method.getName()) {
+					case "getPid":
+						return pid;
+					case "getConfigurationProperties":
+						return configuration;
+					default:
+						return null;
+					}
+				});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> castConfiguration(Object configuration) {
+		return new HashMap<>((Map<String, Object>) configuration);
+	}
+}
@@ -36,6 +36,7 @@ package org.ict.kura.core.persistence.influx.internal;
  */
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -46,6 +47,7 @@ import org.osgi.service.event.EventAdmin;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
@@ -85,6 +87,12 @@ public class InfluxDbServicePersistenceTask implements Runnable {
 			LOGGER.debug("Save channel state change in influx database with ... thingName: {}, propertyName: {}",
 					event.getProperty("thingName"), event.getProperty("propertyName"));
 
+			/* A batch event contains a block of WoT payloads, written at once */
+			if (event.getProperty("values") instanceof JsonArray) {
+				saveBatch((JsonArray) event.getProperty("values"));
+				return;
+			}
+
 			/* Gets the WoT payload */
 			JsonObject value = (JsonObject) event.getProperty("value");
 
@@ -117,6 +125,32 @@ public class InfluxDbServicePersistenceTask implements Runnable {
 		}
 	}
 
+	/**
+	 * Writes a block of WoT payloads of one property with one database operation.
+	 * 
+	 * @param values the WoT payloads, each with time stamp and values
+	 */
+	private void saveBatch(JsonArray values) {
+		/* Keeps the order of the samples, equal time stamps overwrite each other */
+		Map<Long, Map<String, Object>> samples = new LinkedHashMap<>();
+		for (JsonElement element : values) {
+			if (!element.isJsonObject())
+				continue;
+			JsonObject value = element.getAsJsonObject();
+			Map<String, Object> fields = getValuesFromJson(value);
+			if (!fields.isEmpty())
+				samples.put(value.get("time").getAsLong(), fields);
+		}
+
+		if (!samples.isEmpty()) {
+			influxDbService.save(event.getProperty("thingName").toString(),
+					event.getProperty("propertyName").toString(), samples);
+			LOGGER.debug("The batch of {} payloads is written to the database asynchronously", samples.size());
+		} else {
+			LOGGER.debug("The batch was ignored - does not correspond to the specified layout: {}", values);
+		}
+	}
+
 	/**
 	 * This method extracts the WoT properties with the corresponding values from
 	 * the WoT payload and stores them in a map. Only primitive JSON data types are
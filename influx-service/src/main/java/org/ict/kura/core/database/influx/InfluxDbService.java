@@ -82,6 +82,17 @@ public interface InfluxDbService {
 	 */
 	public void save(String thingId, String propertyId, long time, Map<String, Object> fields);
 
+	// Save ##########################################
+	/**
+	 * Save a block of elements of one property with one write operation
+	 * 
+	 * @param thingId    a String that assigns a unique number sequence
+	 * @param propertyId a String that assigns a unique id to the property
+	 * @param samples    a Map<Long, Map<String, Object>> with the time stamp and
+	 *                   the data of each element
+	 */
+	public void save(String thingId, String propertyId, Map<Long, Map<String, Object>> samples);
+
 	// Save ##########################################
 	/**
 	 * Save an element
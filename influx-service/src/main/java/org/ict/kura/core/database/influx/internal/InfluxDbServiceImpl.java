@@ -212,6 +212,27 @@ public class InfluxDbServiceImpl implements InfluxDbService {
 		}
 	}
 
+	@Override
+	public void save(String thingId, String propertyId, Map<Long, Map<String, Object>> samples) {
+		List<Point> points = new ArrayList<>(samples.size());
+		for (Map.Entry<Long, Map<String, Object>> sample : samples.entrySet()) {
+			Point point = Point.measurement(MEASUREMENT);
+			point.addTag(SOURCE_ID, SOURCE);
+			point.addTag(THING_ID, thingId);
+			point.addTag(PROPERTY_ID, propertyId);
+			point.addFields(sample.getValue());
+			point.time(sample.getKey(), WritePrecision.MS);
+			points.add(point);
+		}
+
+		try {
+			this.writeApi.writePoints(points);
+		} catch (Throwable t) {
+			LOGGER.error("", t);
+			throw t;
+		}
+	}
+
 	@Override
 	public boolean savePoints(List<Point> points) {
 		try {
@@ -15,6 +15,7 @@
  */
 package org.ict.kura.internal.driver.knx;
 
+import org.ict.kura.driver.thing.ThingDriverConfig;
 import org.osgi.service.metatype.annotations.AttributeDefinition;
 import org.osgi.service.metatype.annotations.AttributeType;
 import org.osgi.service.metatype.annotations.ObjectClassDefinition;
@@ -33,7 +34,7 @@ import org.osgi.service.metatype.annotations.ObjectClassDefinition;
 		description = "Configuration parameters | KNX Driver",
 		localization = "en_us")
 
-@interface KnxConfig {
+interface KnxConfig extends ThingDriverConfig {
 	@AttributeDefinition(
 			name = "Thing folder",
 			type = AttributeType.STRING,
@@ -73,6 +74,5 @@ import org.osgi.service.metatype.annotations.ObjectClassDefinition;
 			defaultValue = "10000",
 			description = "The KNX reconnect delay in milliseconds")
 	String reconnect_timeout();
-
 //@formatter:on
 }
@@ -40,6 +40,7 @@ import org.eclipse.kura.driver.PreparedRead;
 import org.ict.kura.asset.creator.thing.util.ThingPreparedRead;
 import org.ict.kura.driver.thing.ThingChannelListener;
 import org.ict.kura.driver.thing.ThingDriver;
+import org.ict.kura.driver.thing.ThingDriverOptions;
 import org.ict.kura.driver.thing.Util;
 import org.ict.kura.internal.driver.knx.util.KnxBindingConfig;
 import org.ict.kura.internal.driver.knx.util.Tool;
@@ -47,6 +48,7 @@ import org.ict.kura.internal.driver.knx.util.dpt.Dpt;
 import org.ict.kura.thing.creator.ThingProvider;
 import org.ict.model.wot.core.ActionAffordance;
 import org.ict.model.wot.core.Thing;
+import org.osgi.service.component.ComponentConstants;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -155,13 +157,21 @@ public class KnxDriver extends ThingDriver<KnxBindingConfig> implements Driver,
 	 * 
 	 * @param componentContext The OSGi component informations of this bundle - in
 	 *                         this case we do nothing there.
+	 * @param reason           the reason of the deactivation, see
+	 *                         {@link ComponentConstants}
 	 */
 	@Deactivate
-	protected void deactivate(ComponentContext componentContext) {
+	protected void deactivate(ComponentContext componentContext, int reason) {
 		LOGGER.info("Bundle " + APP_ID + " has stopped!");
 
-		/* Closes all resources */
-		doDeactivate();
+		/*
+		 * Deletes the assets only if the driver configuration was deleted, on a
+		 * shutdown the assets are kept for the warm-start
+		 */
+		if (reason == ComponentConstants.DEACTIVATION_REASON_CONFIGURATION_DELETED)
+			doDelete();
+		else
+			doDeactivate();
 	}
 
 	/**
@@ -202,6 +212,9 @@ public class KnxDriver extends ThingDriver<KnxBindingConfig> implements Driver,
 			/* Gets the actual options (configuration) */
 			this.options = new KnxDriverOptions(properties);
 
+			/* Configures the common thing driver options, e.g. the event dispatch mode */
+			configure(new ThingDriverOptions(properties));
+
 			/*
 			 * If updated==false, then we are in bundle state activate, in this case all
 			 * resources must be created
@@ -232,8 +245,9 @@ public class KnxDriver extends ThingDriver<KnxBindingConfig> implements Driver,
 					 * SOLUTION INFO: Creates kura asset with channels from the given thing via the
 					 * OSGi event admin. In this case, a thing description is available in the event
 					 * admin. The {@link ThingProviderImpl#handleEvent(Event) received the thing
-					 * descriptions and creates asset with channels. Other services such as the
-					 * thing directory service can also receive and process thing descriptions.
+					 * descriptions and queues them - the queued things are provisioned in bulk with
+					 * one configuration snapshot. Other services such as the thing directory
+					 * service can also receive and process thing descriptions.
 					 */
 					Map<String, Object> eventAdminProperties = new HashMap<>();
 
@@ -268,6 +282,22 @@ public class KnxDriver extends ThingDriver<KnxBindingConfig> implements Driver,
 		}
 	}
 
+	/**
+	 * Deletes all assets and channels of the driver and deactivates all resources.
+	 * The resources are deactivated, even if the assets could not be deleted.
+	 */
+	private void doDelete() {
+		try {
+			/* Deletes all assets and channels */
+			if (options != null)
+				getThingProvider().deleteAssetsWithChannels(options.getDriverServicePID());
+		} catch (Exception e) {
+			LOGGER.error("", e);
+		} finally {
+			doDeactivate();
+		}
+	}
+
 	/**
 	 * Deactivates all resources
 	 */
@@ -288,6 +318,18 @@ public class KnxDriver extends ThingDriver<KnxBindingConfig> implements Driver,
 		/* Stops the KNX scan process if active */
 		if (scheduledExecutorService != null)
 			scheduledExecutorService.shutdownNow();
+
+		/* Stops the ingress ring after the pending values are processed */
+		closeIngressRing();
+
+		/* Stops the event dispatcher and sends the pending events */
+		getEventDispatcher().close();
+
+		/* Stops the metrics snapshots */
+		getMetrics().close();
+
+		/* Stops the asynchronous writes */
+		closeWriteQueue();
 	}
 
 	/*
@@ -447,11 +489,24 @@ public class KnxDriver extends ThingDriver<KnxBindingConfig> implements Driver,
 
 	@Override
 	public void groupWrite(final ProcessEvent processEvent) {
-		LOGGER.info("...groupWrite ProcessEvent {}", processEvent);
+		/*
+		 * Hands the event over to the ingress ring, so the KNX callback thread returns
+		 * immediately - the events of a group address are processed in order
+		 */
+		ingress(processEvent.getDestination().toString(), () -> processGroupWrite(processEvent));
+	}
 
+	/**
+	 * Processes a group write indication and updates the {@link ThingChannelListener}.
+	 * 
+	 * @param processEvent the KNX process event
+	 */
+	private void processGroupWrite(final ProcessEvent processEvent) {
 		try {
-			LOGGER.info(LocalTime.now() + " " + processEvent.getSourceAddr() + "->" + processEvent.getDestination()
-					+ " " + "write.ind" + ": " + DataUnitBuilder.toHex(processEvent.getASDU(), ""));
+			/* Per-message logs, only built if debug is enabled */
+			if (LOGGER.isDebugEnabled())
+				LOGGER.debug(LocalTime.now() + " " + processEvent.getSourceAddr() + "->" + processEvent.getDestination()
+						+ " " + "write.ind" + ": " + DataUnitBuilder.toHex(processEvent.getASDU(), ""));
 
 			/* Looks for the binding */
 			final KnxBindingConfig knxBindingConfig = knxGroupAddressBindingConfigurations
@@ -464,10 +519,6 @@ public class KnxDriver extends ThingDriver<KnxBindingConfig> implements Driver,
 				return;
 			}
 
-			// ################################################################################################
-			LOGGER.info("getUpdateBindingConfigurations().size(): {}", getUpdateBindingConfigurations().size());
-			getUpdateBindingConfigurations()
-					.forEach((k, v) -> LOGGER.info(("getUpdateBindingConfigurations(): " + k + ":" + v)));
 			/*
 			 * Searches the group address in the local map and than in the map {@link
 			 * update(T, kcl)} to get the kcl for the channel name
@@ -486,15 +537,13 @@ public class KnxDriver extends ThingDriver<KnxBindingConfig> implements Driver,
 				return;
 			}
 
-			/* Creates a JSON payload ... */
+			/* Gets the DPT xlator ... */
 			Dpt dpt = (Dpt) knxBindingConfig.getAdditionalProperties().get(knxBindingConfig.getDptID());
-			LOGGER.info("knxBindingConfig.getDptID(): {}, dpt {}", knxBindingConfig.getDptID(), dpt);
-			final String jsonValue = dpt.from(knxBindingConfig, thingChannelListenerImpl, processEvent);
-
-			LOGGER.info("Update {} with payload {}", thingChannelListenerImpl.getPropertyName(), jsonValue);
+			LOGGER.debug("Update {} with dpt {}", thingChannelListenerImpl.getPropertyName(),
+					knxBindingConfig.getDptID());
 
 			/* Updates the value in KURA */
-			thingChannelListenerImpl.doUpdate(jsonValue);
+			dpt.update(knxBindingConfig, thingChannelListenerImpl, processEvent);
 		} catch (Exception e) {
 			LOGGER.error("groupWrite ...", e);
 		}
@@ -507,8 +556,21 @@ public class KnxDriver extends ThingDriver<KnxBindingConfig> implements Driver,
 
 	@Override
 	public void groupReadResponse(final ProcessEvent processEvent) {
+		/*
+		 * Hands the event over to the ingress ring, so the KNX callback thread returns
+		 * immediately - the events of a group address are processed in order
+		 */
+		ingress(processEvent.getDestination().toString(), () -> processGroupReadResponse(processEvent));
+	}
+
+	/**
+	 * Processes a group read response and updates the {@link ThingChannelListener}.
+	 * 
+	 * @param processEvent the KNX process event
+	 */
+	private void processGroupReadResponse(final ProcessEvent processEvent) {
 		try {
-			LOGGER.info("...groupReadResponse from group address {}", processEvent.getDestination());
+			LOGGER.debug("...groupReadResponse from group address {}", processEvent.getDestination());
 			/* Looks for the binding */
 			final KnxBindingConfig knxBindingConfig = this.knxGroupAddressBindingConfigurations
 					.get(processEvent.getDestination().toString());
@@ -517,11 +579,9 @@ public class KnxDriver extends ThingDriver<KnxBindingConfig> implements Driver,
 			/* Gets the thing channel listener */
 			final ThingChannelListener thingChannelListenerImpl = getUpdateBindingConfigurations()
 					.get(knxBindingConfig);
-			/* Converts the KNX value to JSON string */
-			final String jsonValue = dpt.from(knxBindingConfig, thingChannelListenerImpl, processEvent);
-			LOGGER.info("State of group address {} is {}", processEvent.getDestination(), jsonValue);
+			LOGGER.debug("State of group address {} received", processEvent.getDestination());
 			/* Fires the current value into the Kura system */
-			getUpdateBindingConfigurations().get(knxBindingConfig).doUpdate(jsonValue);
+			dpt.update(knxBindingConfig, thingChannelListenerImpl, processEvent);
 		} catch (Exception ex) {
 			if (ex instanceof NullPointerException)
 				LOGGER.warn("KNX group address NOT found/configured {}", processEvent.getDestination().toString());
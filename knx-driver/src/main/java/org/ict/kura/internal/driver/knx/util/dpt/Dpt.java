@@ -45,6 +45,23 @@ public abstract class Dpt {
 	public abstract String from(KnxBindingConfig knxBindingConfig, ThingChannelListener thingChannelListenerImpl,
 			ProcessEvent processEvent) throws KNXFormatException;
 
+	/**
+	 * Updates the value of the given KNX {@link ProcessEvent} in the KURA
+	 * environment. The default implementation uses the JSON payload of
+	 * {@link #from(KnxBindingConfig, ThingChannelListener, ProcessEvent)}, numeric
+	 * DPTs override this method and pass the primitive value directly.
+	 * 
+	 * @param knxBindingConfig         the KNX binding configuration with the given
+	 *                                 DPT Id
+	 * @param thingChannelListenerImpl the thing channel listener to update
+	 * @param processEvent             the KNX {@link ProcessEvent} object
+	 * @throws KNXFormatException
+	 */
+	public void update(KnxBindingConfig knxBindingConfig, ThingChannelListener thingChannelListenerImpl,
+			ProcessEvent processEvent) throws KNXFormatException {
+		thingChannelListenerImpl.doUpdate(from(knxBindingConfig, thingChannelListenerImpl, processEvent));
+	}
+
 	/**
 	 * Creates a KNX payload {@link DPTXlator} object with the given JSON payload.
 	 * 
@@ -64,6 +64,16 @@ public class Dpt5 extends Dpt {
 		return jsonObject.toString();
 	}
 
+	@Override
+	public void update(KnxBindingConfig knxBindingConfig, ThingChannelListener thingChannelListenerImpl,
+			ProcessEvent processEvent) throws KNXFormatException {
+		/* Translates the KNX value to a java value */
+		this.getDptXlator().setData(processEvent.getASDU());
+
+		/* Passes the value as integral value, without an intermediate JSON string */
+		thingChannelListenerImpl.doUpdate(System.currentTimeMillis(), (long) this.getDptXlator().getNumericValue());
+	}
+
 	@Override
 	public DPTXlator to(KnxBindingConfig knxBindingConfig, ActionAffordance actionAffordance, JsonObject jsonValue)
 			throws KNXFormatException {
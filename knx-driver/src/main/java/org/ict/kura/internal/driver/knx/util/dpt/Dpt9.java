@@ -72,6 +72,16 @@ public class Dpt9 extends Dpt {
 		return jsonObject.toString();
 	}
 
+	@Override
+	public void update(KnxBindingConfig knxBindingConfig, ThingChannelListener thingChannelListenerImpl,
+			ProcessEvent processEvent) throws KNXFormatException {
+		/* Translates the KNX value to a java value */
+		this.getDptXlator().setData(processEvent.getASDU());
+
+		/* Passes the value as numeric value, without an intermediate JSON string */
+		thingChannelListenerImpl.doUpdate(System.currentTimeMillis(), this.getDptXlator().getNumericValue());
+	}
+
 	@Override
 	public DPTXlator to(KnxBindingConfig knxBindingConfig, ActionAffordance actionAffordance, JsonObject jsonValue)
 			throws KNXFormatException {
@@ -49,12 +49,14 @@ import org.ict.gson.utils.AdapterFactory;
 import org.ict.kura.asset.creator.thing.util.ThingPreparedRead;
 import org.ict.kura.driver.thing.ThingChannelListener;
 import org.ict.kura.driver.thing.ThingDriver;
+import org.ict.kura.driver.thing.ThingDriverOptions;
 import org.ict.kura.internal.driver.mqtt.util.MultisensorBindingConfig;
 import org.ict.kura.internal.driver.multisensor.mdns.MdnsService;
 import org.ict.kura.internal.driver.multisensor.mdns.MdnsServiceFactory;
 import org.ict.kura.thing.creator.ThingProvider;
 import org.ict.model.wot.core.ActionAffordance;
 import org.ict.model.wot.core.Thing;
+import org.osgi.service.component.ComponentConstants;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -160,13 +162,18 @@ public class MultisensorDriver extends ThingDriver<MultisensorBindingConfig>
 	 * 
 	 * @param componentContext The OSGi component informations of this bundle - in
 	 *                         this case we do nothing there.
+	 * @param reason           the reason of the deactivation, see
+	 *                         {@link ComponentConstants}
 	 */
 	@Deactivate
-	protected void deactivate(ComponentContext componentContext) {
+	protected void deactivate(ComponentContext componentContext, int reason) {
 		LOGGER.info("Bundle " + APP_ID + " has stopped!");
 
-		/* Closes all resources */
-		doDeactivate();
+		/*
+		 * Closes all resources, the assets are deleted only if the driver
+		 * configuration was deleted - on a shutdown they are kept for the warm-start
+		 */
+		doDeactivate(reason == ComponentConstants.DEACTIVATION_REASON_CONFIGURATION_DELETED);
 	}
 
 	/**
@@ -179,10 +186,10 @@ public class MultisensorDriver extends ThingDriver<MultisensorBindingConfig>
 	public void updated(Map<String, Object> properties) {
 		LOGGER.info("Bundle " + APP_ID + " has updated!");
 		/*
-		 * Deactivates all configurations, because it isn't able to modify an existing
-		 * configuration
+		 * Deactivates all components, the assets are kept - the rediscovered things
+		 * are compared with the existing assets and only the changes are applied
 		 */
-		doDeactivate();
+		doDeactivate(false);
 
 		/* Updates all components with new configuration */
 		doUpdate(properties);
@@ -204,6 +211,9 @@ public class MultisensorDriver extends ThingDriver<MultisensorBindingConfig>
 		this.options = new MultisensorDriverOptions(properties);
 		LOGGER.info("Options content: {}", options.toString());
 
+		/* Configures the common thing driver options, e.g. the event dispatch mode */
+		configure(new ThingDriverOptions(properties));
+
 		/*
 		 * If autoCreateConfig is enabled, then a kura configuration (with assets and
 		 * channels) is created, in this a discovery MDNS instance will be started.
@@ -247,13 +257,12 @@ public class MultisensorDriver extends ThingDriver<MultisensorBindingConfig>
 	}
 
 	/**
-	 * Deactivates all resources, means deletes all assets and devices - bundle
-	 * shutdown.
+	 * Deactivates all resources and deletes all assets and devices if requested.
 	 * 
-	 * @param updated false if bundle is in activate mode, true if bundle is in
-	 *                updated mode
+	 * @param deleteAssets true if the assets and channels of the driver are
+	 *                     deleted, e.g. the driver configuration was deleted
 	 */
-	private void doDeactivate() {
+	private void doDeactivate(boolean deleteAssets) {
 		LOGGER.info("doDeactivate...");
 
 		try {
@@ -283,8 +292,21 @@ public class MultisensorDriver extends ThingDriver<MultisensorBindingConfig>
 			/* Clears the internal thing id list */
 			thingIds.clear();
 
+			/* Stops the ingress ring after the pending values are processed */
+			closeIngressRing();
+
+			/* Stops the event dispatcher and sends the pending events */
+			getEventDispatcher().close();
+
+			/* Stops the metrics snapshots */
+			getMetrics().close();
+
+			/* Stops the asynchronous writes */
+			closeWriteQueue();
+
 			/* Deletes all assets and channels */
-			getThingProvider().deleteAssetsWithChannels(options.getDriverServicePID());
+			if (deleteAssets)
+				getThingProvider().deleteAssetsWithChannels(options.getDriverServicePID());
 		} catch (Exception e) {
 			LOGGER.error("" + e);
 		}
@@ -524,7 +546,23 @@ public class MultisensorDriver extends ThingDriver<MultisensorBindingConfig>
 
 	@Override
 	public void onMessageArrived(String topic, byte[] payload, int qos, boolean retained) {
-		LOGGER.info("On message arrived from topic {} with payload {}", topic, new String(payload));
+		/*
+		 * Hands the message over to the ingress ring, so the MQTT callback thread
+		 * returns immediately - the messages of a topic are processed in order
+		 */
+		ingress(topic, () -> processMessage(topic, payload));
+	}
+
+	/**
+	 * Processes a received message, a property payload or a thing description.
+	 * 
+	 * @param topic   the topic of the message
+	 * @param payload the payload of the message
+	 */
+	private void processMessage(String topic, byte[] payload) {
+		/* Decodes the payload once */
+		String message = new String(payload);
+		LOGGER.debug("On message arrived from topic {} with payload {}", topic, message);
 
 		/* Is this a property payload (if) or a thing description (else) */
 		if (multisensorHrefBindingConfigurations.containsKey(topic)) {
@@ -542,16 +580,16 @@ public class MultisensorDriver extends ThingDriver<MultisensorBindingConfig>
 			 */
 			ThingChannelListener listener = getUpdateBindingConfigurations().get(multisensorBindingConfig);
 			if (listener.getPropertyName().equals("vibration")) {
-				vibrationconverter(listener, new String(payload));
+				vibrationconverter(listener, message);
 			} else {
-				listener.doUpdate(new String(payload));
+				listener.doUpdate(message);
 			}
 		} else {
 			/*
 			 * Receives a payload from a thing (channel) topic - the web of thing
 			 * description and creates a thing instance from the web of description.
 			 */
-			Thing thing = gsonThing.fromJson(new String(payload), Thing.class);
+			Thing thing = gsonThing.fromJson(message, Thing.class);
 
 			LOGGER.info("Try to create new assets and channel for thing id: {}", thing.getAtIdRDF());
 			LOGGER.info("Try to create new assets and channel for thing id: {}", thing.getAtId());
@@ -708,6 +746,8 @@ public class MultisensorDriver extends ThingDriver<MultisensorBindingConfig>
 				String key = entry.getKey();
 				if (key.equals("vibration")) {
 					if (entry.getValue().isJsonArray()) {
+						/* Collects the samples and sends them as one batch */
+						List<JsonObject> samples = new ArrayList<>();
 						for (int i = 0; i < entry.getValue().getAsJsonArray().size(); i = i + 6) {
 							JsonObject newValue = new JsonObject();
 							newValue.addProperty("time", time);
@@ -717,9 +757,10 @@ public class MultisensorDriver extends ThingDriver<MultisensorBindingConfig>
 								newValue.addProperty(v.getKey(), v.getValue().getAsNumber());
 							}
 //							System.out.println(newValue);
-							listener.doUpdate(newValue);
+							samples.add(newValue);
 							time += 1;
 						}
+						listener.doUpdateBatch(samples);
 					}
 				}
 			}
@@ -15,6 +15,7 @@
  */
 package org.ict.kura.internal.driver.mqtt;
 
+import org.ict.kura.driver.thing.ThingDriverConfig;
 import org.osgi.service.metatype.annotations.AttributeDefinition;
 import org.osgi.service.metatype.annotations.AttributeType;
 import org.osgi.service.metatype.annotations.ObjectClassDefinition;
@@ -37,7 +38,7 @@ import org.osgi.service.metatype.annotations.ObjectClassDefinition;
 		description = "Configuration parameters | Multisensor Driver",
 		localization = "en_us")
 
-@interface MultisensorDriverConfig {
+interface MultisensorDriverConfig extends ThingDriverConfig {
 	@AttributeDefinition(
 			name = "Enables the MDNS service",
 			type = AttributeType.BOOLEAN,
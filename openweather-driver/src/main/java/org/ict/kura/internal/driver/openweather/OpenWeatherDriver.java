@@ -34,6 +34,7 @@ import org.eclipse.kura.driver.PreparedRead;
 import org.ict.kura.asset.creator.thing.util.DefaultConfigReader;
 import org.ict.kura.asset.creator.thing.util.ThingPreparedRead;
 import org.ict.kura.driver.thing.ThingDriver;
+import org.ict.kura.driver.thing.ThingDriverOptions;
 import org.ict.kura.driver.thing.Util;
 import org.ict.kura.internal.driver.openweather.client.OpenWeatherClient;
 import org.ict.kura.internal.driver.openweather.client.OpenWeatherUpdateThread;
@@ -45,6 +46,7 @@ import org.ict.kura.thing.creator.ThingProvider;
 import org.ict.kura.thing.model.ThingsConfig;
 import org.ict.model.wot.core.ActionAffordance;
 import org.ict.model.wot.core.Thing;
+import org.osgi.service.component.ComponentConstants;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -129,13 +131,21 @@ public class OpenWeatherDriver extends ThingDriver<OpenWeatherBindingConfig> imp
 	 * 
 	 * @param componentContext The OSGi component informations of this bundle - in
 	 *                         this case we do nothing there.
+	 * @param reason           the reason of the deactivation, see
+	 *                         {@link ComponentConstants}
 	 */
 	@Deactivate
-	protected void deactivate(ComponentContext componentContext) {
+	protected void deactivate(ComponentContext componentContext, int reason) {
 		LOGGER.info("Bundle " + APP_ID + " has stopped!");
 
-		/* Closes all resources */
-		doDeactivate(false);
+		/*
+		 * Deletes the assets only if the driver configuration was deleted, on a
+		 * shutdown the assets are kept for the warm-start
+		 */
+		if (reason == ComponentConstants.DEACTIVATION_REASON_CONFIGURATION_DELETED)
+			doDelete();
+		else
+			doDeactivate();
 	}
 
 	/**
@@ -151,7 +161,7 @@ public class OpenWeatherDriver extends ThingDriver<OpenWeatherBindingConfig> imp
 		 * Deactivates all configurations, because it isn't able to modify an existing
 		 * configuration
 		 */
-		doDeactivate(true);
+		doDeactivate();
 
 		/* Updates all components with new configuration */
 		doUpdate(properties);
@@ -170,6 +180,9 @@ public class OpenWeatherDriver extends ThingDriver<OpenWeatherBindingConfig> imp
 			/* Gets the options (configuration) */
 			this.options = new OpenWeatherDriverOptions(properties);
 
+			/* Configures the common thing driver options, e.g. the event dispatch mode */
+			configure(new ThingDriverOptions(properties));
+
 			/* Exists a location folder for thing descriptions */
 			LOGGER.info("Folder or file path: {}", this.options.getThingFolderLocation());
 
@@ -229,21 +242,48 @@ public class OpenWeatherDriver extends ThingDriver<OpenWeatherBindingConfig> imp
 	}
 
 	/**
-	 * Deactivates all resources means deletes all assets and devices - bundle
-	 * shutdown.
+	 * Deletes all assets and channels of the driver and deactivates all resources.
+	 * The resources are deactivated, even if the assets could not be deleted.
+	 */
+	private void doDelete() {
+		try {
+			/* Deletes all assets and channels */
+			if (options != null)
+				getThingProvider().deleteAssetsWithChannels(options.getDriverServicePID());
+		} catch (Exception e) {
+			LOGGER.error("", e);
+		} finally {
+			doDeactivate();
+		}
+	}
+
+	/**
+	 * Deactivates all resources - bundle shutdown or configuration update, the
+	 * assets are kept.
 	 */
-	private void doDeactivate(boolean updated) {
+	private void doDeactivate() {
 		LOGGER.info("doDeactivate...");
 
-		if (!updated) {
-			try {
-				if (openWeatherUpdateThread != null) {
-					openWeatherUpdateThread.close();
-				}
-			} catch (Exception e) {
-				LOGGER.error("" + e);
+		try {
+			if (openWeatherUpdateThread != null) {
+				openWeatherUpdateThread.close();
 			}
+		} catch (Exception e) {
+			LOGGER.error("" + e);
 		}
+		openWeatherUpdateThread = null;
+
+		/* Stops the ingress ring after the pending values are processed */
+		closeIngressRing();
+
+		/* Stops the event dispatcher and sends the pending events */
+		getEventDispatcher().close();
+
+		/* Stops the metrics snapshots */
+		getMetrics().close();
+
+		/* Stops the asynchronous writes */
+		closeWriteQueue();
 	}
 
 	/*
@@ -28,6 +28,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
 
 /**
  * The open weather update thread.
@@ -58,9 +61,6 @@ public class OpenWeatherUpdateThread implements Runnable, Closeable {
 	/* the Thread instance */
 	private Thread runner;
 
-	/* The payload format */
-	final String payloadFormat = "{\"time\" : %d, \"%s\": %s}";
-
 	/**
 	 * Constructor of {@link OpenWeatherUpdateThread}
 	 * 
@@ -125,15 +125,8 @@ public class OpenWeatherUpdateThread implements Runnable, Closeable {
 					/* Creates an actual time stamp */
 					long timeStamp = System.currentTimeMillis();
 
-					/* Prepares the payload */
-
-					String payload = String.format(payloadFormat, timeStamp,
-//							tcl.getPropertyName().equals("temp") ? "temperature" : tcl.getPropertyName(), value);
-							tcl.getPropertyName(), value);
-					LOGGER.info("payload: {}", payload);
-
-					/* Fires the new payload */
-					tcl.doUpdate(payload);
+					/* Fires the new value without an intermediate JSON string */
+					update(tcl, timeStamp, value);
 				}
 				/* Sleep for seconds */
 				TimeUnit.SECONDS.sleep(pollInterval);
@@ -143,6 +136,42 @@ public class OpenWeatherUpdateThread implements Runnable, Closeable {
 		}
 	}
 
+	/**
+	 * Passes the value to the {@link ThingChannelListener}. Primitive values are
+	 * passed directly, all other values are wrapped into the WoT payload.
+	 * 
+	 * @param tcl       the {@link ThingChannelListener}
+	 * @param timeStamp the actual time stamp
+	 * @param value     the value from the OpenWeathermap response
+	 */
+	private void update(ThingChannelListener tcl, long timeStamp, JsonElement value) {
+		if (value != null && value.isJsonPrimitive()) {
+			JsonPrimitive primitive = value.getAsJsonPrimitive();
+			if (primitive.isBoolean()) {
+				tcl.doUpdate(timeStamp, primitive.getAsBoolean());
+				return;
+			}
+			if (primitive.isNumber()) {
+				/* Keeps integral values integral, e.g. the humidity or the pressure */
+				String number = primitive.getAsString();
+				if (number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0)
+					tcl.doUpdate(timeStamp, primitive.getAsLong());
+				else
+					tcl.doUpdate(timeStamp, primitive.getAsDouble());
+				return;
+			}
+		}
+
+		/* Prepares the payload */
+		JsonObject payload = new JsonObject();
+		payload.addProperty("time", timeStamp);
+		payload.add(tcl.getPropertyName(), value == null ? JsonNull.INSTANCE : value);
+		LOGGER.debug("payload: {}", payload);
+
+		/* Fires the new payload */
+		tcl.doUpdate(payload);
+	}
+
 	@Override
 	public void close() throws IOException {
 		LOGGER.info("Stops the thread");
@@ -41,6 +41,21 @@ public class ThingChannelDescriptor extends ChannelDescriptorBase {
 	private static final String PROP_FORMACTION = "formAction";
 	private static final String PROP_FORMACTION_BINDING = "formActionBinding";
 
+	/* The report by exception mode: none, unchanged, absolute or percent */
+	public static final String PROP_DEADBAND_MODE = "deadbandMode";
+	/* The absolute or percentage deadband of numeric values */
+	public static final String PROP_DEADBAND = "deadband";
+	/* The interval in seconds after which an unchanged value is sent anyway */
+	public static final String PROP_HEARTBEAT_INTERVAL = "heartbeatInterval";
+	/* The minimum interval between two values in milliseconds */
+	public static final String PROP_RATE_LIMIT = "rateLimit";
+	/* The maximum age in milliseconds of a cached value returned by a read */
+	public static final String PROP_MAX_AGE = "maxAge";
+	/* The schema validation mode: none, all, sampled or first */
+	public static final String PROP_VALIDATION = "validation";
+	/* The validation of one of N values in the sampled mode */
+	public static final String PROP_VALIDATION_RATE = "validationRate";
+
 	public ThingChannelDescriptor() {
 		/* Adds the property form href to the {@link ChannelDescription} */
 		final Tad formProperty = new Tad();
@@ -77,5 +92,75 @@ public class ThingChannelDescriptor extends ChannelDescriptorBase {
 		formActionBinding.setType(Tscalar.STRING);
 		formActionBinding.setRequired(false);
 		tads.add(formActionBinding);
+
+		/* Adds the report by exception mode to {@link ChannelDescription} */
+		final Tad deadbandMode = new Tad();
+		deadbandMode.setName(PROP_DEADBAND_MODE);
+		deadbandMode.setId(PROP_DEADBAND_MODE);
+		deadbandMode.setDescription("Report by exception: none, unchanged, absolute or percent");
+		deadbandMode.setType(Tscalar.STRING);
+		deadbandMode.setRequired(false);
+		deadbandMode.setDefault("none");
+		tads.add(deadbandMode);
+
+		/* Adds the deadband to {@link ChannelDescription} */
+		final Tad deadband = new Tad();
+		deadband.setName(PROP_DEADBAND);
+		deadband.setId(PROP_DEADBAND);
+		deadband.setDescription("Deadband of numeric values (absolute value or percent)");
+		deadband.setType(Tscalar.DOUBLE);
+		deadband.setRequired(false);
+		deadband.setDefault("0.0");
+		tads.add(deadband);
+
+		/* Adds the heartbeat interval to {@link ChannelDescription} */
+		final Tad heartbeatInterval = new Tad();
+		heartbeatInterval.setName(PROP_HEARTBEAT_INTERVAL);
+		heartbeatInterval.setId(PROP_HEARTBEAT_INTERVAL);
+		heartbeatInterval.setDescription("Sends an unchanged value after N seconds, 0 disables the heartbeat");
+		heartbeatInterval.setType(Tscalar.INTEGER);
+		heartbeatInterval.setRequired(false);
+		heartbeatInterval.setDefault("0");
+		tads.add(heartbeatInterval);
+
+		/* Adds the rate limit to {@link ChannelDescription} */
+		final Tad rateLimit = new Tad();
+		rateLimit.setName(PROP_RATE_LIMIT);
+		rateLimit.setId(PROP_RATE_LIMIT);
+		rateLimit.setDescription("Minimum interval between two values in milliseconds, 0 disables the rate limit");
+		rateLimit.setType(Tscalar.INTEGER);
+		rateLimit.setRequired(false);
+		rateLimit.setDefault("0");
+		tads.add(rateLimit);
+
+		/* Adds the maximum age of the read cache to {@link ChannelDescription} */
+		final Tad maxAge = new Tad();
+		maxAge.setName(PROP_MAX_AGE);
+		maxAge.setId(PROP_MAX_AGE);
+		maxAge.setDescription("Maximum age in milliseconds of a value returned by a read without a device request, 0 always reads the device");
+		maxAge.setType(Tscalar.INTEGER);
+		maxAge.setRequired(false);
+		maxAge.setDefault("0");
+		tads.add(maxAge);
+
+		/* Adds the schema validation mode to {@link ChannelDescription} */
+		final Tad validation = new Tad();
+		validation.setName(PROP_VALIDATION);
+		validation.setId(PROP_VALIDATION);
+		validation.setDescription("Schema validation of the received values: none, all, sampled or first");
+		validation.setType(Tscalar.STRING);
+		validation.setRequired(false);
+		validation.setDefault("none");
+		tads.add(validation);
+
+		/* Adds the validation rate to {@link ChannelDescription} */
+		final Tad validationRate = new Tad();
+		validationRate.setName(PROP_VALIDATION_RATE);
+		validationRate.setId(PROP_VALIDATION_RATE);
+		validationRate.setDescription("Validates one of N values in the sampled mode");
+		validationRate.setType(Tscalar.INTEGER);
+		validationRate.setRequired(false);
+		validationRate.setDefault("100");
+		tads.add(validationRate);
 	}
 }
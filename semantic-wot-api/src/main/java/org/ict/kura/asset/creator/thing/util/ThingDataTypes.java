@@ -0,0 +1,240 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.asset.creator.thing.util;
+
+import static java.util.Objects.nonNull;
+
+import java.util.Map.Entry;
+import java.util.Optional;
+
+import org.eclipse.kura.type.DataType;
+import org.eclipse.kura.type.TypedValue;
+import org.eclipse.kura.type.TypedValues;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Maps the WoT data schema of a property to a KURA {@link DataType} and
+ * extracts the typed value from a WoT payload.
+ *
+ * A WoT property payload is always a JSON object with a time stamp and one
+ * value, e.g. {"time": 1610000000000, "temperature": 21.5}. The data schema of
+ * the value decides the KURA channel type:
+ *
+ * <pre>
+ * number                            -> DOUBLE
+ * integer (minimum/maximum in int)  -> INTEGER
+ * integer                           -> LONG
+ * boolean                           -> BOOLEAN
+ * everything else                   -> STRING (whole JSON payload)
+ * </pre>
+ */
+public final class ThingDataTypes {
+	/* The key of the time stamp in the WoT payload */
+	public static final String TIME = "time";
+
+	/* Hidden constructor */
+	private ThingDataTypes() {
+	}
+
+	/**
+	 * Returns the KURA {@link DataType} of the value described by the given
+	 * property affordance (in JSON format).
+	 *
+	 * @param propertyAffordance the property affordance in JSON format
+	 * @param propertyName       the name of the property (key of the value)
+	 * @return the KURA {@link DataType}, {@link DataType#STRING} if the schema can
+	 *         not be mapped
+	 */
+	public static DataType getDataType(JsonObject propertyAffordance, String propertyName) {
+		try {
+			JsonObject valueSchema = getValueSchema(propertyAffordance, propertyName);
+			if (valueSchema == null || !valueSchema.has("type"))
+				return DataType.STRING;
+
+			switch (valueSchema.get("type").getAsString()) {
+			case "number":
+				return DataType.DOUBLE;
+			case "integer":
+				return isIntRange(valueSchema) ? DataType.INTEGER : DataType.LONG;
+			case "boolean":
+				return DataType.BOOLEAN;
+			default:
+				return DataType.STRING;
+			}
+		} catch (Exception e) {
+			return DataType.STRING;
+		}
+	}
+
+	/**
+	 * Returns the value from the WoT payload. The value is saved with the property
+	 * name as key, otherwise the only member which is not the time stamp is used.
+	 *
+	 * @param jsonValue    the WoT payload
+	 * @param propertyName the name of the property (key of the value)
+	 * @return the value or null if no value exists
+	 */
+	public static JsonElement getValue(JsonObject jsonValue, String propertyName) {
+		if (nonNull(propertyName) && jsonValue.has(propertyName))
+			return jsonValue.get(propertyName);
+
+		JsonElement value = null;
+		for (Entry<String, JsonElement> entry : jsonValue.entrySet()) {
+			if (TIME.equals(entry.getKey()))
+				continue;
+			/* More than one value - the payload is not a simple time/value pair */
+			if (value != null)
+				return null;
+			value = entry.getValue();
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the {@link TypedValue} of the WoT payload. For {@link DataType#STRING}
+	 * the whole payload is used in JSON format, otherwise the primitive value is
+	 * extracted.
+	 *
+	 * @param dataType     the KURA {@link DataType} of the channel
+	 * @param jsonValue    the WoT payload
+	 * @param propertyName the name of the property (key of the value)
+	 * @return the {@link TypedValue} or empty if the value can not be converted
+	 */
+	public static Optional<TypedValue<?>> getTypedValue(DataType dataType, JsonObject jsonValue,
+			String propertyName) {
+		try {
+			if (dataType == DataType.STRING)
+				return Optional.of(TypedValues.newStringValue(jsonValue.toString()));
+
+			JsonElement value = getValue(jsonValue, propertyName);
+			if (value == null || !value.isJsonPrimitive())
+				return Optional.empty();
+
+			switch (dataType) {
+			case DOUBLE:
+				return Optional.of(TypedValues.newDoubleValue(value.getAsDouble()));
+			case FLOAT:
+				return Optional.of(TypedValues.newFloatValue(value.getAsFloat()));
+			case INTEGER:
+				return Optional.of(TypedValues.newIntegerValue(value.getAsInt()));
+			case LONG:
+				return Optional.of(TypedValues.newLongValue(value.getAsLong()));
+			case BOOLEAN:
+				return Optional.of(TypedValues.newBooleanValue(value.getAsBoolean()));
+			default:
+				return Optional.empty();
+			}
+		} catch (Exception e) {
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Returns the {@link TypedValue} of a numeric value.
+	 *
+	 * @param dataType the KURA {@link DataType} of the channel
+	 * @param value    the numeric value
+	 * @return the {@link TypedValue} or empty if the value can not be converted
+	 *         without the JSON payload
+	 */
+	public static Optional<TypedValue<?>> getTypedValue(DataType dataType, double value) {
+		switch (dataType) {
+		case DOUBLE:
+			return Optional.of(TypedValues.newDoubleValue(value));
+		case FLOAT:
+			return Optional.of(TypedValues.newFloatValue((float) value));
+		case INTEGER:
+			return Optional.of(TypedValues.newIntegerValue((int) value));
+		case LONG:
+			return Optional.of(TypedValues.newLongValue((long) value));
+		case BOOLEAN:
+			return Optional.of(TypedValues.newBooleanValue(value != 0));
+		default:
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Returns the {@link TypedValue} of an integral value.
+	 *
+	 * @param dataType the KURA {@link DataType} of the channel
+	 * @param value    the integral value
+	 * @return the {@link TypedValue} or empty if the value can not be converted
+	 *         without the JSON payload
+	 */
+	public static Optional<TypedValue<?>> getTypedValue(DataType dataType, long value) {
+		switch (dataType) {
+		case LONG:
+			return Optional.of(TypedValues.newLongValue(value));
+		case INTEGER:
+			return Optional.of(TypedValues.newIntegerValue((int) value));
+		default:
+			return getTypedValue(dataType, (double) value);
+		}
+	}
+
+	/**
+	 * Returns the {@link TypedValue} of a boolean value.
+	 *
+	 * @param dataType the KURA {@link DataType} of the channel
+	 * @param value    the boolean value
+	 * @return the {@link TypedValue} or empty if the value can not be converted
+	 *         without the JSON payload
+	 */
+	public static Optional<TypedValue<?>> getTypedValue(DataType dataType, boolean value) {
+		if (dataType == DataType.BOOLEAN)
+			return Optional.of(TypedValues.newBooleanValue(value));
+		return Optional.empty();
+	}
+
+	/**
+	 * Returns the data schema of the value from the property affordance. The
+	 * property affordance is an object schema with the time stamp and the value.
+	 *
+	 * @param propertyAffordance the property affordance in JSON format
+	 * @param propertyName       the name of the property (key of the value)
+	 * @return the data schema of the value or null
+	 */
+	private static JsonObject getValueSchema(JsonObject propertyAffordance, String propertyName) {
+		JsonObject schema = propertyAffordance;
+		/* Older models save the data schema in a separate member */
+		if (!schema.has("properties") && schema.has("ds") && schema.get("ds").isJsonObject())
+			schema = schema.getAsJsonObject("ds");
+
+		if (!schema.has("properties") || !schema.get("properties").isJsonObject())
+			return null;
+
+		JsonElement valueSchema = getValue(schema.getAsJsonObject("properties"), propertyName);
+		return valueSchema != null && valueSchema.isJsonObject() ? valueSchema.getAsJsonObject() : null;
+	}
+
+	/**
+	 * Checks whether the minimum and the maximum of an integer schema are inside
+	 * the int range.
+	 *
+	 * @param valueSchema the integer schema
+	 * @return true if both limits exist and fit into an int
+	 */
+	private static boolean isIntRange(JsonObject valueSchema) {
+		if (!valueSchema.has("minimum") || !valueSchema.has("maximum"))
+			return false;
+		long minimum = valueSchema.get("minimum").getAsLong();
+		long maximum = valueSchema.get("maximum").getAsLong();
+		return minimum >= Integer.MIN_VALUE && maximum <= Integer.MAX_VALUE;
+	}
+}
@@ -15,7 +15,6 @@
  */
 package org.ict.kura.asset.creator.thing.util;
 
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -55,10 +54,11 @@ public class ThingPreparedRead implements PreparedRead {
 	@Override
 	public synchronized List<ChannelRecord> execute() throws ConnectionException {
 
-		for (ChannelRecord record : this.channelRecords) {
-			/* Sets the initial value of each parameter */
-			driver.read(Arrays.asList(record));
-		}
+		/*
+		 * Sets the initial value of all parameters with one call, so the driver can
+		 * read the channels in one batch
+		 */
+		driver.read(this.channelRecords);
 		/*
 		 * In this case we allow the Kura framework to read all parameters (channel
 		 * records)
@@ -0,0 +1,242 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.kura.channel.listener.ChannelListener;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.ict.model.wot.core.ActionAffordance;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+
+import lombok.ToString;
+
+/**
+ * The registry of the compiled action schemas. The key is the formHref
+ * (action), the value is the compiled everit {@link Schema} of the
+ * {@link ActionAffordance}.
+ *
+ * The schemas are compiled once in
+ * {@link ThingDriver#registerChannelListener(Map, ChannelListener)} and removed
+ * together with their owning channel in
+ * {@link ThingDriver#unregisterChannelListener(ChannelListener)}, so the
+ * {@link ThingDriver#write(java.util.List)} path only validates the payload.
+ */
+@ToString(of = { "hits", "misses", "validations", "validationNanos" })
+public class ActionSchemaRegistry {
+	/* The logger instance */
+	private static final Logger LOGGER = LoggerFactory.getLogger(ActionSchemaRegistry.class);
+
+	/* The compiled schemas, the key is the formHref (action) */
+	private final Map<String, CompiledSchema> schemas = new ConcurrentHashMap<>();
+
+	/* The formHrefs (actions) owned by each KURA channel listener */
+	private final Map<ChannelListener, Set<String>> owners = new ConcurrentHashMap<>();
+
+	/* Factory to create JSON objects */
+	private final Gson gson;
+
+	/* Number of validations served from the registry */
+	private final LongAdder hits = new LongAdder();
+
+	/* Number of validations which had to compile the schema first */
+	private final LongAdder misses = new LongAdder();
+
+	/* Number of validations */
+	private final LongAdder validations = new LongAdder();
+
+	/* The summed up validation time in nanoseconds */
+	private final LongAdder validationNanos = new LongAdder();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param gson the {@link Gson} instance with the WoT type adapters
+	 */
+	public ActionSchemaRegistry(Gson gson) {
+		this.gson = gson;
+	}
+
+	/**
+	 * Compiles the schema of the given {@link ActionAffordance} and saves it with
+	 * the given formHref (action). If the schema can not be compiled, the error is
+	 * logged and the schema is compiled again on the first validation - an invalid
+	 * schema of one action must not fail the registration of the whole channel
+	 * set.
+	 *
+	 * @param formAction       the formHref (action)
+	 * @param actionAffordance the {@link ActionAffordance}
+	 * @param channelListener  the KURA {@link ChannelListener} owning this action
+	 */
+	public void register(String formAction, ActionAffordance actionAffordance, ChannelListener channelListener) {
+		CompiledSchema compiledSchema = new CompiledSchema(actionAffordance, channelListener);
+		try {
+			compiledSchema.schema = compile(actionAffordance);
+			LOGGER.debug("Compiled the schema for formAction {}", formAction);
+		} catch (Throwable t) {
+			LOGGER.error("The schema for formAction {} could not be compiled, it is compiled on the first write",
+					formAction, t);
+		}
+		CompiledSchema previous = schemas.put(formAction, compiledSchema);
+
+		/* A formHref (action) has one owner, the latest registration wins */
+		if (previous != null && previous.channelListener != null && previous.channelListener != channelListener)
+			owners.computeIfPresent(previous.channelListener, (k, formActions) -> {
+				formActions.remove(formAction);
+				return formActions.isEmpty() ? null : formActions;
+			});
+		if (channelListener != null)
+			owners.computeIfAbsent(channelListener, k -> ConcurrentHashMap.newKeySet()).add(formAction);
+	}
+
+	/**
+	 * Removes all compiled schemas owned by the given KURA {@link ChannelListener}.
+	 * Only the schemas of this listener are visited.
+	 *
+	 * @param channelListener the KURA {@link ChannelListener}
+	 * @return the formHrefs (actions) of the removed schemas
+	 */
+	public Set<String> unregister(ChannelListener channelListener) {
+		Set<String> formActions = channelListener == null ? null : owners.remove(channelListener);
+		if (formActions == null)
+			return Collections.emptySet();
+		formActions.removeIf(formAction -> schemas.computeIfPresent(formAction,
+				(k, compiledSchema) -> compiledSchema.channelListener == channelListener ? null
+						: compiledSchema) != null);
+		return formActions;
+	}
+
+	/**
+	 * Validates the given JSON value against the compiled schema of the given
+	 * formHref (action). A schema which could not be compiled on the registration
+	 * is compiled now. If no channel of the formHref (action) is registered, the
+	 * schema is compiled from the {@link ActionAffordance} for this validation
+	 * only - a saved schema always has a channel owning it, which removes it.
+	 *
+	 * @param formAction       the formHref (action)
+	 * @param actionAffordance the {@link ActionAffordance}, only used if the schema
+	 *                         is not compiled yet
+	 * @param jsonValue        the value in {@link String} JSON format
+	 * @throws ValidationException if the value does not match the schema
+	 */
+	public void validate(String formAction, ActionAffordance actionAffordance, String jsonValue) {
+		CompiledSchema compiledSchema = schemas.get(formAction);
+		Schema schema = compiledSchema == null ? null : compiledSchema.schema;
+		if (schema == null) {
+			misses.increment();
+			if (compiledSchema == null) {
+				schema = compile(actionAffordance);
+			} else {
+				schema = compile(compiledSchema.actionAffordance != null ? compiledSchema.actionAffordance
+						: actionAffordance);
+				compiledSchema.schema = schema;
+			}
+		} else {
+			hits.increment();
+		}
+
+		long start = System.nanoTime();
+		try {
+			schema.validate(new JSONObject(jsonValue));
+		} finally {
+			validations.increment();
+			validationNanos.add(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Creates the everit {@link Schema} from the given {@link ActionAffordance}.
+	 * Identical affordances share one compiled schema of the
+	 * {@link ThingFlyweights}.
+	 *
+	 * @param actionAffordance the {@link ActionAffordance}
+	 * @return the compiled {@link Schema}
+	 */
+	private Schema compile(ActionAffordance actionAffordance) {
+		return ThingFlyweights.getCompiledSchema(gson, actionAffordance);
+	}
+
+	/**
+	 * Returns the number of registered schemas.
+	 *
+	 * @return the number of registered schemas
+	 */
+	public int size() {
+		return schemas.size();
+	}
+
+	/**
+	 * Returns the number of validations with an already compiled schema.
+	 *
+	 * @return the number of cache hits
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns the number of validations which had to compile the schema first.
+	 *
+	 * @return the number of cache misses
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Returns the number of validations.
+	 *
+	 * @return the number of validations
+	 */
+	public long getValidations() {
+		return validations.sum();
+	}
+
+	/**
+	 * Returns the average validation time in microseconds.
+	 *
+	 * @return the average validation time in microseconds, 0 if nothing was
+	 *         validated
+	 */
+	public double getAverageValidationMicros() {
+		long count = validations.sum();
+		return count == 0 ? 0 : validationNanos.sum() / 1000.0 / count;
+	}
+
+	/*
+	 * The compiled schema and the KURA channel listener owning the schema. The
+	 * schema is null until it was compiled successfully.
+	 */
+	private static final class CompiledSchema {
+		private volatile Schema schema;
+		private final ActionAffordance actionAffordance;
+		private final ChannelListener channelListener;
+
+		private CompiledSchema(ActionAffordance actionAffordance, ChannelListener channelListener) {
+			this.actionAffordance = actionAffordance;
+			this.channelListener = channelListener;
+		}
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.ict.model.wot.core.ActionAffordance;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonObject;
+
+/**
+ * The non blocking variant of the {@link Binding} interface. A technology with
+ * an asynchronous client (e.g. CoAP or HTTP callbacks) implements this
+ * interface, so a request does not occupy a thread for the whole network round
+ * trip. The {@link ThingDriver} waits for the futures with a timeout and
+ * cancels the futures of the requests which are not finished in time - a
+ * technology should stop the request if its future is cancelled or completed
+ * exceptionally.
+ *
+ * The blocking methods of the {@link Binding} are implemented with the
+ * asynchronous methods.
+ */
+public interface AsyncBinding<T> extends Binding<T> {
+
+	/**
+	 * Reads the value from the technology without blocking, see
+	 * {@link Binding#doRead(Object)}.
+	 *
+	 * @param technologyBindingConfiguration the technology configuration
+	 * @return the future of the read value, an empty optional if the value is
+	 *         received via an asynchronous channel
+	 */
+	public CompletableFuture<Optional<JsonObject>> doReadAsync(T technologyBindingConfiguration);
+
+	/**
+	 * Writes the value from KURA to the technology without blocking, see
+	 * {@link Binding#doWrite(Object, ActionAffordance, JsonObject)}.
+	 *
+	 * @param technologyBindingConfiguration the technology configuration
+	 * @param actionAffordance               the {@link ActionAffordance} with
+	 *                                       semantic informations about the action
+	 *                                       and payload
+	 * @param jsonValue                      the value in {@link JsonObject} format
+	 * @return the future, completed if the write was confirmed by the technology
+	 */
+	public CompletableFuture<Void> doWriteAsync(T technologyBindingConfiguration, ActionAffordance actionAffordance,
+			JsonObject jsonValue);
+
+	@Override
+	public default Optional<JsonObject> doRead(T technologyBindingConfiguration) {
+		return await(doReadAsync(technologyBindingConfiguration));
+	}
+
+	@Override
+	public default void doWrite(T technologyBindingConfiguration, ActionAffordance actionAffordance,
+			JsonObject jsonValue) {
+		await(doWriteAsync(technologyBindingConfiguration, actionAffordance, jsonValue));
+	}
+
+	/**
+	 * Starts the reads of all technology configurations at once and waits for the
+	 * results without a timeout.
+	 */
+	@Override
+	public default Map<T, Optional<JsonObject>> doReadBatch(Collection<T> technologyBindingConfigurations) {
+		return doReadBatch(technologyBindingConfigurations, 0);
+	}
+
+	/**
+	 * Starts the reads of all technology configurations at once and waits for the
+	 * results. The reads which are not finished after the timeout are cancelled.
+	 *
+	 * @param technologyBindingConfigurations the technology configurations
+	 * @param timeout                         the timeout of the whole batch in
+	 *                                        milliseconds, 0 waits without timeout
+	 * @return the read values with the technology configuration as key. A binding
+	 *         whose read failed or timed out is not contained in the map.
+	 */
+	public default Map<T, Optional<JsonObject>> doReadBatch(Collection<T> technologyBindingConfigurations,
+			long timeout) {
+		/* Starts all reads */
+		Map<T, CompletableFuture<Optional<JsonObject>>> futures = new LinkedHashMap<>();
+		for (T technologyBindingConfiguration : technologyBindingConfigurations) {
+			try {
+				futures.put(technologyBindingConfiguration, doReadAsync(technologyBindingConfiguration));
+			} catch (Throwable t) {
+				LoggerFactory.getLogger(AsyncBinding.class).error("", t);
+			}
+		}
+
+		/* Waits for the results until the deadline */
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+		Map<T, Optional<JsonObject>> values = new LinkedHashMap<>();
+		for (Map.Entry<T, CompletableFuture<Optional<JsonObject>>> entry : futures.entrySet()) {
+			CompletableFuture<Optional<JsonObject>> future = entry.getValue();
+			try {
+				Optional<JsonObject> value = timeout > 0
+						? future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+						: future.get();
+				values.put(entry.getKey(), value == null ? Optional.empty() : value);
+			} catch (TimeoutException e) {
+				future.cancel(true);
+				LoggerFactory.getLogger(AsyncBinding.class).warn("Read of {} cancelled after {} ms", entry.getKey(),
+						timeout);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				futures.values().forEach(f -> f.cancel(true));
+				break;
+			} catch (Throwable t) {
+				LoggerFactory.getLogger(AsyncBinding.class).error("", t);
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the given {@link Binding} as {@link AsyncBinding}, if the technology
+	 * implements the non blocking variant.
+	 *
+	 * @param binding the technology binding
+	 * @return the {@link AsyncBinding} or null if the binding is blocking only
+	 */
+	public static <T> AsyncBinding<T> of(Binding<T> binding) {
+		return binding instanceof AsyncBinding ? (AsyncBinding<T>) binding : null;
+	}
+
+	/**
+	 * Waits for a future and unwraps the exception of the technology.
+	 *
+	 * @param future the future
+	 * @return the result of the future
+	 */
+	private static <R> R await(CompletableFuture<R> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the technology", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new IllegalStateException(cause);
+		}
+	}
+}
@@ -15,9 +15,13 @@
  */
 package org.ict.kura.driver.thing;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import org.ict.model.wot.core.ActionAffordance;
+import org.slf4j.LoggerFactory;
 
 import com.google.gson.JsonObject;
 
@@ -55,6 +59,30 @@ public interface Binding<T> {
 	// @formatter:on
 	public Optional<JsonObject> doRead(T technologyBindingConfiguration);
 
+	/**
+	 * Reads the values of several technology configurations with one call. The
+	 * {@link ThingDriver#read(java.util.List)} hands all bindings of a read request
+	 * to this method, so a technology can pipeline or parallelize the requests,
+	 * e.g. per device. The default implementation calls {@link #doRead(Object)}
+	 * for each binding one after another.
+	 * 
+	 * @param technologyBindingConfigurations the technology configurations
+	 * @return the read values with the technology configuration as key, see
+	 *         {@link #doRead(Object)}. A binding whose read failed is not contained
+	 *         in the map.
+	 */
+	public default Map<T, Optional<JsonObject>> doReadBatch(Collection<T> technologyBindingConfigurations) {
+		Map<T, Optional<JsonObject>> values = new LinkedHashMap<>();
+		for (T technologyBindingConfiguration : technologyBindingConfigurations) {
+			try {
+				values.put(technologyBindingConfiguration, doRead(technologyBindingConfiguration));
+			} catch (Throwable t) {
+				LoggerFactory.getLogger(Binding.class).error("", t);
+			}
+		}
+		return values;
+	}
+
 	/**
 	 * Writes the value from KURA to the technology.
 	 * 
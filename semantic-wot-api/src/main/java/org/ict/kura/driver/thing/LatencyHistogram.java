@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock free latency histogram with logarithmic buckets. The bucket i counts
+ * the latencies between 2^(i-1) and 2^i microseconds, so the percentiles have
+ * an error of at most factor 2 - enough to see whether a read takes 1 ms or
+ * 100 ms. A record is one {@link LongAdder} increment, so the histogram can be
+ * used in the technology threads.
+ */
+public class LatencyHistogram {
+	/* The number of buckets, the last bucket counts all latencies above ~35 min */
+	private static final int BUCKETS = 32;
+
+	/* The bucket counters */
+	private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+	/* The number of recorded latencies */
+	private final LongAdder count = new LongAdder();
+
+	/* The sum of all recorded latencies in microseconds */
+	private final LongAdder sum = new LongAdder();
+
+	/* The maximum recorded latency in microseconds */
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * Constructor.
+	 */
+	public LatencyHistogram() {
+		for (int i = 0; i < BUCKETS; i++)
+			buckets[i] = new LongAdder();
+	}
+
+	/**
+	 * Records a latency.
+	 *
+	 * @param nanos the latency in nanoseconds, e.g. the difference of two
+	 *              {@link System#nanoTime()} calls
+	 */
+	public void record(long nanos) {
+		long micros = Math.max(0, nanos / 1000);
+		buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros))].increment();
+		count.increment();
+		sum.add(micros);
+		max.accumulate(micros);
+	}
+
+	/**
+	 * Returns the number of recorded latencies.
+	 *
+	 * @return the number of recorded latencies
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Returns the percentile of the recorded latencies as upper bound of the
+	 * bucket.
+	 *
+	 * @param percentile the percentile between 0 and 100
+	 * @return the latency in microseconds, 0 if nothing was recorded
+	 */
+	public long getPercentile(double percentile) {
+		long[] counts = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = buckets[i].sum();
+			total += counts[i];
+		}
+		if (total == 0)
+			return 0;
+
+		long rank = (long) Math.ceil(total * percentile / 100.0);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= Math.max(1, rank))
+				return Math.min(i == 0 ? 0 : 1L << i, max.get());
+		}
+		return max.get();
+	}
+
+	/**
+	 * Returns a snapshot of the histogram, all latencies in microseconds. The
+	 * snapshot is not atomic, concurrent records may be partially included.
+	 *
+	 * @return a map with count, mean, max, p50, p95 and p99
+	 */
+	public Map<String, Long> snapshot() {
+		Map<String, Long> snapshot = new LinkedHashMap<>();
+		long n = count.sum();
+		snapshot.put("count", n);
+		snapshot.put("mean", n == 0 ? 0 : sum.sum() / n);
+		snapshot.put("max", max.get());
+		snapshot.put("p50", getPercentile(50));
+		snapshot.put("p95", getPercentile(95));
+		snapshot.put("p99", getPercentile(99));
+		return snapshot;
+	}
+
+	@Override
+	public String toString() {
+		return "LatencyHistogram " + snapshot();
+	}
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_DEADBAND;
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_DEADBAND_MODE;
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_HEARTBEAT_INTERVAL;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor;
+
+import com.google.gson.JsonElement;
+
+import lombok.Getter;
+
+/**
+ * The report by exception filter of a {@link ThingChannelListener}. A new value
+ * is only sent to the KURA framework and the OSGi EventAdmin if it differs
+ * from the last sent value:
+ *
+ * <pre>
+ * NONE      - every value is sent (default)
+ * UNCHANGED - unchanged values are suppressed
+ * ABSOLUTE  - numeric values are suppressed if |value - last| &lt; deadband
+ * PERCENT   - numeric values are suppressed if |value - last| &lt; |last| * deadband / 100
+ * </pre>
+ *
+ * If a heartbeat interval is configured, a suppressed value is sent anyway when
+ * the last sent value is older than the interval. The filter is configured via
+ * the advanced channel configuration, see {@link ThingChannelDescriptor}.
+ */
+public class ThingChannelFilter {
+
+	/* The report by exception modes */
+	public enum DeadbandMode {
+		NONE, UNCHANGED, ABSOLUTE, PERCENT;
+
+		/**
+		 * Returns the deadband mode from the configuration value, NONE if unknown.
+		 *
+		 * @param value the configuration value e.g. none, unchanged, absolute or
+		 *              percent
+		 * @return the {@link DeadbandMode}
+		 */
+		public static DeadbandMode from(String value) {
+			try {
+				return DeadbandMode.valueOf(value.trim().toUpperCase());
+			} catch (Exception e) {
+				return NONE;
+			}
+		}
+	}
+
+	/* The configured mode */
+	@Getter
+	private final DeadbandMode mode;
+
+	/* The absolute or percentage deadband */
+	@Getter
+	private final double deadband;
+
+	/* The heartbeat interval in milliseconds, 0 if disabled */
+	@Getter
+	private final long heartbeatInterval;
+
+	/* True if a value was sent */
+	private boolean initialized;
+
+	/* The last sent value */
+	private Object lastValue;
+
+	/* The time of the last sent value in milliseconds */
+	private long lastSent;
+
+	/* Number of suppressed values */
+	private final LongAdder suppressed = new LongAdder();
+
+	/* Number of values passed by the filter */
+	private final LongAdder passed = new LongAdder();
+
+	/* Number of values sent by the heartbeat */
+	private final LongAdder heartbeats = new LongAdder();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param mode              the {@link DeadbandMode}
+	 * @param deadband          the absolute or percentage deadband
+	 * @param heartbeatInterval the heartbeat interval in milliseconds, 0 disables
+	 *                          the heartbeat
+	 */
+	public ThingChannelFilter(DeadbandMode mode, double deadband, long heartbeatInterval) {
+		this.mode = mode;
+		this.deadband = Math.abs(deadband);
+		this.heartbeatInterval = Math.max(0, heartbeatInterval);
+	}
+
+	/**
+	 * Creates the filter from the KURA channel configuration.
+	 *
+	 * @param channelConfiguration the KURA channel configuration
+	 * @return the {@link ThingChannelFilter}
+	 */
+	public static ThingChannelFilter from(Map<String, Object> channelConfiguration) {
+		Object mode = channelConfiguration.get(PROP_DEADBAND_MODE);
+		return new ThingChannelFilter(mode == null ? DeadbandMode.NONE : DeadbandMode.from(mode.toString()),
+				getDouble(channelConfiguration.get(PROP_DEADBAND)),
+				(long) (getDouble(channelConfiguration.get(PROP_HEARTBEAT_INTERVAL)) * 1000));
+	}
+
+	/**
+	 * Checks whether the value has to be sent. If so, the value is saved as the
+	 * last sent value.
+	 *
+	 * @param time  the actual time in milliseconds
+	 * @param value the value to compare, a {@link Number}, {@link Boolean} or
+	 *              {@link JsonElement} without the time stamp
+	 * @return true if the value has to be sent, false if it is suppressed
+	 */
+	public synchronized boolean accept(long time, Object value) {
+		if (mode == DeadbandMode.NONE)
+			return true;
+
+		boolean send = !initialized || isChanged(value);
+		if (!send && heartbeatInterval > 0 && time - lastSent >= heartbeatInterval) {
+			heartbeats.increment();
+			send = true;
+		}
+
+		if (send) {
+			passed.increment();
+			initialized = true;
+			lastValue = value;
+			lastSent = time;
+		} else {
+			suppressed.increment();
+		}
+		return send;
+	}
+
+	/**
+	 * Checks whether the value differs from the last sent value.
+	 *
+	 * @param value the value to compare
+	 * @return true if the value is out of the deadband
+	 */
+	private boolean isChanged(Object value) {
+		Double actual = getNumber(value);
+		Double last = getNumber(lastValue);
+		/* Non numeric values are only compared for equality */
+		if (mode == DeadbandMode.UNCHANGED || actual == null || last == null)
+			return !Objects.equals(value, lastValue);
+
+		double delta = Math.abs(actual - last);
+		if (mode == DeadbandMode.ABSOLUTE)
+			return delta > deadband;
+		return last == 0 ? delta != 0 : delta * 100 > Math.abs(last) * deadband;
+	}
+
+	/**
+	 * Returns the numeric value or null if the value is not numeric.
+	 *
+	 * @param value a {@link Number} or a {@link JsonElement}
+	 * @return the numeric value or null
+	 */
+	private static Double getNumber(Object value) {
+		if (value instanceof Number)
+			return ((Number) value).doubleValue();
+		if (value instanceof JsonElement && ((JsonElement) value).isJsonPrimitive()
+				&& ((JsonElement) value).getAsJsonPrimitive().isNumber())
+			return ((JsonElement) value).getAsDouble();
+		return null;
+	}
+
+	/**
+	 * Returns the configuration value as double, the KURA configuration contains
+	 * numbers or strings.
+	 *
+	 * @param value the configuration value
+	 * @return the double value, 0 if not set or not numeric
+	 */
+	private static double getDouble(Object value) {
+		try {
+			if (value instanceof Number)
+				return ((Number) value).doubleValue();
+			return value == null ? 0 : Double.parseDouble(value.toString().trim());
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Returns the number of suppressed values.
+	 *
+	 * @return the number of suppressed values
+	 */
+	public long getSuppressed() {
+		return suppressed.sum();
+	}
+
+	/**
+	 * Returns the number of values passed by the filter, including the heartbeats.
+	 *
+	 * @return the number of passed values
+	 */
+	public long getPassed() {
+		return passed.sum();
+	}
+
+	/**
+	 * Returns the number of values sent by the heartbeat.
+	 *
+	 * @return the number of heartbeats
+	 */
+	public long getHeartbeats() {
+		return heartbeats.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "ThingChannelFilter [mode=" + mode + ", deadband=" + deadband + ", heartbeatInterval="
+				+ heartbeatInterval + ", suppressed=" + getSuppressed() + ", passed=" + getPassed() + ", heartbeats=" + getHeartbeats() + "]";
+	}
+}
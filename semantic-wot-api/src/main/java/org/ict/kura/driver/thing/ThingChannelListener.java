@@ -17,11 +17,15 @@ package org.ict.kura.driver.thing;
 
 import static org.eclipse.kura.channel.ChannelFlag.FAILURE;
 import static org.eclipse.kura.channel.ChannelFlag.SUCCESS;
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_MAX_AGE;
 
 import java.io.Closeable;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 import org.eclipse.kura.channel.ChannelRecord;
 import org.eclipse.kura.channel.ChannelStatus;
@@ -30,8 +34,8 @@ import org.eclipse.kura.channel.listener.ChannelEvent;
 import org.eclipse.kura.channel.listener.ChannelListener;
 import org.eclipse.kura.type.DataType;
 import org.eclipse.kura.type.TypedValue;
-import org.eclipse.kura.type.TypedValues;
-import org.ict.gson.utils.AdapterFactory;
+import org.ict.kura.asset.creator.thing.util.ThingDataTypes;
+import org.ict.kura.driver.thing.ThingChannelFilter.DeadbandMode;
 import org.ict.kura.util.Constants;
 import org.ict.model.wot.core.PropertyAffordance;
 import org.json.JSONObject;
@@ -40,7 +44,7 @@ import org.osgi.service.event.EventAdmin;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.gson.Gson;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
@@ -53,8 +57,8 @@ import lombok.ToString;
  * This is the base implementation of a thing listener, which holds all default
  * channel and thing description action/property parameters.
  * 
- * This module also validates the payload with the WoT {link PropertyAffordance}
- * schema. @see method {link #update(jsonValue)}
+ * This module also validates a sample of the payloads with the WoT {link
+ * PropertyAffordance} schema, see {@link ThingChannelValidation}.
  * 
  * @author IKT M. Biskup
  * @author IKT M. Kuller
@@ -90,42 +94,76 @@ public class ThingChannelListener implements Update, Closeable {
 	private final Map<String, Object> channelConfiguration;
 
 	/*
-	 * The data type of the payload - in this case always a string type (JSON
-	 * formatted)
+	 * The data type of the payload - a string type (JSON formatted) or the
+	 * primitive type derived from the {@link PropertyAffordance} data schema
 	 */
 	@Getter
 	private DataType dataType;
 
-	/* The KURA value object - contains the value and the data type of the value */
+	/*
+	 * The last value with its time stamps, replaced as a whole by each update -
+	 * null if no value was received or the last value could not be converted
+	 */
 	@Getter
-	Optional<TypedValue<?>> typedValue = Optional.empty();
+	private volatile ThingValue lastValue;
 
 	/*
-	 * 
-	 * 
-	 * The {@link EventAdmin} instance
+	 * The supplier of the last value, sent with the telemetry events - so the
+	 * receivers see the receive time of the suppressed values as well
+	 */
+	private final Supplier<ThingValue> lastValueSupplier = this::getLastValue;
+
+	/*
+	 * The maximum age in milliseconds of the typed value returned by a read
+	 * without a device request, 0 if the device is always read
 	 */
 	@Getter
-	private final EventAdmin eventAdmin;
+	private final long maxAge;
+
+	/* The dispatcher to send the telemetry events via the {@link EventAdmin} */
+	@Getter
+	private final ThingEventDispatcher eventDispatcher;
+
+	/* The report by exception filter, configured via the channel configuration */
+	@Getter
+	private final ThingChannelFilter filter;
+
+	/* The rate limit, configured via the channel configuration */
+	@Getter
+	private final ThingChannelThrottle throttle;
+
+	/* The schema validation, configured via the channel configuration */
+	@Getter
+	private final ThingChannelValidation validation;
+
+	/* True if the metrics were created for this listener only, closed with the listener */
+	private boolean ownMetrics;
+
+	/* The metrics of the driver */
+	@Getter
+	private final ThingDriverMetrics metrics;
+
+	/* Number of values received from the technology */
+	private final LongAdder updates = new LongAdder();
+
+	/* Number of values which could not be converted */
+	private final LongAdder failures = new LongAdder();
 
 	// #########################################
 	// The WoT description section
 	// #########################################
 
-	/* The WoT property JSON schema */
+	/* The WoT property JSON schema, shared by identical affordances */
 	@Getter
 	private final PropertyAffordance propertyAffordance;
 
-	/* The WoT property JSON schema formed as a {link JSONObject} */
+	/*
+	 * The WoT property JSON schema formed as a {link JSONObject}, shared by
+	 * identical affordances and must not be modified
+	 */
 	@Getter
 	private final JSONObject propertyAffordanceJsonObjectType;
 
-	/* The JSON schema checker */
-//	private final Schema propertyAffordanceSchema;
-
-	/* Creates a new payload in JSON format */
-	private final Gson gson = AdapterFactory.getGsonWithDefaultWotTypeAdapters(true);
-
 	/**
 	 * Constructor.
 	 * 
@@ -141,11 +179,57 @@ public class ThingChannelListener implements Update, Closeable {
 	 */
 	public ThingChannelListener(String thingName, Map<String, Object> channelConfiguration,
 			ChannelListener channelListener, EventAdmin eventAdmin, PropertyAffordance propertyAffordance) {
+		this(thingName, channelConfiguration, channelListener,
+				new ThingEventDispatcher(thingName, () -> eventAdmin), propertyAffordance);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param thingName            the name of the asset to which the channel
+	 *                             corresponds
+	 * @param channelConfiguration the KURA configuration of the channel from which
+	 *                             the parameters name of the channel, the type of
+	 *                             the channel, the data type of the value and the
+	 *                             WoT form href are fetched
+	 * @param channelListener      the KURA channel listener
+	 * @param eventDispatcher      the {@link ThingEventDispatcher} of the driver to
+	 *                             send messages via the OSGi {@link EventAdmin}
+	 */
+	public ThingChannelListener(String thingName, Map<String, Object> channelConfiguration,
+			ChannelListener channelListener, ThingEventDispatcher eventDispatcher,
+			PropertyAffordance propertyAffordance) {
+		this(thingName, channelConfiguration, channelListener, eventDispatcher, new ThingDriverMetrics(thingName),
+				propertyAffordance);
+		this.ownMetrics = true;
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param thingName            the name of the asset to which the channel
+	 *                             corresponds
+	 * @param channelConfiguration the KURA configuration of the channel from which
+	 *                             the parameters name of the channel, the type of
+	 *                             the channel, the data type of the value and the
+	 *                             WoT form href are fetched
+	 * @param channelListener      the KURA channel listener
+	 * @param eventDispatcher      the {@link ThingEventDispatcher} of the driver to
+	 *                             send messages via the OSGi {@link EventAdmin}
+	 * @param metrics              the {@link ThingDriverMetrics} of the driver
+	 */
+	public ThingChannelListener(String thingName, Map<String, Object> channelConfiguration,
+			ChannelListener channelListener, ThingEventDispatcher eventDispatcher, ThingDriverMetrics metrics,
+			PropertyAffordance propertyAffordance) {
 		this.thingName = thingName;
 		this.channelConfiguration = channelConfiguration;
 		this.channelListener = channelListener;
-		this.eventAdmin = eventAdmin;
-		this.propertyAffordance = propertyAffordance;
+		this.eventDispatcher = eventDispatcher;
+		this.metrics = metrics;
+		/* The data schema of the affordance without the forms, serialized only once */
+		String dataSchema = ThingFlyweights.getDataSchema(propertyAffordance);
+		/* Shares the affordance with the channels of identical data */
+		this.propertyAffordance = ThingFlyweights.intern(dataSchema);
 
 		/* Gets the channel name from the channel configuration */
 		this.propertyName = (String) channelConfiguration.get("+name");
@@ -153,127 +237,438 @@ public class ThingChannelListener implements Update, Closeable {
 		this.channelType = ChannelType.valueOf(channelConfiguration.get("+type").toString());
 		/* Gets the channel value type from the channel configuration */
 		this.dataType = DataType.getDataType((String) channelConfiguration.get("+value.type"));
+		/* Creates the report by exception filter from the channel configuration */
+		this.filter = ThingChannelFilter.from(channelConfiguration);
+		/* Creates the rate limit from the channel configuration */
+		this.throttle = ThingChannelThrottle.from(channelConfiguration, metrics::getTimer);
+		/* Gets the maximum age of the read cache from the channel configuration */
+		this.maxAge = getMaxAge(channelConfiguration);
 		/*
 		 * Converts the {link PropertyAffordance} into a {link JSONObject} for schema
-		 * validation
+		 * validation, converted only once for identical data schemas
 		 */
-		this.propertyAffordanceJsonObjectType = new JSONObject(gson.toJson(propertyAffordance));
-
+		this.propertyAffordanceJsonObjectType = ThingFlyweights.getSchema(dataSchema);
 		/*
-		 * Creates the schema based on the {link PropertyAffordance} to validate the
-		 * {link #update(jsonValue)} payload
+		 * Creates the validation of the {link #update(jsonValue)} payload, the
+		 * validator is compiled once for identical data schemas
 		 */
-//		this.propertyAffordanceSchema = SchemaLoader.load(propertyAffordanceJsonObjectType);
+		this.validation = ThingChannelValidation.from(this.channelConfiguration,
+				() -> ThingFlyweights.getValidator(dataSchema));
+	}
+
+	/**
+	 * Returns the OSGi {@link EventAdmin} used by the {@link ThingEventDispatcher}.
+	 * 
+	 * @return the {@link EventAdmin}
+	 */
+	public EventAdmin getEventAdmin() {
+		return eventDispatcher.getEventAdmin();
 	}
 
 	@Override
 	public final void doUpdate(String jsonValue) {
 		try {
-			LOGGER.info("ThingName {}, PropertyName {}, Value: {}", thingName, propertyName, jsonValue);
+			LOGGER.debug("ThingName {}, PropertyName {}, Value: {}", thingName, propertyName, jsonValue);
 
 			/* Redirects to the method {link #update(JsonObject)} */
 			this.doUpdate(new JsonParser().parse(jsonValue).getAsJsonObject());
 		} catch (Throwable t) {
+			countFailure();
 			LOGGER.error("", t);
 		}
 	}
 
 	@Override
 	public final void doUpdate(JsonObject jsonValue) {
+		if (jsonValue == null || !jsonValue.has(ThingDataTypes.TIME)) {
+			countFailure();
+			LOGGER.warn("ThingName {}, PropertyName {}, the value has no time: {}", thingName, propertyName,
+					jsonValue);
+			return;
+		}
+		try {
+			LOGGER.debug("ThingName {}, PropertyName {}, Value: {}", thingName, propertyName, jsonValue);
+
+			/* Redirects to the method {link #update(long, Optional, Supplier)} */
+			update(jsonValue.get(ThingDataTypes.TIME).getAsLong(), getTypedValue(dataType, jsonValue), () -> jsonValue);
+		} catch (Throwable t) {
+			countFailure();
+			LOGGER.error("", t);
+		}
+	}
+
+	@Override
+	public final void doUpdate(long time, double value) {
+		try {
+			LOGGER.debug("ThingName {}, PropertyName {}, Time: {}, Value: {}", thingName, propertyName, time, value);
+
+			/* The JSON payload is created once, not for suppressed or coalesced values */
+			Supplier<JsonObject> payload = new LazyPayload(() -> createPayload(time, value));
+			update(time, dataType == DataType.STRING ? getTypedValue(dataType, payload.get())
+					: ThingDataTypes.getTypedValue(dataType, value), payload);
+		} catch (Throwable t) {
+			countFailure();
+			LOGGER.error("", t);
+		}
+	}
+
+	@Override
+	public final void doUpdate(long time, long value) {
 		try {
-			if(channelListener == null) {
-				LOGGER.warn("Device was deletet, channelListener is null!");
+			LOGGER.debug("ThingName {}, PropertyName {}, Time: {}, Value: {}", thingName, propertyName, time, value);
+
+			/* The JSON payload is created once, not for suppressed or coalesced values */
+			Supplier<JsonObject> payload = new LazyPayload(() -> createPayload(time, value));
+			update(time, dataType == DataType.STRING ? getTypedValue(dataType, payload.get())
+					: ThingDataTypes.getTypedValue(dataType, value), payload);
+		} catch (Throwable t) {
+			countFailure();
+			LOGGER.error("", t);
+		}
+	}
+
+	@Override
+	public final void doUpdate(long time, boolean value) {
+		try {
+			LOGGER.debug("ThingName {}, PropertyName {}, Time: {}, Value: {}", thingName, propertyName, time, value);
+
+			/* The JSON payload is created once, not for suppressed or coalesced values */
+			Supplier<JsonObject> payload = new LazyPayload(() -> createPayload(time, value));
+			update(time, dataType == DataType.STRING ? getTypedValue(dataType, payload.get())
+					: ThingDataTypes.getTypedValue(dataType, value), payload);
+		} catch (Throwable t) {
+			countFailure();
+			LOGGER.error("", t);
+		}
+	}
+
+	@Override
+	public final void doUpdateBatch(List<JsonObject> jsonValues) {
+		try {
+			LOGGER.debug("ThingName {}, PropertyName {}, Batch size: {}", thingName, propertyName, jsonValues.size());
+
+			if (jsonValues.isEmpty())
+				return;
+
+			/* Collects the block of samples in one JSON array */
+			JsonArray values = new JsonArray(jsonValues.size());
+			jsonValues.forEach(values::add);
+
+			/* The last sample is the actual value of the channel */
+			JsonObject last = jsonValues.get(jsonValues.size() - 1);
+			update(last.get(ThingDataTypes.TIME).getAsLong(), getTypedValue(dataType, last), () -> last, values);
+		} catch (Throwable t) {
+			countFailure();
+			LOGGER.error("", t);
+		}
+	}
+
+	/**
+	 * Sends the new value via the KURA {@link ChannelListener} and the OSGi
+	 * {@link EventAdmin}.
+	 * 
+	 * @param time       the time stamp of the value
+	 * @param typedValue the KURA typed value, empty if the conversion failed
+	 * @param payload    the supplier of the WoT payload, called for a sent value,
+	 *                   the validation and the deadband of a string channel
+	 */
+	private void update(long time, Optional<TypedValue<?>> typedValue, Supplier<JsonObject> payload) {
+		update(time, typedValue, payload, null);
+	}
+
+	/**
+	 * Sends the new value via the KURA {@link ChannelListener} and the OSGi
+	 * {@link EventAdmin}. A batch is sent as one event, the property "value"
+	 * contains the last WoT payload and the property "values" all WoT payloads of
+	 * the batch.
+	 * 
+	 * @param time       the time stamp of the value
+	 * @param typedValue the KURA typed value, empty if the conversion failed
+	 * @param payload    the supplier of the WoT payload, called for a sent value,
+	 *                   the validation and the deadband of a string channel
+	 * @param values     the WoT payloads of a batch or null
+	 */
+	private void update(long time, Optional<TypedValue<?>> typedValue, Supplier<JsonObject> payload,
+			JsonArray values) {
+		if (channelListener == null) {
+			LOGGER.warn("Device was deletet, channelListener is null!");
+			return;
+		}
+
+		/* The start of the update to dispatch latency */
+		long start = System.nanoTime();
+		updates.increment();
+		metrics.update();
+
+		/* Validates a sample of the values with the schema - an invalid value is not sent */
+		if (typedValue.isPresent() && validation.isEnabled() && validation.sample()) {
+			Optional<String> violation = validate(payload, values);
+			if (violation.isPresent()) {
+				LOGGER.warn("Value of thing {}, property {} does not match the schema: {}", thingName, propertyName,
+						violation.get());
+				sendFailure("The value does not match the schema: " + violation.get());
 				return;
 			}
-			LOGGER.info("ThingName {}, PropertyName {}, Value: {}", thingName, propertyName, jsonValue.toString());
+		}
 
+		/*
+		 * Saves the TypedValue object with the given actual value here locally (cache
+		 * of the {@link TingChannelListener} instance)
+		 */
+		this.lastValue = typedValue.isPresent()
+				? new ThingValue(propertyName, typedValue.get(), time, System.currentTimeMillis())
+				: null;
+
+		/* If the typed value is not set, the channel status is set to failure */
+		if (!typedValue.isPresent()) {
+			sendFailure("Error while converting the retrieved value to the defined typed");
+		} else {
 			/*
-			 * Validates the payload - converts to {link J
-			 * 
-			 * SONObject}
+			 * Report by exception - suppresses values inside the deadband, a batch is
+			 * always sent
 			 */
-//			this.propertyAffordanceSchema.validate(new JSONObject(jsonValue.toString()));
+			if (values == null && filter.getMode() != DeadbandMode.NONE
+					&& !filter.accept(System.currentTimeMillis(), getFilterValue(typedValue.get(), payload))) {
+				LOGGER.debug("Value of thing {}, property {} is suppressed by the {}", thingName, propertyName,
+						filter);
+				return;
+			}
 
 			/*
-			 * Creates a TypedValue object with the given actual value and saves this here
-			 * locally (cache of the {@link TingChannelListener} instance)
+			 * Rate limit - at most one value per interval, the latest value wins. A batch
+			 * is always sent.
 			 */
-			this.typedValue = getTypedValue(dataType, jsonValue);
-
-			/* Creates a new empty channel record */
-			ChannelRecord record = null;
-
-			/* If the typed value is not set, the channel status is set to failure */
-			if (!typedValue.isPresent()) {
-				/*
-				 * Creates a channel record as statusRecord with the channelName and Status
-				 */
-				record = ChannelRecord.createStatusRecord(propertyName, new ChannelStatus(FAILURE,
-						"Error while converting the retrieved value to the defined typed", null));
-				/* Sets the ChannelConfiguration */
-				record.setChannelConfig(channelConfiguration);
-				/* Sets the actual time stamp */
-				record.setTimestamp(System.currentTimeMillis());
-				/*
-				 * the value (JSON object) Sends a failure as channelEvent via the KURA
-				 * Listener, this value is visible in UI.
-				 */
-				channelListener.onChannelEvent(new ChannelEvent(record));
-			} else {
-				// *************************************************************************
-				// Builds the kura channel event record
-				// *************************************************************************
-
-				/*
-				 * Creates a channel record with propertyName (KURA channel name) and the
-				 * dataType of the Value
-				 */
-				record = ChannelRecord.createReadRecord(propertyName, dataType);
-				/* Sets the actual value */
-				record.setValue(typedValue.get());
-				/* Sets the channel status */
-				record.setChannelStatus(new ChannelStatus(SUCCESS));
-				/* Gets the actual time stamp from JsonObject */
-				JsonElement timeValue = jsonValue.get("time");
-				/* Sets the actual time stamp in long format */
-				record.setTimestamp(timeValue.getAsLong());
-				/* Sets the ChannelConfiguration */
-				record.setChannelConfig(channelConfiguration);
-
-				LOGGER.info("Sends an onChannelEvent (ChannelListener) record: {}",
-						record.getChannelConfig().get("formProperty"));
-				/*
-				 * Sends the new value further as channelEvent via the KURA Listener, this value
-				 * is visible in UI.
-				 */
-				channelListener.onChannelEvent(new ChannelEvent(record));
-
-				// *************************************************************************
-				// Builds a channel record and send this via the {@link EventAdmin}
-				// *************************************************************************
-
-				/* Creates map of property objects to be send via the {@link EventAdmin} */
-				Map<String, Object> properties = new HashMap<>();
-
-				/* Puts the value (JSON object) into the property object */
-				properties.put("value", jsonValue);
-				/* Puts only the thing name into the property object */
-				properties.put("thingName", thingName);
-				/* Puts the property name into the property object */
-				properties.put("propertyName", propertyName);
-
-				/* Builds the topic name */
-				String topic = Constants.EVENT_ADMIN_BASE_TOPIC_NAME.value() + thingName
-						+ Constants.EVENT_ADMIN_PROPERTY_TAG_TOPIC_NAME.value() + propertyName;
-
-				LOGGER.info("Sends an sendEvent (EventAdmin) record with topic: {}, properties: {}", topic, properties);
-
-				/* Sends the new value via the OSGi {@link EventAdmin} */
-				this.eventAdmin.sendEvent(new Event(topic, properties));
-			}
-		} catch (Throwable t) {
-			LOGGER.error("", t);
+			TypedValue<?> value = typedValue.get();
+			if (values == null && throttle.isEnabled())
+				throttle.submit(() -> send(System.nanoTime(), time, value, payload, null));
+			else
+				send(start, time, value, payload, values);
+		}
+	}
+
+	/**
+	 * Sends a failure via the KURA {@link ChannelListener}.
+	 * 
+	 * @param message the message of the failure
+	 */
+	private void sendFailure(String message) {
+		countFailure();
+
+		/* The listener was closed in the meantime */
+		ChannelListener channelListener = this.channelListener;
+		if (channelListener == null)
+			return;
+
+		/*
+		 * Creates a channel record as statusRecord with the channelName and Status
+		 */
+		ChannelRecord record = ChannelRecord.createStatusRecord(propertyName,
+				new ChannelStatus(FAILURE, message, null));
+		/* Sets the ChannelConfiguration */
+		record.setChannelConfig(channelConfiguration);
+		/* Sets the actual time stamp */
+		record.setTimestamp(System.currentTimeMillis());
+		/*
+		 * the value (JSON object) Sends a failure as channelEvent via the KURA
+		 * Listener, this value is visible in UI.
+		 */
+		channelListener.onChannelEvent(new ChannelEvent(record));
+	}
+
+	/**
+	 * Validates the WoT payload or all WoT payloads of a batch with the schema.
+	 * 
+	 * @param payload the supplier of the WoT payload
+	 * @param values  the WoT payloads of a batch or null
+	 * @return empty if valid, otherwise the first violation
+	 */
+	private Optional<String> validate(Supplier<JsonObject> payload, JsonArray values) {
+		Optional<String> violation = Optional.empty();
+		if (values == null) {
+			violation = validation.validate(payload.get());
+		} else {
+			for (int i = 0; i < values.size() && !violation.isPresent(); i++)
+				violation = validation.validate(values.get(i));
 		}
+		metrics.validation(!violation.isPresent());
+		return violation;
+	}
+
+	/**
+	 * Sends the value via the KURA {@link ChannelListener} and the OSGi
+	 * {@link EventAdmin}.
+	 * 
+	 * @param start      the start of the update in nanoseconds, a rate limited
+	 *                   value starts with the end of the interval
+	 * @param time       the time stamp of the value
+	 * @param typedValue the KURA typed value
+	 * @param payload    the supplier of the WoT payload
+	 * @param values     the WoT payloads of a batch or null
+	 */
+	private void send(long start, long time, TypedValue<?> typedValue, Supplier<JsonObject> payload,
+			JsonArray values) {
+		/* The listener was closed in the meantime, e.g. by a pending rate limited value */
+		ChannelListener channelListener = this.channelListener;
+		if (channelListener == null)
+			return;
+
+		// *************************************************************************
+		// Builds the kura channel event record
+		// *************************************************************************
+
+		/*
+		 * Creates a channel record with propertyName (KURA channel name) and the
+		 * dataType of the Value
+		 */
+		ChannelRecord record = ChannelRecord.createReadRecord(propertyName, dataType);
+		/* Sets the actual value */
+		record.setValue(typedValue);
+		/* Sets the channel status */
+		record.setChannelStatus(new ChannelStatus(SUCCESS));
+		/* Sets the actual time stamp in long format */
+		record.setTimestamp(time);
+		/* Sets the ChannelConfiguration */
+		record.setChannelConfig(channelConfiguration);
+
+		LOGGER.debug("Sends an onChannelEvent (ChannelListener) record: {}",
+				record.getChannelConfig().get("formProperty"));
+		/*
+		 * Sends the new value further as channelEvent via the KURA Listener, this value
+		 * is visible in UI.
+		 */
+		channelListener.onChannelEvent(new ChannelEvent(record));
+
+		// *************************************************************************
+		// Builds a channel record and send this via the {@link EventAdmin}
+		// *************************************************************************
+
+		/* Creates map of property objects to be send via the {@link EventAdmin} */
+		Map<String, Object> properties = new HashMap<>();
+
+		/*
+		 * Puts the value (JSON object) into the property object - the consumers of the
+		 * event read the WoT payload, so each sent value builds its JSON object
+		 */
+		properties.put("value", payload.get());
+		/* Puts the block of values (JSON array) into the property object */
+		if (values != null)
+			properties.put("values", values);
+		/* Puts only the thing name into the property object */
+		properties.put("thingName", thingName);
+		/* Puts the property name into the property object */
+		properties.put("propertyName", propertyName);
+		/* Puts the supplier of the last value, including the suppressed values */
+		properties.put("lastValue", lastValueSupplier);
+
+		/* Builds the topic name */
+		String topic = Constants.EVENT_ADMIN_BASE_TOPIC_NAME.value() + thingName
+				+ Constants.EVENT_ADMIN_PROPERTY_TAG_TOPIC_NAME.value() + propertyName;
+
+		LOGGER.debug("Sends an sendEvent (EventAdmin) record with topic: {}", topic);
+
+		/* Sends the new value via the OSGi {@link EventAdmin} */
+		this.eventDispatcher.dispatch(new Event(topic, properties));
+		metrics.getDispatchLatency().record(System.nanoTime() - start);
+	}
+
+	/**
+	 * Creates the WoT payload with the time stamp and the value, e.g. {"time":
+	 * 1610000000000, "temperature": 21.5}
+	 * 
+	 * @param time  the time stamp of the value
+	 * @param value the numeric value
+	 * @return the WoT payload
+	 */
+	private JsonObject createPayload(long time, Number value) {
+		JsonObject payload = new JsonObject();
+		payload.addProperty(ThingDataTypes.TIME, time);
+		payload.addProperty(propertyName, value);
+		return payload;
+	}
+
+	/**
+	 * Creates the WoT payload with the time stamp and the value, e.g. {"time":
+	 * 1610000000000, "onOff": true}
+	 * 
+	 * @param time  the time stamp of the value
+	 * @param value the boolean value
+	 * @return the WoT payload
+	 */
+	private JsonObject createPayload(long time, Boolean value) {
+		JsonObject payload = new JsonObject();
+		payload.addProperty(ThingDataTypes.TIME, time);
+		payload.addProperty(propertyName, value);
+		return payload;
+	}
+
+	/**
+	 * Checks whether the cached typed value is young enough to be returned by a
+	 * read without a device request.
+	 *
+	 * @param now the actual time in milliseconds
+	 * @return true if a maximum age is configured and the value is younger
+	 */
+	public boolean isFresh(long now) {
+		ThingValue value = lastValue;
+		return maxAge > 0 && value != null && now - value.getReceived() <= maxAge;
+	}
+
+	/**
+	 * Returns the KURA value object of the last value.
+	 *
+	 * @return the {@link TypedValue} or empty if no value is cached
+	 */
+	public Optional<TypedValue<?>> getTypedValue() {
+		ThingValue value = lastValue;
+		return value == null ? Optional.empty() : Optional.of(value.getTypedValue());
+	}
+
+	/**
+	 * Returns the time in milliseconds when the last value was received.
+	 *
+	 * @return the time or 0 if no value is cached
+	 */
+	public long getLastUpdate() {
+		ThingValue value = lastValue;
+		return value == null ? 0 : value.getReceived();
+	}
+
+	/**
+	 * Returns the number of values received from the technology.
+	 *
+	 * @return the number of updates
+	 */
+	public long getUpdates() {
+		return updates.sum();
+	}
+
+	/**
+	 * Returns the number of values which could not be converted or processed.
+	 *
+	 * @return the number of failures
+	 */
+	public long getFailures() {
+		return failures.sum();
+	}
+
+	/* Gets the maximum age of the read cache, 0 if not configured or invalid */
+	private static long getMaxAge(Map<String, Object> channelConfiguration) {
+		Object value = channelConfiguration.get(PROP_MAX_AGE);
+		try {
+			if (value instanceof Number)
+				return Math.max(0, ((Number) value).longValue());
+			else if (value != null)
+				return Math.max(0, Long.parseLong(value.toString().trim()));
+		} catch (NumberFormatException e) {
+			LOGGER.warn("Invalid maximum age {}, the read cache is disabled", value);
+		}
+		return 0;
+	}
+
+	/* Counts a failed update of this channel and of the driver */
+	private void countFailure() {
+		failures.increment();
+		metrics.failure();
 	}
 
 	@Override
@@ -281,6 +676,11 @@ public class ThingChannelListener implements Update, Closeable {
 		try {
 			LOGGER.info("... here we do not need to do anything !");
 			this.channelListener = null;
+			/* Discards a pending rate limited value */
+			this.throttle.close();
+			/* Shuts down the timer of the own metrics */
+			if (ownMetrics)
+				this.metrics.close();
 		} catch (Exception e) {
 			LOGGER.error("", e);
 		}
@@ -288,22 +688,53 @@ public class ThingChannelListener implements Update, Closeable {
 
 	/**
 	 * Returns the {@link TypedValue} determined from the {@link DataType} and the
-	 * value object.
+	 * WoT payload. For {@link DataType#STRING} the whole payload is used, otherwise
+	 * the primitive value is extracted from the payload.
 	 * 
 	 * @param valueType the {@link DataType} from the value
-	 * @param value     the value object
+	 * @param value     the WoT payload
 	 * @return the {@link TypedValue} instance
 	 */
-	private static Optional<TypedValue<?>> getTypedValue(DataType valueType, Object value) {
-		try {
-			switch (valueType) {
-			case STRING:
-				return Optional.of(TypedValues.newStringValue(value.toString()));
-			default:
-				return Optional.empty();
-			}
-		} catch (final Exception ex) {
-			return Optional.empty();
+	private Optional<TypedValue<?>> getTypedValue(DataType valueType, JsonObject value) {
+		return ThingDataTypes.getTypedValue(valueType, value, propertyName);
+	}
+
+	/**
+	 * Returns the value to compare in the {@link ThingChannelFilter}. For
+	 * {@link DataType#STRING} the value from the WoT payload is used without the
+	 * time stamp, otherwise the primitive value.
+	 * 
+	 * @param typedValue the KURA typed value
+	 * @param payload    the supplier of the WoT payload
+	 * @return the value to compare
+	 */
+	private Object getFilterValue(TypedValue<?> typedValue, Supplier<JsonObject> payload) {
+		if (dataType != DataType.STRING)
+			return typedValue.getValue();
+
+		JsonElement value = ThingDataTypes.getValue(payload.get(), propertyName);
+		if (value != null)
+			return value;
+		/* More than one value - compares the whole payload without the time stamp */
+		JsonObject copy = payload.get().deepCopy();
+		copy.remove(ThingDataTypes.TIME);
+		return copy;
+	}
+
+	/* Creates the WoT payload once on the first call, e.g. by the validation and the event */
+	private static final class LazyPayload implements Supplier<JsonObject> {
+		private final Supplier<JsonObject> factory;
+		private JsonObject payload;
+
+		private LazyPayload(Supplier<JsonObject> factory) {
+			this.factory = factory;
+		}
+
+		@Override
+		public JsonObject get() {
+			if (payload == null)
+				payload = factory.get();
+			return payload;
 		}
 	}
 }
@@ -0,0 +1,242 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_RATE_LIMIT;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import lombok.Getter;
+
+/**
+ * The rate limit of a {@link ThingChannelListener}. At most one value is sent
+ * per interval. Inside an interval the latest value wins, the pending value is
+ * sent by a timer at the end of the interval - so the last state of a channel
+ * is never lost. The interval is configured via the advanced channel
+ * configuration, see
+ * {@link org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor}.
+ *
+ * The timer belongs to the driver, see {@link ThingDriverMetrics#getTimer()},
+ * and is shut down when the driver is deactivated - the pending values are sent
+ * before, later values are sent directly. The values are sent outside the lock
+ * of the throttle.
+ */
+public class ThingChannelThrottle implements Closeable {
+	/* The logger instance */
+	private static final Logger LOGGER = LoggerFactory.getLogger(ThingChannelThrottle.class);
+
+	/* The supplier of the driver timer, which sends the pending values */
+	private final Supplier<ScheduledExecutorService> timer;
+
+	/* The minimum interval between two values in milliseconds, 0 if disabled */
+	@Getter
+	private final long interval;
+
+	/* The time of the last sent value in milliseconds */
+	private long lastSent;
+
+	/* The pending value, sent at the end of the interval */
+	private Runnable pending;
+
+	/* The scheduled flush of the pending value */
+	private ScheduledFuture<?> flush;
+
+	/* Number of submitted values */
+	private final LongAdder submitted = new LongAdder();
+
+	/* Number of sent values */
+	private final LongAdder sent = new LongAdder();
+
+	/* Number of values replaced by a newer value inside the interval */
+	private final LongAdder coalesced = new LongAdder();
+
+	/* Number of pending values discarded by the close */
+	private final LongAdder dropped = new LongAdder();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param interval the minimum interval between two values in milliseconds, 0
+	 *                 disables the rate limit
+	 * @param timer    the supplier of the driver timer, which sends the pending
+	 *                 values
+	 */
+	public ThingChannelThrottle(long interval, Supplier<ScheduledExecutorService> timer) {
+		this.interval = Math.max(0, interval);
+		this.timer = timer;
+	}
+
+	/**
+	 * Creates the throttle from the KURA channel configuration.
+	 *
+	 * @param channelConfiguration the KURA channel configuration
+	 * @param timer                the supplier of the driver timer, which sends
+	 *                             the pending values
+	 * @return the {@link ThingChannelThrottle}
+	 */
+	public static ThingChannelThrottle from(Map<String, Object> channelConfiguration,
+			Supplier<ScheduledExecutorService> timer) {
+		Object value = channelConfiguration.get(PROP_RATE_LIMIT);
+		long interval = 0;
+		try {
+			if (value instanceof Number)
+				interval = ((Number) value).longValue();
+			else if (value != null)
+				interval = Long.parseLong(value.toString().trim());
+		} catch (NumberFormatException e) {
+			LOGGER.warn("Invalid rate limit {}, the rate limit is disabled", value);
+		}
+		return new ThingChannelThrottle(interval, timer);
+	}
+
+	/**
+	 * Checks whether the rate limit is enabled.
+	 *
+	 * @return true if an interval is configured
+	 */
+	public boolean isEnabled() {
+		return interval > 0;
+	}
+
+	/**
+	 * Submits a value. The value is sent directly if the interval since the last
+	 * value has elapsed, otherwise it replaces the pending value.
+	 *
+	 * @param send the action which sends the value
+	 */
+	public void submit(Runnable send) {
+		submitted.increment();
+
+		synchronized (this) {
+			long now = System.currentTimeMillis();
+			if (pending != null || now - lastSent < interval) {
+				/* Inside the interval - the latest value wins */
+				if (pending != null)
+					coalesced.increment();
+				pending = send;
+
+				if (flush == null) {
+					try {
+						flush = timer.get().schedule(this::flush, Math.max(0, lastSent + interval - now),
+								TimeUnit.MILLISECONDS);
+						return;
+					} catch (RejectedExecutionException e) {
+						/* The driver is deactivated - the value is sent directly */
+						pending = null;
+					}
+				} else {
+					return;
+				}
+			}
+			lastSent = now;
+		}
+		send(send);
+	}
+
+	/* Sends the pending value at the end of the interval */
+	private void flush() {
+		Runnable send;
+		synchronized (this) {
+			flush = null;
+			send = pending;
+			pending = null;
+			if (send == null)
+				return;
+			lastSent = System.currentTimeMillis();
+		}
+		send(send);
+	}
+
+	/**
+	 * Sends the value, called without the lock of the throttle.
+	 *
+	 * @param send the action which sends the value
+	 */
+	private void send(Runnable send) {
+		sent.increment();
+		try {
+			send.run();
+		} catch (Throwable t) {
+			LOGGER.error("", t);
+		}
+	}
+
+	/**
+	 * Discards the pending value and cancels the timer.
+	 */
+	@Override
+	public synchronized void close() {
+		if (pending != null)
+			dropped.increment();
+		pending = null;
+		if (flush != null) {
+			flush.cancel(false);
+			flush = null;
+		}
+	}
+
+	/**
+	 * Returns the number of submitted values.
+	 *
+	 * @return the number of submitted values
+	 */
+	public long getSubmitted() {
+		return submitted.sum();
+	}
+
+	/**
+	 * Returns the number of sent values.
+	 *
+	 * @return the number of sent values
+	 */
+	public long getSent() {
+		return sent.sum();
+	}
+
+	/**
+	 * Returns the number of values replaced by a newer value inside the interval.
+	 *
+	 * @return the number of coalesced values
+	 */
+	public long getCoalesced() {
+		return coalesced.sum();
+	}
+
+	/**
+	 * Returns the number of pending values discarded by the close.
+	 *
+	 * @return the number of dropped values
+	 */
+	public long getDropped() {
+		return dropped.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "ThingChannelThrottle [interval=" + interval + ", submitted=" + getSubmitted() + ", sent=" + getSent()
+				+ ", coalesced=" + getCoalesced() + ", dropped=" + getDropped() + "]";
+	}
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_VALIDATION;
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_VALIDATION_RATE;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonElement;
+
+import lombok.Getter;
+
+/**
+ * The schema validation of the values received by a
+ * {@link ThingChannelListener}. An invalid value is not sent to the KURA
+ * framework and the OSGi EventAdmin. To keep the cost predictable at high
+ * rates, only a sample of the values is validated:
+ *
+ * <pre>
+ * NONE    - no value is validated (default)
+ * ALL     - every value is validated
+ * SAMPLED - one of N values is validated, N is the validation rate
+ * FIRST   - the values are validated until the first valid value, e.g. after
+ *           a changed thing description the channel listener is created again
+ * </pre>
+ *
+ * The validation is configured via the advanced channel configuration, see
+ * {@link ThingChannelDescriptor}.
+ */
+public class ThingChannelValidation {
+	/* The logger instance */
+	private static final Logger LOGGER = LoggerFactory.getLogger(ThingChannelValidation.class);
+
+	/* The validation modes */
+	public enum ValidationMode {
+		NONE, ALL, SAMPLED, FIRST;
+
+		/**
+		 * Returns the validation mode from the configuration value, NONE if unknown.
+		 *
+		 * @param value the configuration value e.g. none, all, sampled or first
+		 * @return the {@link ValidationMode}
+		 */
+		public static ValidationMode from(String value) {
+			try {
+				return ValidationMode.valueOf(value.trim().toUpperCase());
+			} catch (Exception e) {
+				return NONE;
+			}
+		}
+	}
+
+	/* The default validation rate N of the sampled mode */
+	public static final long DEFAULT_RATE = 100;
+
+	/* The configured mode */
+	@Getter
+	private final ValidationMode mode;
+
+	/* The validation rate N of the sampled mode */
+	@Getter
+	private final long rate;
+
+	/* The compiled validator, null if the validation is disabled */
+	private final ThingSchemaValidator validator;
+
+	/* The number of sampled values */
+	private final AtomicLong sequence = new AtomicLong();
+
+	/* True if a valid value was validated in the first mode */
+	private volatile boolean passed;
+
+	/* Number of validated values */
+	private final LongAdder validations = new LongAdder();
+
+	/* Number of invalid values */
+	private final LongAdder rejected = new LongAdder();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param mode      the {@link ValidationMode}
+	 * @param rate      the validation rate N of the sampled mode
+	 * @param validator the compiled validator, only called if the validation is
+	 *                  enabled
+	 */
+	public ThingChannelValidation(ValidationMode mode, long rate, Supplier<ThingSchemaValidator> validator) {
+		this.rate = Math.max(1, rate);
+		ThingSchemaValidator compiled = null;
+		if (mode != ValidationMode.NONE) {
+			try {
+				compiled = validator.get();
+			} catch (Exception e) {
+				LOGGER.warn("The schema can not be compiled, the validation is disabled: {}", e.getMessage());
+			}
+		}
+		/* Without a schema there is nothing to validate */
+		this.validator = compiled == null || compiled.isEmpty() ? null : compiled;
+		this.mode = this.validator == null ? ValidationMode.NONE : mode;
+	}
+
+	/**
+	 * Creates the validation from the KURA channel configuration.
+	 *
+	 * @param channelConfiguration the KURA channel configuration
+	 * @param validator            the compiled validator of the affordance
+	 * @return the {@link ThingChannelValidation}
+	 */
+	public static ThingChannelValidation from(Map<String, Object> channelConfiguration,
+			Supplier<ThingSchemaValidator> validator) {
+		Object mode = channelConfiguration.get(PROP_VALIDATION);
+		Object value = channelConfiguration.get(PROP_VALIDATION_RATE);
+		long rate = DEFAULT_RATE;
+		try {
+			if (value instanceof Number)
+				rate = ((Number) value).longValue();
+			else if (value != null)
+				rate = Long.parseLong(value.toString().trim());
+		} catch (NumberFormatException e) {
+			LOGGER.warn("Invalid validation rate {}, the default rate {} is used", value, DEFAULT_RATE);
+		}
+		return new ThingChannelValidation(mode == null ? ValidationMode.NONE : ValidationMode.from(mode.toString()),
+				rate, validator);
+	}
+
+	/**
+	 * Checks whether the validation is enabled.
+	 *
+	 * @return true if a mode and a schema are configured
+	 */
+	public boolean isEnabled() {
+		return mode != ValidationMode.NONE;
+	}
+
+	/**
+	 * Checks whether the next value has to be validated.
+	 *
+	 * @return true if the value is sampled
+	 */
+	public boolean sample() {
+		switch (mode) {
+		case ALL:
+			return true;
+		case SAMPLED:
+			return sequence.getAndIncrement() % rate == 0;
+		case FIRST:
+			return !passed;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Validates the value.
+	 *
+	 * @param value the WoT payload
+	 * @return empty if the value is valid, otherwise the violation
+	 */
+	public Optional<String> validate(JsonElement value) {
+		if (validator == null)
+			return Optional.empty();
+
+		validations.increment();
+		Optional<String> violation = validator.validate(value);
+		if (violation.isPresent())
+			rejected.increment();
+		else
+			passed = true;
+		return violation;
+	}
+
+	/**
+	 * Returns the number of validated values.
+	 *
+	 * @return the number of validations
+	 */
+	public long getValidations() {
+		return validations.sum();
+	}
+
+	/**
+	 * Returns the number of invalid values.
+	 *
+	 * @return the number of rejected values
+	 */
+	public long getRejected() {
+		return rejected.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "ThingChannelValidation [mode=" + mode + ", rate=" + rate + ", validations=" + getValidations()
+				+ ", rejected=" + getRejected() + "]";
+	}
+}
@@ -17,25 +17,37 @@ package org.ict.kura.driver.thing;
 
 import static org.eclipse.kura.channel.ChannelFlag.SUCCESS;
 
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.kura.channel.ChannelRecord;
 import org.eclipse.kura.channel.ChannelStatus;
 import org.eclipse.kura.channel.listener.ChannelListener;
 import org.eclipse.kura.driver.Driver.ConnectionException;
 import org.eclipse.kura.type.TypedValue;
-import org.everit.json.schema.loader.SchemaLoader;
-import org.ict.gson.utils.AdapterFactory;
 import org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor;
 import org.ict.kura.asset.creator.util.ChannelDescriptorBase;
+import org.ict.kura.driver.thing.ThingChannelFilter.DeadbandMode;
+import org.ict.kura.driver.thing.ThingWriteQueue.Result;
+import org.ict.kura.driver.thing.ThingWriteQueue.Status;
+import org.ict.kura.driver.thing.ThingWriteQueue.Write;
+import org.ict.kura.driver.thing.ThingWriteQueue.WriteMode;
 import org.ict.kura.thing.creator.ThingProvider;
+import org.ict.kura.util.Constants;
 import org.ict.model.wot.core.ActionAffordance;
-import org.json.JSONObject;
+import org.osgi.service.event.Event;
 import org.osgi.service.event.EventAdmin;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,6 +56,7 @@ import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -66,6 +79,15 @@ public abstract class ThingDriver<T> implements Binding<T> {
 	/* The logger instance */
 	private static final Logger LOGGER = LoggerFactory.getLogger(ThingDriver.class);
 
+	/* The number of attempts to take a consistent snapshot of a thing */
+	private static final int SNAPSHOT_ATTEMPTS = 3;
+
+	/*
+	 * The maximum time in milliseconds to wait for a read of another thread, if no
+	 * async timeout is configured
+	 */
+	private static final long JOIN_TIMEOUT = 10000;
+
 	/*
 	 * The technology update binding map. The technology implementation links to a
 	 * {@link ThingChannelListener} for each KURA channel (value update direction:
@@ -123,6 +145,29 @@ public abstract class ThingDriver<T> implements Binding<T> {
 	@Getter
 	private Map<String, ThingChannelListener> listenerBindingConfigurations = new ConcurrentHashMap<>();
 
+	/*
+	 * The reverse index of the KURA {@link ChannelListener} to its bindings. The
+	 * index is filled in the {@link #registerChannelListener(Map,
+	 * ChannelListener)}, so the {@link #unregisterChannelListener(ChannelListener)}
+	 * removes only the entries of this listener without scanning all maps.
+	 */
+	private final Map<ChannelListener, List<ListenerRegistration<T>>> listenerRegistrations = new ConcurrentHashMap<>();
+
+	/*
+	 * The index of the asset name (the modified thing id) to the {@link
+	 * ThingChannelListener}s of its properties, used by the {@link
+	 * #readThing(String)}.
+	 */
+	private final Map<String, Set<ThingChannelListener>> thingListeners = new ConcurrentHashMap<>();
+
+	/*
+	 * The technology reads in progress. The key is the binding, the value is
+	 * completed with true if the value was read. Concurrent {@link
+	 * #read(List<ChannelRecord>)} calls of the same binding wait for the read in
+	 * progress instead of sending a second request to the device.
+	 */
+	private final Map<T, CompletableFuture<Boolean>> readsInProgress = new ConcurrentHashMap<>();
+
 	/* The OSGI EventAdmin */
 	private EventAdmin eventAdmin;
 
@@ -139,8 +184,53 @@ public abstract class ThingDriver<T> implements Binding<T> {
 	@Getter
 	private ChannelDescriptorBase channelDescriptor = new ThingChannelDescriptor();
 
-	/* Factory to create JSON objects */
-	private final Gson gson = AdapterFactory.getGsonWithDefaultWotTypeAdapters(true);
+	/* Factory to create JSON objects, shared by all drivers */
+	private final Gson gson = ThingFlyweights.getGson();
+
+	/*
+	 * The compiled action schemas, the key is the formHref (action). The schemas
+	 * are compiled once per channel and used in the {@link
+	 * ThingDriver#write(List<ChannelRecord>)}.
+	 */
+	@Getter
+	private final ActionSchemaRegistry actionSchemaRegistry = new ActionSchemaRegistry(gson);
+
+	/*
+	 * The dispatcher of the telemetry events, used by all {@link
+	 * ThingChannelListener} of this driver. The default mode is SYNC.
+	 */
+	@Getter
+	private final ThingEventDispatcher eventDispatcher = new ThingEventDispatcher(getClass().getSimpleName(),
+			this::getEA);
+
+	/*
+	 * The metrics of this driver, used by all {@link ThingChannelListener} of this
+	 * driver. A snapshot is published periodically via the {@link EventAdmin}.
+	 */
+	@Getter
+	private final ThingDriverMetrics metrics = new ThingDriverMetrics(getClass().getSimpleName());
+
+	/*
+	 * The asynchronous write pipeline of this driver, null in the write mode SYNC.
+	 * The results of the writes are published via the {@link EventAdmin}.
+	 */
+	@Getter
+	private volatile ThingWriteQueue<T> writeQueue;
+
+	/*
+	 * The timeout in milliseconds of the requests, if the technology implements
+	 * the {@link AsyncBinding}. 0 waits without timeout.
+	 */
+	@Getter
+	private volatile long asyncTimeout = 10000;
+
+	/*
+	 * The ingress ring between the technology callbacks and the {@link
+	 * ThingChannelListener}, null if the values are processed inline in the
+	 * callback thread.
+	 */
+	@Getter
+	private volatile ThingIngressRing ingressRing;
 
 	/**
 	 * The {@link EventAdmin} getter - NO Lombok here !
@@ -160,6 +250,202 @@ public abstract class ThingDriver<T> implements Binding<T> {
 		this.eventAdmin = eventAdmin;
 	}
 
+	/**
+	 * Configures the common driver options, e.g. the {@link ThingEventDispatcher}.
+	 * Should be called by the technology driver in the update phase.
+	 * 
+	 * @param options the common driver options
+	 */
+	public void configure(ThingDriverOptions options) {
+		LOGGER.info("Configures the driver with {}", options);
+
+		/* Configures the telemetry event dispatcher */
+		eventDispatcher.configure(options.getEventDispatchMode(), options.getEventDispatchQueueCapacity(),
+				options.getEventDispatchQueuePolicy());
+
+		/* Schedules the metrics snapshots */
+		metrics.schedule(options.getMetricsInterval(), this::publishMetrics);
+
+		/* The timeout of the asynchronous technology requests */
+		asyncTimeout = Math.max(0, options.getAsyncTimeout());
+
+		/* Replaces the ingress ring */
+		closeIngressRing();
+		if (options.getIngressConsumers() > 0)
+			ingressRing = new ThingIngressRing(getClass().getSimpleName(), options.getIngressConsumers(),
+					options.getIngressCapacity(), options.getIngressPolicy());
+
+		/* Replaces the asynchronous write pipeline */
+		closeWriteQueue();
+		if (options.getWriteMode() == WriteMode.ASYNC)
+			writeQueue = new ThingWriteQueue<>(getClass().getSimpleName(), this, this::publishWriteResult,
+					options.getWriteThreads(), options.getWriteQueueCapacity(), options.getWriteDeviceConcurrency(),
+					options.getWriteTimeout());
+	}
+
+	/**
+	 * Hands a value received by a technology callback over to the ingress ring, so
+	 * the callback thread returns immediately. The tasks with the same key (e.g.
+	 * the binding, topic or group address) are executed in order. Without ingress
+	 * ring the task is executed in the calling thread. If the ring is replaced by
+	 * {@link #configure(ThingDriverOptions)}, the task waits until the tasks of
+	 * the old ring are executed and is handed over to the new ring. A task dropped
+	 * by a full ring is logged and counted in the metrics.
+	 * 
+	 * @param key  the ordering key
+	 * @param task the task which parses the value and updates the {@link
+	 *             ThingChannelListener}
+	 */
+	public void ingress(Object key, Runnable task) {
+		ThingIngressRing ring = ingressRing;
+		while (ring != null && !ring.publish(key, task)) {
+			if (!ring.isClosed()) {
+				metrics.ingressDropped();
+				LOGGER.warn("The ingress ring is full, the value of {} is dropped", key);
+				return;
+			}
+			/* The ring was closed - keeps the order and hands the task over to the new ring */
+			ring.awaitTermination();
+			ThingIngressRing next = ingressRing;
+			ring = next == ring ? null : next;
+		}
+		if (ring == null)
+			task.run();
+	}
+
+	/**
+	 * Stops the ingress ring after the pending values are processed. Should be
+	 * called by the technology driver in the deactivate phase.
+	 */
+	public synchronized void closeIngressRing() {
+		ThingIngressRing ring = ingressRing;
+		ingressRing = null;
+		if (ring != null)
+			ring.close();
+	}
+
+	/**
+	 * Stops the asynchronous write pipeline, the queued writes are discarded and
+	 * published as failure. Should be called by the technology driver in the
+	 * deactivate phase.
+	 */
+	public synchronized void closeWriteQueue() {
+		ThingWriteQueue<T> queue = writeQueue;
+		writeQueue = null;
+		if (queue != null)
+			queue.close();
+	}
+
+	/**
+	 * Publishes the result of an asynchronous write via the {@link EventAdmin}.
+	 * The topic is actions/things/{thingName}/actions/{actionName}, the event
+	 * contains the properties thingName, actionName, formAction, status (success,
+	 * failure, timeout or coalesced), error and duration (milliseconds).
+	 * 
+	 * @param result the result of the write
+	 */
+	protected void publishWriteResult(Result result) {
+		if (result.getStatus() != Status.COALESCED)
+			metrics.getWriteLatency().record(TimeUnit.MILLISECONDS.toNanos(result.getDuration()));
+		if (result.getStatus() == Status.FAILURE || result.getStatus() == Status.TIMEOUT)
+			metrics.failure();
+
+		Map<String, Object> properties = new HashMap<>();
+		properties.put("thingName", result.getThingName());
+		properties.put("actionName", result.getActionName());
+		properties.put("formAction", result.getFormAction());
+		properties.put("status", result.getStatus().value());
+		if (result.getError() != null)
+			properties.put("error", result.getError());
+		properties.put("duration", result.getDuration());
+
+		String topic = Constants.EVENT_ADMIN_ACTION_BASE_TOPIC_NAME.value() + result.getThingName()
+				+ Constants.EVENT_ADMIN_ACTION_TAG_TOPIC_NAME.value() + result.getActionName();
+		LOGGER.debug("Sends the write result with topic: {}, status: {}", topic, result.getStatus());
+		eventDispatcher.dispatch(new Event(topic, properties));
+	}
+
+	/**
+	 * Publishes a snapshot of the driver metrics via the {@link EventAdmin}. The
+	 * topic is metrics/drivers/{driver}, the event contains the counters and
+	 * histograms of the {@link ThingDriverMetrics}, the statistics of the {@link
+	 * ThingEventDispatcher} and the {@link ActionSchemaRegistry}, the summed up
+	 * counters of the report by exception filters and the rate limits and the
+	 * counters of each channel (property "channels", the key is
+	 * thingName/propertyName).
+	 */
+	public void publishMetrics() {
+		EventAdmin ea = getEA();
+		if (ea == null)
+			return;
+
+		/* The driver counters and histograms */
+		Map<String, Object> properties = new HashMap<>(metrics.snapshot());
+		properties.put("driver", getClass().getSimpleName());
+		properties.put("queueDepth", eventDispatcher.getQueueDepth());
+		properties.put("dispatched", eventDispatcher.getDispatched());
+		properties.put("dropped", eventDispatcher.getDropped());
+
+		/* The statistics of the ingress ring */
+		ThingIngressRing ring = ingressRing;
+		if (ring != null) {
+			properties.put("ingressPending", ring.getPending());
+		}
+
+		/* The statistics of the asynchronous writes */
+		ThingWriteQueue<T> queue = writeQueue;
+		if (queue != null) {
+			properties.put("writesQueued", queue.getQueued());
+			properties.put("writesCoalesced", queue.getCoalesced());
+			properties.put("writesRejected", queue.getRejected());
+			properties.put("writeTimeouts", queue.getTimeouts());
+		}
+
+		/* The statistics of the compiled action schemas */
+		properties.put("actionSchemas", actionSchemaRegistry.size());
+		properties.put("actionSchemaHits", actionSchemaRegistry.getHits());
+		properties.put("actionSchemaMisses", actionSchemaRegistry.getMisses());
+		properties.put("actionValidations", actionSchemaRegistry.getValidations());
+		properties.put("actionValidationMicros", actionSchemaRegistry.getAverageValidationMicros());
+
+		/* The counters of each channel */
+		long suppressed = 0;
+		long passed = 0;
+		long coalesced = 0;
+		long dropped = 0;
+		Map<String, Map<String, Long>> channels = new LinkedHashMap<>();
+		for (ThingChannelListener listener : listenerBindingConfigurations.values()) {
+			Map<String, Long> channel = new LinkedHashMap<>();
+			channel.put("updates", listener.getUpdates());
+			channel.put("failures", listener.getFailures());
+			ThingChannelFilter filter = listener.getFilter();
+			if (filter.getMode() != DeadbandMode.NONE) {
+				channel.put("suppressed", filter.getSuppressed());
+				channel.put("passed", filter.getPassed());
+				channel.put("heartbeats", filter.getHeartbeats());
+				suppressed += filter.getSuppressed();
+				passed += filter.getPassed();
+			}
+			ThingChannelThrottle throttle = listener.getThrottle();
+			if (throttle.isEnabled()) {
+				channel.put("coalesced", throttle.getCoalesced());
+				channel.put("dropped", throttle.getDropped());
+				coalesced += throttle.getCoalesced();
+				dropped += throttle.getDropped();
+			}
+			channels.put(listener.getThingName() + "/" + listener.getPropertyName(), channel);
+		}
+		properties.put("filterSuppressed", suppressed);
+		properties.put("filterPassed", passed);
+		properties.put("rateLimitCoalesced", coalesced);
+		properties.put("rateLimitDropped", dropped);
+		properties.put("channels", channels);
+
+		ea.postEvent(new Event(Constants.EVENT_ADMIN_METRICS_TOPIC_NAME.value() + getClass().getSimpleName(),
+				properties));
+		LOGGER.debug("Published the metrics of {}", getClass().getSimpleName());
+	}
+
 	// @formatter:off
 	/**
 	 * This method creates the required bindings and the
@@ -205,7 +491,7 @@ public abstract class ThingDriver<T> implements Binding<T> {
 					channelConfiguration.get("formPropertyBinding"));
 			LOGGER.debug("The channelConfiguration - formProperty {}", channelConfiguration.get("formProperty"));
 
-			LOGGER.debug("The thingProvider.getIds() map {}", this.thingProvider.getIds().toString());
+			LOGGER.debug("The thingProvider.getIds() map {}", this.thingProvider.getIds());
 			LOGGER.debug(channelListener == null ? "ChannelListener is null" : "ChannelListener is not null");
 		}
 
@@ -217,7 +503,7 @@ public abstract class ThingDriver<T> implements Binding<T> {
 					channelConfiguration.get("formActionBinding"));
 			LOGGER.debug("The channelConfiguration - formAction {}", channelConfiguration.get("formAction"));
 
-			LOGGER.debug("The thingProvider.getIds() map {}", this.thingProvider.getIds().toString());
+			LOGGER.debug("The thingProvider.getIds() map {}", this.thingProvider.getIds());
 			LOGGER.debug(channelListener == null ? "ChannelListener is null" : "ChannelListener is not null");
 		}
 
@@ -230,7 +516,7 @@ public abstract class ThingDriver<T> implements Binding<T> {
 		if (channelConfiguration.get("formProperty") != null) {
 			thingChannelListenerImpl = new ThingChannelListener(
 					this.thingProvider.getIds().get(channelConfiguration.get("formProperty")), channelConfiguration,
-					channelListener, getEA(),
+					channelListener, eventDispatcher, metrics,
 					this.thingProvider.getPropertyAffordance(channelConfiguration.get("formProperty").toString()));
 
 			LOGGER.info("New ThingChannelListener created: {}",
@@ -238,13 +524,21 @@ public abstract class ThingDriver<T> implements Binding<T> {
 		}
 		// ############################################################################################################
 
+		/* The binding of this property, if the channel has a property binding */
+		T binding = null;
+
 		/* Creates the {@listenerBindingConfigurations} for this property */
 		if (channelConfiguration.get("formProperty") != null) {
-			listenerBindingConfigurations.put(channelConfiguration.get("formProperty").toString(),
-					thingChannelListenerImpl);
+			ThingChannelListener previous = listenerBindingConfigurations
+					.put(channelConfiguration.get("formProperty").toString(), thingChannelListenerImpl);
+
+			/* Updates the thing index, a replaced listener is not part of the thing anymore */
+			if (previous != null)
+				removeThingListener(previous);
+			addThingListener(thingChannelListenerImpl);
 
 			/* Logs the content of the {@link listenerBindingConfigurations} map */
-			LOGGER.debug("The listenerBindingConfigurations map {}", listenerBindingConfigurations.toString());
+			LOGGER.debug("The listenerBindingConfigurations map {}", listenerBindingConfigurations);
 		} else
 			LOGGER.warn("This channel configuration has no formProperty !");
 
@@ -254,7 +548,7 @@ public abstract class ThingDriver<T> implements Binding<T> {
 		 */
 		if (channelConfiguration.get("formPropertyBinding") != null) {
 			/* Creates the technology binding. */
-			T binding = createBinding(channelConfiguration.get("formPropertyBinding").toString());
+			binding = createBinding(channelConfiguration.get("formPropertyBinding").toString());
 
 			/* Creates the property binding. */
 			propertyBindingConfigurations.put(channelConfiguration.get("formProperty").toString(), binding);
@@ -263,10 +557,17 @@ public abstract class ThingDriver<T> implements Binding<T> {
 			updateBindingConfigurations.put(binding, thingChannelListenerImpl);
 
 			/* Logs the content of the {@link updateBindingConfigurations} map */
-			LOGGER.debug("The updateBindingConfigurations map {}", updateBindingConfigurations.toString());
+			LOGGER.debug("The updateBindingConfigurations map {}", updateBindingConfigurations);
 		} else
 			LOGGER.warn("This channel configuration has no formPropertyBinding !");
 
+		/* Adds the bindings of this property to the reverse index of the listener */
+		if (thingChannelListenerImpl != null && channelListener != null) {
+			listenerRegistrations.computeIfAbsent(channelListener, k -> new CopyOnWriteArrayList<>())
+					.add(new ListenerRegistration<>(channelConfiguration.get("formProperty").toString(), binding,
+							thingChannelListenerImpl));
+		}
+
 		// ############################################################################################################
 
 		/*
@@ -277,16 +578,23 @@ public abstract class ThingDriver<T> implements Binding<T> {
 			actionBindingConfigurations.put(channelConfiguration.get("formAction").toString(),
 					createBinding(channelConfiguration.get("formActionBinding").toString()));
 
+			/* Compiles the schema of the {@link ActionAffordance} for this action */
+			actionSchemaRegistry.register(channelConfiguration.get("formAction").toString(),
+					this.thingProvider.getActionAffordance(channelConfiguration.get("formAction").toString()),
+					channelListener);
+
 			/* Logs the content of the {@link actionBindingConfigurations} map */
-			LOGGER.debug("The actionBindingConfigurations map {}", actionBindingConfigurations.toString());
+			LOGGER.debug("The actionBindingConfigurations map {}", actionBindingConfigurations);
 		} else
 			LOGGER.warn("This channel configuration has no formAction !");
 	}
 
 	/**
 	 * Removes the link between the KURA {link ChannelListener} with the driver
-	 * {link ThingChannelListener}. Deletes only the link in the {link
-	 * updateBindingConfigurations} map!
+	 * {link ThingChannelListener}. Deletes only the entries of this listener in
+	 * the {link updateBindingConfigurations}, {link
+	 * listenerBindingConfigurations} and {link actionBindingConfigurations} maps,
+	 * found via the reverse indexes!
 	 */
 	public final void unregisterChannelListener(ChannelListener channelListener) throws ConnectionException {
 		LOGGER.info("...unregisterChannelListener ");
@@ -294,89 +602,267 @@ public abstract class ThingDriver<T> implements Binding<T> {
 		/* Logs the channel listener status */
 		LOGGER.debug(channelListener == null ? "ChannelListener is null" : "ChannelListener is not null");
 
-		/* Logs the content of the {@link updateBindingConfigurations} map */
-		updateBindingConfigurations
-				.forEach((key, value) -> LOGGER.debug("updateBindingConfigurations: " + key + "|" + value));
+		/* Removes the bindings of this KURA channel listener from the reverse index */
+		List<ListenerRegistration<T>> registrations = channelListener == null ? null
+				: listenerRegistrations.remove(channelListener);
 
-		/*
-		 * Searches for the KURA channel listener in the {@link
-		 * updateBindingConfigurations} map and removes it
-		 */
-		for (Iterator<Entry<T, ThingChannelListener>> it = updateBindingConfigurations.entrySet().iterator(); it
-				.hasNext();) {
-			/* Gets an iterator */
-			Map.Entry<T, ThingChannelListener> e = it.next();
-			LOGGER.debug("{}", e.getValue().toString());
-
-			/* Checks listener instance to be deleted */
-			if (e.getValue().getChannelListener() == channelListener) {
+		if (registrations != null) {
+			for (ListenerRegistration<T> registration : registrations) {
+				ThingChannelListener listener = registration.getListener();
 				LOGGER.debug("Removes the listener with channel name: {}, channel configuration {}",
-						e.getValue().getThingName(), e.getValue().getChannelConfiguration().toString());
-				/* Closes the listener */
-				e.getValue().close();
-				/* Removes the listener from the map */
-				it.remove();
+						listener.getThingName(), listener.getChannelConfiguration());
+
+				/*
+				 * Removes the entries only if they are still linked with this listener - a
+				 * later registration may have replaced them
+				 */
+				boolean removed = false;
+				if (registration.getBinding() != null)
+					removed |= updateBindingConfigurations.remove(registration.getBinding(), listener);
+				if (listenerBindingConfigurations.remove(registration.getFormProperty(), listener)) {
+					removeThingListener(listener);
+					removed = true;
+				}
+
+				/* Closes the listener and announces the removed channel */
+				if (removed) {
+					listener.close();
+					publishRemoved(listener);
+				}
 			}
 		}
-		
-		/* Logs the content of the {@link listerBindingConfigurations} map */
-		listenerBindingConfigurations
-				.forEach((key, value) -> LOGGER.debug("listenerBindingConfigurations: " + key + "|" + value));
 
-		/*
-		 * Searches for the KURA channel listener in the {@link
-		 * updateBindingConfigurations} map and removes it
-		 */
-		for (Iterator<Entry<String, ThingChannelListener>> it = listenerBindingConfigurations.entrySet().iterator(); it
-				.hasNext();) {
-			/* Gets an iterator */
-			Map.Entry<String, ThingChannelListener> e = it.next();
-			LOGGER.debug("{}", e.getValue().toString());
-
-			/* Checks listener instance to be deleted */
-			if (e.getValue().getChannelListener() == channelListener) {
-				LOGGER.debug("Removes the listener with channel name: {}, channel configuration {}",
-						e.getValue().getThingName(), e.getValue().getChannelConfiguration().toString());
-				/* Closes the listener */
-				e.getValue().close();
-				/* Removes the listener from the map */
-				it.remove();
-			}
+		/* Removes the compiled action schemas and the action bindings of this KURA channel listener */
+		for (String formAction : actionSchemaRegistry.unregister(channelListener))
+			actionBindingConfigurations.remove(formAction);
+	}
+
+	/**
+	 * Announces a removed channel via the {@link EventAdmin}, so the last value of
+	 * the property is evicted e.g. from the
+	 * {@link org.ict.kura.thing.cache.LastValueCache}. The topic is
+	 * removed/things/{thingName}/properties/{propertyName}.
+	 * 
+	 * @param listener the removed {@link ThingChannelListener}
+	 */
+	private void publishRemoved(ThingChannelListener listener) {
+		if (listener.getThingName() == null || listener.getPropertyName() == null)
+			return;
+		Map<String, Object> properties = new HashMap<>();
+		properties.put("thingName", listener.getThingName());
+		properties.put("propertyName", listener.getPropertyName());
+		eventDispatcher.dispatch(new Event(Constants.EVENT_ADMIN_REMOVED_BASE_TOPIC_NAME.value()
+				+ listener.getThingName() + Constants.EVENT_ADMIN_PROPERTY_TAG_TOPIC_NAME.value()
+				+ listener.getPropertyName(), properties));
+	}
+
+	/**
+	 * Returns the cached values of all properties of a thing at one point in
+	 * time, without a request to the technology. The values are taken from the
+	 * {@link ThingChannelListener}s of the thing. If a value is updated while the
+	 * snapshot is taken, the snapshot is taken again - after
+	 * {@value #SNAPSHOT_ATTEMPTS} attempts the latest values are returned and the
+	 * snapshot is marked as not consistent.
+	 * 
+	 * @param thingId the id of the thing, mapped to its asset name by the
+	 *                {@link ThingProvider}
+	 * @return the {@link ThingSnapshot} or null if the thing is unknown or has no
+	 *         registered properties
+	 */
+	public ThingSnapshot readThing(String thingId) {
+		String assetName = thingId == null || thingProvider == null ? null : thingProvider.getAssetName(thingId);
+		Set<ThingChannelListener> listeners = assetName == null ? null : thingListeners.get(assetName);
+		if (listeners == null)
+			return null;
+
+		List<ThingChannelListener> properties = new ArrayList<>();
+		ThingValue[] values = new ThingValue[0];
+		boolean consistent = false;
+		for (int attempt = 0; attempt < SNAPSHOT_ATTEMPTS && !consistent; attempt++) {
+			properties = new ArrayList<>(listeners);
+			values = new ThingValue[properties.size()];
+			for (int i = 0; i < values.length; i++)
+				values[i] = properties.get(i).getLastValue();
+
+			/*
+			 * The values are immutable and replaced by each update - if no value was
+			 * replaced in the meantime, all values were valid at the end of the first pass
+			 */
+			consistent = true;
+			for (int i = 0; i < values.length && consistent; i++)
+				consistent = properties.get(i).getLastValue() == values[i];
 		}
+
+		Map<String, ThingValue> snapshot = new LinkedHashMap<>();
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] != null)
+				snapshot.put(properties.get(i).getPropertyName(), values[i]);
+		}
+		return new ThingSnapshot(thingId, System.currentTimeMillis(), Collections.unmodifiableMap(snapshot),
+				consistent);
+	}
+
+	/* Adds the listener to the index of its thing */
+	private void addThingListener(ThingChannelListener listener) {
+		if (listener == null || listener.getThingName() == null)
+			return;
+		thingListeners.compute(listener.getThingName(), (k, listeners) -> {
+			Set<ThingChannelListener> set = listeners == null ? ConcurrentHashMap.newKeySet() : listeners;
+			set.add(listener);
+			return set;
+		});
+	}
+
+	/* Removes the listener from the index of its thing */
+	private void removeThingListener(ThingChannelListener listener) {
+		if (listener == null || listener.getThingName() == null)
+			return;
+		thingListeners.computeIfPresent(listener.getThingName(), (k, listeners) -> {
+			listeners.remove(listener);
+			return listeners.isEmpty() ? null : listeners;
+		});
 	}
 
 	/**
 	 * Read request from the KURA framework - contains 1-N requests (channel
-	 * records). This method reads the actual value from the
-	 * {@link KuraChannelListenerImpl} - not from the technology !
+	 * records). The bindings of all channel records are read with one call of
+	 * {@link Binding#doReadBatch(java.util.Collection)}, afterwards the actual
+	 * value is taken from the {@link ThingChannelListener} - not from the
+	 * technology !
+	 * 
+	 * A channel with a maximum age (see {@link ThingChannelListener#isFresh(long)})
+	 * is not read from the technology, if its last value is young enough. A
+	 * binding which is already read by another thread is not read again, the call
+	 * waits for the running read, at most the {@link #getAsyncTimeout()} - a hung
+	 * device read does not block the other callers.
+	 * 
+	 * If the technology implements the {@link AsyncBinding}, all reads are started
+	 * at once and the reads which are not finished after the {@link
+	 * #getAsyncTimeout()} are cancelled.
 	 */
 	public void read(List<ChannelRecord> channelRecords) throws ConnectionException {
-		LOGGER.info("...read");
-		/* Logs the content of the {@link ChannelRecord} instance */
-		channelRecords.forEach(cr -> LOGGER.debug("" + cr.toString()));
-		/* Logs the content of the {@link listenerBindingConfigurations} map */
-		listenerBindingConfigurations
-				.forEach((key, value) -> LOGGER.debug("readBindingConfigurations: " + key + "|" + value));
+		LOGGER.debug("...read {} channel records", channelRecords.size());
+		if (LOGGER.isTraceEnabled()) {
+			/* Logs the content of the {@link ChannelRecord} instance */
+			channelRecords.forEach(cr -> LOGGER.trace("{}", cr));
+			/* Logs the content of the {@link listenerBindingConfigurations} map */
+			listenerBindingConfigurations
+					.forEach((key, value) -> LOGGER.trace("readBindingConfigurations: {}|{}", key, value));
+		}
+
+		/*
+		 * Collects the distinct bindings of all channel records without a fresh
+		 * cached value - read by this call or joined from a running read
+		 */
+		long now = System.currentTimeMillis();
+		Map<T, CompletableFuture<Boolean>> bindings = new LinkedHashMap<>();
+		Map<T, CompletableFuture<Boolean>> joined = new HashMap<>();
+		Map<T, List<ThingChannelListener>> listeners = new HashMap<>();
+		for (final ChannelRecord channelRecord : channelRecords) {
+			Object formProperty = channelRecord.getChannelConfig().get("formProperty");
+			T binding = formProperty == null ? null : propertyBindingConfigurations.get(formProperty);
+			ThingChannelListener listener = formProperty == null ? null
+					: listenerBindingConfigurations.get(formProperty);
+			if (binding == null || (listener != null && listener.isFresh(now)))
+				continue;
+
+			if (!bindings.containsKey(binding) && !joined.containsKey(binding)) {
+				CompletableFuture<Boolean> future = new CompletableFuture<>();
+				CompletableFuture<Boolean> running = readsInProgress.putIfAbsent(binding, future);
+				if (running == null)
+					bindings.put(binding, future);
+				else
+					joined.put(binding, running);
+			}
+
+			/* The listeners which receive the value read by this call */
+			if (listener != null && bindings.containsKey(binding))
+				listeners.computeIfAbsent(binding, k -> new ArrayList<>()).add(listener);
+		}
+
+		/* Reads the values of all bindings from the driver with one call */
+		Map<T, Optional<JsonObject>> values = Collections.emptyMap();
+		if (!bindings.isEmpty()) {
+			long start = System.nanoTime();
+			try {
+				AsyncBinding<T> asyncBinding = AsyncBinding.of(this);
+				values = asyncBinding != null ? asyncBinding.doReadBatch(bindings.keySet(), asyncTimeout)
+						: doReadBatch(bindings.keySet());
+			} catch (Throwable t) {
+				LOGGER.error("", t);
+			} finally {
+				metrics.getReadLatency().record(System.nanoTime() - start);
+			}
+		}
+
+		/*
+		 * Applies the read values and releases the waiting threads - before this call
+		 * waits for other threads, otherwise two calls could wait for each other
+		 */
+		Set<T> read = new HashSet<>();
+		for (Map.Entry<T, CompletableFuture<Boolean>> entry : bindings.entrySet()) {
+			T binding = entry.getKey();
+			Optional<JsonObject> oValue = values.get(binding);
+			boolean success = oValue != null;
+			try {
+				/*
+				 * If a value is present, the channel listener is called to save the value in
+				 * the Kura environment, otherwise we do nothing here.
+				 */
+				if (success && oValue.isPresent()) {
+					for (ThingChannelListener listener : listeners.getOrDefault(binding, Collections.emptyList()))
+						listener.doUpdate(oValue.get());
+				}
+			} catch (Throwable t) {
+				LOGGER.error("", t);
+			} finally {
+				readsInProgress.remove(binding, entry.getValue());
+				entry.getValue().complete(success);
+			}
+			if (success)
+				read.add(binding);
+		}
+
+		/* Waits for the reads of other threads, all joined reads share one deadline */
+		long timeout = asyncTimeout > 0 ? asyncTimeout : JOIN_TIMEOUT;
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+		for (Map.Entry<T, CompletableFuture<Boolean>> entry : joined.entrySet()) {
+			metrics.collapsedRead();
+			try {
+				if (entry.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS))
+					read.add(entry.getKey());
+			} catch (TimeoutException e) {
+				LOGGER.warn("The read of binding {} by another thread did not finish within {} ms", entry.getKey(),
+						timeout);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			} catch (Throwable t) {
+				LOGGER.error("", t);
+			}
+		}
 
 		/* Iterates over the channel list ... */
 		for (final ChannelRecord channelRecord : channelRecords) {
 			/* ... and try to read the newest channel value. */
+			metrics.read();
 			try {
 				/* Gets the unique form property href */
 				String formProperty = (String) channelRecord.getChannelConfig().get("formProperty");
 
 				LOGGER.debug("formProperty from channelRecord => topic {}", formProperty);
 
-				/* Reads the value from the driver */
-				Optional<JsonObject> oValue = doRead(propertyBindingConfigurations.get(formProperty));
-
 				/*
-				 * If a value is present, the channel listener is called to save the value in
-				 * the Kura environment, otherwise we do nothing here.
+				 * Checks whether the binding was read (by this or another thread) or the
+				 * cached value is fresh enough
 				 */
-				if (oValue.isPresent()) {
-					JsonObject value = oValue.get();
-					listenerBindingConfigurations.get(formProperty).doUpdate(value);
+				T binding = propertyBindingConfigurations.get(formProperty);
+				if (binding == null)
+					throw new IllegalStateException("No value could be read for the formProperty " + formProperty);
+				if (!read.contains(binding)) {
+					if (bindings.containsKey(binding) || joined.containsKey(binding))
+						throw new IllegalStateException("No value could be read for the formProperty " + formProperty);
+					metrics.cacheHit();
 				}
 
 				// #########################################################################################
@@ -415,6 +901,7 @@ public abstract class ThingDriver<T> implements Binding<T> {
 				 * failure channel record
 				 */
 				Util.setFailureRecord(channelRecord, t.toString());
+				metrics.failure();
 				LOGGER.error("", t);
 			}
 		}
@@ -424,22 +911,29 @@ public abstract class ThingDriver<T> implements Binding<T> {
 	 * Write request from the KURA framework - contains 1-N requests (channel
 	 * records). This method writes the actual value to the technology via the
 	 * {@link ThingListener} using the {@link Binding#doWrite()}.
+	 * 
+	 * In the write mode ASYNC the validated value is queued in the
+	 * {@link ThingWriteQueue} and the channel record is set to success, if the
+	 * write was accepted. The result of the write is published via the
+	 * {@link EventAdmin}, see {@link #publishWriteResult(Result)}.
 	 */
 	public final void write(List<ChannelRecord> channelRecords) throws ConnectionException {
-		LOGGER.info("...write");
+		LOGGER.debug("...write {} channel records", channelRecords.size());
 		/* Logs the content of the {@link ChannelRecord} instance */
-		channelRecords.forEach(cr -> LOGGER.debug("" + cr.toString()));
+		if (LOGGER.isTraceEnabled())
+			channelRecords.forEach(cr -> LOGGER.trace("{}", cr));
 
 		/* Iterates over the channel list ... */
 		for (final ChannelRecord channelRecord : channelRecords) {
 			/* ... and try to write the channel value. */
+			metrics.write();
 			try {
 				/* Gets the unique form action href */
 				String formAction = (String) channelRecord.getChannelConfig().get("formAction");
 
 				/* Gets the value in string format */
 				String jsonValue = String.valueOf(channelRecord.getValue().getValue());
-				LOGGER.info("formAction {}, payload in string format {}", formAction, jsonValue);
+				LOGGER.debug("formAction {}, payload in string format {}", formAction, jsonValue);
 
 				// ################################################################################################
 				/* Searches the T via formHref in the map {@link write(formHref, T)} */
@@ -448,20 +942,43 @@ public abstract class ThingDriver<T> implements Binding<T> {
 				/* Gets the {@link ActionAffordance} corresponds with this channel */
 				ActionAffordance actionAffordance = this.thingProvider.getActionAffordance(formAction);
 
-				/* Validates the schema of the value here check the input schema only */
-				SchemaLoader.load(new JSONObject(gson.toJson(actionAffordance))).validate(new JSONObject(jsonValue));
+				/* Validates the value with the compiled schema of this action */
+				actionSchemaRegistry.validate(formAction, actionAffordance, jsonValue);
+				LOGGER.debug("The actionSchemaRegistry statistics {}", actionSchemaRegistry);
 
 				/* Creates a JSON Object from jsonValue */
 				JsonObject jsonObject = new JsonParser().parse(jsonValue).getAsJsonObject();
 
-				/*
-				 * Calls the method doWrite(T technologyBindingConfiguration, String
-				 * payloadSchema, String jsonValue);
-				 */
-				this.doWrite(t, actionAffordance, jsonObject);
+				ThingWriteQueue<T> queue = writeQueue;
+				if (queue != null) {
+					/* Queues the write, the latest value of an action wins */
+					String thingId = this.thingProvider.getIds().get(formAction);
+					String deviceId = thingId != null ? thingId : formAction;
+					if (!queue.submit(new Write<>(deviceId, thingId, channelRecord.getChannelName(), formAction, t,
+							actionAffordance, jsonObject)))
+						throw new IllegalStateException("The write queue is full or closed, the write is rejected");
+				} else {
+					/*
+					 * Calls the method doWrite(T technologyBindingConfiguration, String
+					 * payloadSchema, String jsonValue);
+					 */
+					long start = System.nanoTime();
+					try {
+						AsyncBinding<T> asyncBinding = AsyncBinding.of(this);
+						if (asyncBinding != null)
+							writeAsync(asyncBinding, t, actionAffordance, jsonObject);
+						else
+							this.doWrite(t, actionAffordance, jsonObject);
+					} finally {
+						metrics.getWriteLatency().record(System.nanoTime() - start);
+					}
+				}
 				// ################################################################################################
 
-				/* Sets the actual channel status on success - write command was successful. */
+				/*
+				 * Sets the actual channel status on success - write command was successful
+				 * or accepted by the write queue.
+				 */
 				channelRecord.setChannelStatus(new ChannelStatus(SUCCESS));
 
 				/* Sets the actual update time stamp */
@@ -472,11 +989,36 @@ public abstract class ThingDriver<T> implements Binding<T> {
 				 * record.
 				 */
 				Util.setFailureRecord(channelRecord, t.toString());
+				metrics.failure();
 				LOGGER.error("", t);
 			}
 		}
 	}
 
+	/**
+	 * Writes the value via the {@link AsyncBinding} and waits for the result. The
+	 * write is cancelled after the {@link #getAsyncTimeout()}.
+	 * 
+	 * @param binding          the {@link AsyncBinding} of the technology
+	 * @param t                the technology configuration
+	 * @param actionAffordance the {@link ActionAffordance} of the action
+	 * @param jsonObject       the value to write
+	 * @throws Exception if the write failed, timed out or was interrupted
+	 */
+	private void writeAsync(AsyncBinding<T> binding, T t, ActionAffordance actionAffordance, JsonObject jsonObject)
+			throws Exception {
+		CompletableFuture<Void> future = binding.doWriteAsync(t, actionAffordance, jsonObject);
+		try {
+			if (asyncTimeout > 0)
+				future.get(asyncTimeout, TimeUnit.MILLISECONDS);
+			else
+				future.get();
+		} catch (TimeoutException | InterruptedException e) {
+			future.cancel(true);
+			throw e;
+		}
+	}
+
 	/**
 	 * Creates s technology specific configuration implementation.
 	 * 
@@ -484,4 +1026,16 @@ public abstract class ThingDriver<T> implements Binding<T> {
 	 * @return the technology specific configuration instance (java pojo)
 	 */
 	public abstract T createBinding(String jsonBinding);
+
+	/* An entry of the reverse index - the bindings of one KURA channel */
+	@Getter
+	@AllArgsConstructor
+	private static final class ListenerRegistration<T> {
+		/* The form property href, key of the {@link listenerBindingConfigurations} */
+		private final String formProperty;
+		/* The technology binding, key of the {@link updateBindingConfigurations} */
+		private final T binding;
+		/* The {@link ThingChannelListener} of the channel */
+		private final ThingChannelListener listener;
+	}
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.AttributeType;
+import org.osgi.service.metatype.annotations.Option;
+
+/**
+ * The common configuration parameters of the {@link ThingDriver}
+ * implementations, read by the {@link ThingDriverOptions}. The configuration
+ * of a technology driver extends this interface, so the parameters are added
+ * to the metatype of the driver.
+ */
+//@formatter:off
+public interface ThingDriverConfig {
+	@AttributeDefinition(
+			name = "Event dispatch mode",
+			type = AttributeType.STRING,
+			required = true,
+			options = {@Option(label = "Synchronous (sendEvent)", value = "sync"),
+					   @Option(label = "Asynchronous (postEvent)", value = "post"),
+					   @Option(label = "Bounded driver queue", value = "queue")},
+			defaultValue = "sync",
+			description = "The dispatch mode of the telemetry events: sync blocks the technology thread until all event handlers are finished, post uses the asynchronous EventAdmin delivery, queue uses a bounded queue with one worker thread per driver")
+	String event_dispatch_mode();
+
+	@AttributeDefinition(
+			name = "Event dispatch queue capacity",
+			type = AttributeType.INTEGER,
+			required = true,
+			defaultValue = "1024",
+			description = "The capacity of the event dispatch queue, only used in the dispatch mode queue")
+	String event_dispatch_queue_capacity();
+
+	@AttributeDefinition(
+			name = "Event dispatch queue policy",
+			type = AttributeType.STRING,
+			required = true,
+			options = {@Option(label = "Drop the oldest event", value = "drop-oldest"),
+					   @Option(label = "Block the technology thread", value = "block")},
+			defaultValue = "drop-oldest",
+			description = "The policy if the event dispatch queue is full, only used in the dispatch mode queue")
+	String event_dispatch_queue_policy();
+
+	@AttributeDefinition(
+			name = "Metrics interval",
+			type = AttributeType.INTEGER,
+			required = true,
+			defaultValue = "60",
+			description = "The interval in seconds of the driver metrics snapshots on the EventAdmin topic metrics/drivers/*, 0 disables the snapshots")
+	String metrics_interval();
+
+	@AttributeDefinition(
+			name = "Write mode",
+			type = AttributeType.STRING,
+			required = true,
+			options = {@Option(label = "Synchronous", value = "sync"),
+					   @Option(label = "Asynchronous write queue", value = "async")},
+			defaultValue = "sync",
+			description = "The write mode: sync writes in the KURA thread, async queues the writes per device, a queued write is replaced by a newer write of the same action and the result is published on the EventAdmin topic actions/things/*")
+	String write_mode();
+
+	@AttributeDefinition(
+			name = "Write queue capacity",
+			type = AttributeType.INTEGER,
+			required = true,
+			defaultValue = "256",
+			description = "The maximum number of queued writes, only used in the write mode async")
+	String write_queue_capacity();
+
+	@AttributeDefinition(
+			name = "Write threads",
+			type = AttributeType.INTEGER,
+			required = true,
+			defaultValue = "4",
+			description = "The number of write threads, only used in the write mode async")
+	String write_threads();
+
+	@AttributeDefinition(
+			name = "Write device concurrency",
+			type = AttributeType.INTEGER,
+			required = true,
+			defaultValue = "1",
+			description = "The maximum number of concurrent writes per device, only used in the write mode async")
+	String write_device_concurrency();
+
+	@AttributeDefinition(
+			name = "Write timeout",
+			type = AttributeType.INTEGER,
+			required = true,
+			defaultValue = "10000",
+			description = "The timeout of a write in milliseconds, 0 disables the timeout, only used in the write mode async")
+	String write_timeout();
+
+	@AttributeDefinition(
+			name = "Async timeout",
+			type = AttributeType.INTEGER,
+			required = true,
+			defaultValue = "10000",
+			description = "The timeout in milliseconds of the reads and writes of a technology with non blocking requests (asynchronous binding), 0 waits without timeout")
+	String async_timeout();
+
+	@AttributeDefinition(
+			name = "Ingress consumers",
+			type = AttributeType.INTEGER,
+			required = true,
+			defaultValue = "0",
+			description = "The number of threads which process the received values, 0 processes the values in the technology callback thread. The values of a binding are always processed in order")
+	String ingress_consumers();
+
+	@AttributeDefinition(
+			name = "Ingress capacity",
+			type = AttributeType.INTEGER,
+			required = true,
+			defaultValue = "4096",
+			description = "The capacity of the ingress ring of each consumer thread, only used if ingress consumers are configured")
+	String ingress_capacity();
+
+	@AttributeDefinition(
+			name = "Ingress policy",
+			type = AttributeType.STRING,
+			required = true,
+			options = {@Option(label = "Block the technology thread", value = "block"),
+					   @Option(label = "Drop the new value", value = "drop")},
+			defaultValue = "block",
+			description = "The policy if the ingress ring is full, only used if ingress consumers are configured")
+	String ingress_policy();
+//@formatter:on
+}
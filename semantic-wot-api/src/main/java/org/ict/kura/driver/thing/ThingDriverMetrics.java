@@ -0,0 +1,366 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import lombok.Getter;
+
+/**
+ * The metrics of a {@link ThingDriver}: counters of the updates, reads, writes
+ * and failures and the latency histograms of the {@link Binding} reads and
+ * writes and of the update to event dispatch path of the
+ * {@link ThingChannelListener}.
+ *
+ * All counters are {@link LongAdder}s, so the metrics are cheap enough for the
+ * technology threads. A snapshot is published periodically by the driver, see
+ * {@link ThingDriver#configure(ThingDriverOptions)}.
+ */
+public class ThingDriverMetrics implements Closeable {
+	/* The logger instance */
+	private static final Logger LOGGER = LoggerFactory.getLogger(ThingDriverMetrics.class);
+
+	/* Number of values received from the technology */
+	private final LongAdder updates = new LongAdder();
+
+	/* Number of channel records read by KURA */
+	private final LongAdder reads = new LongAdder();
+
+	/* Number of channel records written by KURA */
+	private final LongAdder writes = new LongAdder();
+
+	/* Number of failed updates, reads and writes */
+	private final LongAdder failures = new LongAdder();
+
+	/* Number of channel records read from the cache without a device request */
+	private final LongAdder cacheHits = new LongAdder();
+
+	/* Number of channel records which joined a read of another thread */
+	private final LongAdder collapsedReads = new LongAdder();
+
+	/* Number of values validated against the schema */
+	private final LongAdder validations = new LongAdder();
+
+	/* Number of values rejected by the schema validation */
+	private final LongAdder invalid = new LongAdder();
+
+	/* Number of values dropped by a full ingress ring */
+	private final LongAdder ingressDropped = new LongAdder();
+
+	/* The latency of the technology reads */
+	@Getter
+	private final LatencyHistogram readLatency = new LatencyHistogram();
+
+	/* The latency of the technology writes */
+	@Getter
+	private final LatencyHistogram writeLatency = new LatencyHistogram();
+
+	/* The latency from the update of a value to the dispatched event */
+	@Getter
+	private final LatencyHistogram dispatchLatency = new LatencyHistogram();
+
+	/* The name of the publisher thread */
+	private final String name;
+
+	/*
+	 * The timer of the driver, created on demand - publishes the metrics and sends
+	 * the pending values of the rate limited channels
+	 */
+	private ScheduledThreadPoolExecutor timer;
+
+	/* The scheduled publisher */
+	private ScheduledFuture<?> publisher;
+
+	/* True after the close, until the metrics are scheduled again */
+	private boolean closed;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param name the name of the driver, used as name of the publisher thread
+	 */
+	public ThingDriverMetrics(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Schedules the periodic publishing of the metrics. A previous schedule is
+	 * cancelled, closed metrics are opened again.
+	 *
+	 * @param interval the interval in seconds, 0 disables the publishing
+	 * @param publish  the action which publishes the snapshot
+	 */
+	public synchronized void schedule(long interval, Runnable publish) {
+		closed = false;
+		if (publisher != null) {
+			publisher.cancel(false);
+			publisher = null;
+		}
+		if (interval <= 0)
+			return;
+
+		publisher = getTimer().scheduleAtFixedRate(() -> {
+			try {
+				publish.run();
+			} catch (Throwable t) {
+				LOGGER.error("", t);
+			}
+		}, interval, interval, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Returns the timer of the driver, e.g. for the {@link ThingChannelThrottle}.
+	 * The timer is created on demand and shut down by {@link #close()}.
+	 *
+	 * @return the timer with one daemon thread
+	 * @throws RejectedExecutionException if the metrics are closed
+	 */
+	public synchronized ScheduledExecutorService getTimer() {
+		if (closed)
+			throw new RejectedExecutionException("The metrics of " + name + " are closed");
+		if (timer == null)
+			timer = createTimer(name + "-Timer");
+		return timer;
+	}
+
+	/**
+	 * Stops the periodic publishing and shuts down the timer of the driver. The
+	 * pending values of the rate limited channels are sent in the calling thread,
+	 * so the last state of a channel is not lost. No timer is created after the
+	 * close, until the metrics are scheduled again.
+	 */
+	@Override
+	public void close() {
+		List<Runnable> pending = new ArrayList<>();
+		synchronized (this) {
+			closed = true;
+			if (publisher != null) {
+				publisher.cancel(false);
+				publisher = null;
+			}
+			if (timer != null) {
+				/* The delayed tasks are removed from the queue and run below */
+				timer.shutdown();
+				for (Runnable task : timer.getQueue().toArray(new Runnable[0]))
+					if (timer.remove(task))
+						pending.add(task);
+				timer = null;
+			}
+		}
+
+		/* Runs the pending flushes outside the lock, a throttle may wait for the timer */
+		for (Runnable task : pending) {
+			try {
+				task.run();
+			} catch (Throwable t) {
+				LOGGER.error("", t);
+			}
+		}
+	}
+
+	/**
+	 * Counts a value received from the technology.
+	 */
+	public void update() {
+		updates.increment();
+	}
+
+	/**
+	 * Counts a channel record read by KURA.
+	 */
+	public void read() {
+		reads.increment();
+	}
+
+	/**
+	 * Counts a channel record written by KURA.
+	 */
+	public void write() {
+		writes.increment();
+	}
+
+	/**
+	 * Counts a failed update, read or write.
+	 */
+	public void failure() {
+		failures.increment();
+	}
+
+	/**
+	 * Counts a channel record read from the cache.
+	 */
+	public void cacheHit() {
+		cacheHits.increment();
+	}
+
+	/**
+	 * Counts a channel record which joined a read of another thread.
+	 */
+	public void collapsedRead() {
+		collapsedReads.increment();
+	}
+
+	/**
+	 * Counts a value validated against the schema.
+	 *
+	 * @param valid false if the value was rejected
+	 */
+	public void validation(boolean valid) {
+		validations.increment();
+		if (!valid)
+			invalid.increment();
+	}
+
+	/**
+	 * Counts a value dropped by a full ingress ring.
+	 */
+	public void ingressDropped() {
+		ingressDropped.increment();
+	}
+
+	/**
+	 * Returns the number of values received from the technology.
+	 *
+	 * @return the number of updates
+	 */
+	public long getUpdates() {
+		return updates.sum();
+	}
+
+	/**
+	 * Returns the number of channel records read by KURA.
+	 *
+	 * @return the number of reads
+	 */
+	public long getReads() {
+		return reads.sum();
+	}
+
+	/**
+	 * Returns the number of channel records written by KURA.
+	 *
+	 * @return the number of writes
+	 */
+	public long getWrites() {
+		return writes.sum();
+	}
+
+	/**
+	 * Returns the number of failed updates, reads and writes.
+	 *
+	 * @return the number of failures
+	 */
+	public long getFailures() {
+		return failures.sum();
+	}
+
+	/**
+	 * Returns the number of channel records read from the cache.
+	 *
+	 * @return the number of cache hits
+	 */
+	public long getCacheHits() {
+		return cacheHits.sum();
+	}
+
+	/**
+	 * Returns the number of channel records which joined a read of another
+	 * thread.
+	 *
+	 * @return the number of collapsed reads
+	 */
+	public long getCollapsedReads() {
+		return collapsedReads.sum();
+	}
+
+	/**
+	 * Returns the number of values validated against the schema.
+	 *
+	 * @return the number of validations
+	 */
+	public long getValidations() {
+		return validations.sum();
+	}
+
+	/**
+	 * Returns the number of values rejected by the schema validation.
+	 *
+	 * @return the number of invalid values
+	 */
+	public long getInvalid() {
+		return invalid.sum();
+	}
+
+	/**
+	 * Returns the number of values dropped by a full ingress ring.
+	 *
+	 * @return the number of dropped values
+	 */
+	public long getIngressDropped() {
+		return ingressDropped.sum();
+	}
+
+	/**
+	 * Returns a snapshot of the counters and histograms.
+	 *
+	 * @return a map with the counters (long) and the histograms (map)
+	 */
+	public Map<String, Object> snapshot() {
+		Map<String, Object> snapshot = new LinkedHashMap<>();
+		snapshot.put("updates", getUpdates());
+		snapshot.put("reads", getReads());
+		snapshot.put("writes", getWrites());
+		snapshot.put("failures", getFailures());
+		snapshot.put("cacheHits", getCacheHits());
+		snapshot.put("collapsedReads", getCollapsedReads());
+		snapshot.put("validations", getValidations());
+		snapshot.put("invalid", getInvalid());
+		snapshot.put("ingressDropped", getIngressDropped());
+		snapshot.put("readLatency", readLatency.snapshot());
+		snapshot.put("writeLatency", writeLatency.snapshot());
+		snapshot.put("dispatchLatency", dispatchLatency.snapshot());
+		return snapshot;
+	}
+
+	/* Creates the timer with one daemon thread */
+	private static ScheduledThreadPoolExecutor createTimer(String name) {
+		ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, name);
+			thread.setDaemon(true);
+			return thread;
+		});
+		timer.setRemoveOnCancelPolicy(true);
+		return timer;
+	}
+
+	@Override
+	public String toString() {
+		return "ThingDriverMetrics " + snapshot();
+	}
+}
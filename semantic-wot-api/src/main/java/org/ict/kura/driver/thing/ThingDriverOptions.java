@@ -0,0 +1,307 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import static java.util.Objects.nonNull;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map;
+
+import org.ict.kura.driver.thing.ThingEventDispatcher.DispatchMode;
+import org.ict.kura.driver.thing.ThingEventDispatcher.QueuePolicy;
+import org.ict.kura.driver.thing.ThingIngressRing.OverflowPolicy;
+import org.ict.kura.driver.thing.ThingWriteQueue.WriteMode;
+
+/**
+ * The common configuration options of all {@link ThingDriver}
+ * implementations. The technology drivers add these parameters to their own
+ * KURA configuration by extending the {@link ThingDriverConfig}.
+ */
+public class ThingDriverOptions {
+
+	/* The EventAdmin dispatch mode: sync, post or queue */
+	public static final String EVENT_DISPATCH_MODE = "event.dispatch.mode";
+
+	/* The capacity of the dispatch queue */
+	public static final String EVENT_DISPATCH_QUEUE_CAPACITY = "event.dispatch.queue.capacity";
+
+	/* The policy if the dispatch queue is full: drop-oldest or block */
+	public static final String EVENT_DISPATCH_QUEUE_POLICY = "event.dispatch.queue.policy";
+
+	/* The interval in seconds of the metrics snapshots, 0 disables the snapshots */
+	public static final String METRICS_INTERVAL = "metrics.interval";
+
+	/* The write mode: sync or async */
+	public static final String WRITE_MODE = "write.mode";
+
+	/* The capacity of the write queue */
+	public static final String WRITE_QUEUE_CAPACITY = "write.queue.capacity";
+
+	/* The number of write threads */
+	public static final String WRITE_THREADS = "write.threads";
+
+	/* The maximum number of concurrent writes per device (thing) */
+	public static final String WRITE_DEVICE_CONCURRENCY = "write.device.concurrency";
+
+	/* The timeout of a write in milliseconds */
+	public static final String WRITE_TIMEOUT = "write.timeout";
+
+	/* The timeout of the requests of an {@link AsyncBinding} in milliseconds */
+	public static final String ASYNC_TIMEOUT = "async.timeout";
+
+	/* The number of ingress consumer threads, 0 processes the values inline */
+	public static final String INGRESS_CONSUMERS = "ingress.consumers";
+
+	/* The capacity of the ingress ring of each consumer */
+	public static final String INGRESS_CAPACITY = "ingress.capacity";
+
+	/* The policy if an ingress ring is full: block or drop */
+	public static final String INGRESS_POLICY = "ingress.policy";
+
+	/* The default capacity of the dispatch queue */
+	private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+	/* The default interval in seconds of the metrics snapshots */
+	private static final int DEFAULT_METRICS_INTERVAL = 60;
+
+	/* The default capacity of the write queue */
+	private static final int DEFAULT_WRITE_QUEUE_CAPACITY = 256;
+
+	/* The default number of write threads */
+	private static final int DEFAULT_WRITE_THREADS = 4;
+
+	/* The default maximum number of concurrent writes per device */
+	private static final int DEFAULT_WRITE_DEVICE_CONCURRENCY = 1;
+
+	/* The default timeout of a write in milliseconds */
+	private static final int DEFAULT_WRITE_TIMEOUT = 10000;
+
+	/* The default timeout of the requests of an {@link AsyncBinding} */
+	private static final int DEFAULT_ASYNC_TIMEOUT = 10000;
+
+	/* The default capacity of the ingress ring of each consumer */
+	private static final int DEFAULT_INGRESS_CAPACITY = 4096;
+
+	/* The properties as associated */
+	private final Map<String, Object> properties;
+
+	/**
+	 * Instantiates the common driver options.
+	 *
+	 * @param properties the properties
+	 * @throws NullPointerException if any of the arguments is null
+	 */
+	public ThingDriverOptions(final Map<String, Object> properties) {
+		requireNonNull(properties, "Properties cannot be null");
+
+		this.properties = properties;
+	}
+
+	/**
+	 * Returns the EventAdmin dispatch mode
+	 *
+	 * @return the dispatch mode, SYNC if not configured
+	 */
+	public DispatchMode getEventDispatchMode() {
+		DispatchMode value = DispatchMode.SYNC;
+		final Object obj = this.properties.get(EVENT_DISPATCH_MODE);
+		if (nonNull(obj) && obj instanceof String) {
+			value = DispatchMode.from((String) obj);
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the capacity of the dispatch queue
+	 *
+	 * @return the capacity of the dispatch queue
+	 */
+	public Integer getEventDispatchQueueCapacity() {
+		Integer value = DEFAULT_QUEUE_CAPACITY;
+		final Object obj = this.properties.get(EVENT_DISPATCH_QUEUE_CAPACITY);
+		if (nonNull(obj) && obj instanceof Integer) {
+			value = (Integer) obj;
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the policy if the dispatch queue is full
+	 *
+	 * @return the queue policy, DROP_OLDEST if not configured
+	 */
+	public QueuePolicy getEventDispatchQueuePolicy() {
+		QueuePolicy value = QueuePolicy.DROP_OLDEST;
+		final Object obj = this.properties.get(EVENT_DISPATCH_QUEUE_POLICY);
+		if (nonNull(obj) && obj instanceof String) {
+			value = QueuePolicy.from((String) obj);
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the interval of the metrics snapshots
+	 *
+	 * @return the interval in seconds, 0 disables the snapshots
+	 */
+	public Integer getMetricsInterval() {
+		Integer value = DEFAULT_METRICS_INTERVAL;
+		final Object obj = this.properties.get(METRICS_INTERVAL);
+		if (nonNull(obj) && obj instanceof Integer) {
+			value = (Integer) obj;
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the write mode
+	 *
+	 * @return the write mode, SYNC if not configured
+	 */
+	public WriteMode getWriteMode() {
+		WriteMode value = WriteMode.SYNC;
+		final Object obj = this.properties.get(WRITE_MODE);
+		if (nonNull(obj) && obj instanceof String) {
+			value = WriteMode.from((String) obj);
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the capacity of the write queue
+	 *
+	 * @return the capacity of the write queue
+	 */
+	public Integer getWriteQueueCapacity() {
+		Integer value = DEFAULT_WRITE_QUEUE_CAPACITY;
+		final Object obj = this.properties.get(WRITE_QUEUE_CAPACITY);
+		if (nonNull(obj) && obj instanceof Integer) {
+			value = (Integer) obj;
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the number of write threads
+	 *
+	 * @return the number of write threads
+	 */
+	public Integer getWriteThreads() {
+		Integer value = DEFAULT_WRITE_THREADS;
+		final Object obj = this.properties.get(WRITE_THREADS);
+		if (nonNull(obj) && obj instanceof Integer) {
+			value = (Integer) obj;
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the maximum number of concurrent writes per device
+	 *
+	 * @return the maximum number of concurrent writes per device
+	 */
+	public Integer getWriteDeviceConcurrency() {
+		Integer value = DEFAULT_WRITE_DEVICE_CONCURRENCY;
+		final Object obj = this.properties.get(WRITE_DEVICE_CONCURRENCY);
+		if (nonNull(obj) && obj instanceof Integer) {
+			value = (Integer) obj;
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the timeout of a write
+	 *
+	 * @return the timeout in milliseconds, 0 disables the timeout
+	 */
+	public Integer getWriteTimeout() {
+		Integer value = DEFAULT_WRITE_TIMEOUT;
+		final Object obj = this.properties.get(WRITE_TIMEOUT);
+		if (nonNull(obj) && obj instanceof Integer) {
+			value = (Integer) obj;
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the timeout of the requests of an {@link AsyncBinding}
+	 *
+	 * @return the timeout in milliseconds, 0 disables the timeout
+	 */
+	public Integer getAsyncTimeout() {
+		Integer value = DEFAULT_ASYNC_TIMEOUT;
+		final Object obj = this.properties.get(ASYNC_TIMEOUT);
+		if (nonNull(obj) && obj instanceof Integer) {
+			value = (Integer) obj;
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the number of ingress consumer threads
+	 *
+	 * @return the number of consumer threads, 0 processes the values inline
+	 */
+	public Integer getIngressConsumers() {
+		Integer value = 0;
+		final Object obj = this.properties.get(INGRESS_CONSUMERS);
+		if (nonNull(obj) && obj instanceof Integer) {
+			value = (Integer) obj;
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the capacity of the ingress ring of each consumer
+	 *
+	 * @return the capacity of the ingress ring
+	 */
+	public Integer getIngressCapacity() {
+		Integer value = DEFAULT_INGRESS_CAPACITY;
+		final Object obj = this.properties.get(INGRESS_CAPACITY);
+		if (nonNull(obj) && obj instanceof Integer) {
+			value = (Integer) obj;
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the policy if an ingress ring is full
+	 *
+	 * @return the overflow policy, BLOCK if not configured
+	 */
+	public OverflowPolicy getIngressPolicy() {
+		OverflowPolicy value = OverflowPolicy.BLOCK;
+		final Object obj = this.properties.get(INGRESS_POLICY);
+		if (nonNull(obj) && obj instanceof String) {
+			value = OverflowPolicy.from((String) obj);
+		}
+		return value;
+	}
+
+	@Override
+	public String toString() {
+		return "ThingDriverOptions [getEventDispatchMode()=" + getEventDispatchMode()
+				+ ", getEventDispatchQueueCapacity()=" + getEventDispatchQueueCapacity()
+				+ ", getEventDispatchQueuePolicy()=" + getEventDispatchQueuePolicy() + ", getMetricsInterval()="
+				+ getMetricsInterval() + ", getWriteMode()=" + getWriteMode() + ", getWriteQueueCapacity()="
+				+ getWriteQueueCapacity() + ", getWriteThreads()=" + getWriteThreads()
+				+ ", getWriteDeviceConcurrency()=" + getWriteDeviceConcurrency() + ", getWriteTimeout()="
+				+ getWriteTimeout() + ", getAsyncTimeout()=" + getAsyncTimeout()
+				+ ", getIngressConsumers()=" + getIngressConsumers() + ", getIngressCapacity()=" + getIngressCapacity()
+				+ ", getIngressPolicy()=" + getIngressPolicy() + "]";
+	}
+}
@@ -0,0 +1,410 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventAdmin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import lombok.Getter;
+
+/**
+ * Dispatches the telemetry events of the {@link ThingChannelListener} via the
+ * OSGi {@link EventAdmin}. Three dispatch modes are supported:
+ *
+ * <pre>
+ * SYNC  - {@link EventAdmin#sendEvent(Event)} in the calling (technology) thread
+ * POST  - {@link EventAdmin#postEvent(Event)}, the EventAdmin queues the event
+ * QUEUE - a dedicated bounded queue per driver with one worker thread, which
+ *         calls {@link EventAdmin#sendEvent(Event)}
+ * </pre>
+ *
+ * If the queue is full, the {@link QueuePolicy} decides whether the oldest
+ * event is dropped or the calling thread is blocked. So a slow event handler
+ * (e.g. a database) can not stall the technology I/O threads. Without an
+ * {@link EventAdmin} the events are dropped and counted.
+ */
+public class ThingEventDispatcher implements Closeable {
+	/* The logger instance */
+	private static final Logger LOGGER = LoggerFactory.getLogger(ThingEventDispatcher.class);
+
+	/* The dispatch modes */
+	public enum DispatchMode {
+		SYNC, POST, QUEUE;
+
+		/**
+		 * Returns the dispatch mode from the configuration value, SYNC if unknown.
+		 *
+		 * @param value the configuration value e.g. sync, post or queue
+		 * @return the {@link DispatchMode}
+		 */
+		public static DispatchMode from(String value) {
+			try {
+				return DispatchMode.valueOf(value.trim().toUpperCase());
+			} catch (Exception e) {
+				return SYNC;
+			}
+		}
+	}
+
+	/* The queue policies if the queue is full */
+	public enum QueuePolicy {
+		DROP_OLDEST, BLOCK;
+
+		/**
+		 * Returns the queue policy from the configuration value, DROP_OLDEST if
+		 * unknown.
+		 *
+		 * @param value the configuration value e.g. drop-oldest or block
+		 * @return the {@link QueuePolicy}
+		 */
+		public static QueuePolicy from(String value) {
+			try {
+				return QueuePolicy.valueOf(value.trim().toUpperCase().replace('-', '_'));
+			} catch (Exception e) {
+				return DROP_OLDEST;
+			}
+		}
+	}
+
+	/* The supplier of the actual OSGi {@link EventAdmin} */
+	private final Supplier<EventAdmin> eventAdmin;
+
+	/* The name of the worker thread */
+	private final String name;
+
+	/* The actual dispatch mode */
+	@Getter
+	private volatile DispatchMode mode = DispatchMode.SYNC;
+
+	/* The actual queue policy */
+	@Getter
+	private volatile QueuePolicy policy = QueuePolicy.DROP_OLDEST;
+
+	/* The bounded event queue, only used in mode QUEUE */
+	private volatile EventQueue queue;
+
+	/* The worker thread, which takes the events from the queue */
+	private Thread worker;
+
+	/* Number of dispatched events */
+	private final LongAdder dispatched = new LongAdder();
+
+	/* Number of dropped events */
+	private final LongAdder dropped = new LongAdder();
+
+	/* The highest queue depth */
+	private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param name       the name of the worker thread
+	 * @param eventAdmin the supplier of the OSGi {@link EventAdmin}
+	 */
+	public ThingEventDispatcher(String name, Supplier<EventAdmin> eventAdmin) {
+		this.name = name;
+		this.eventAdmin = eventAdmin;
+	}
+
+	/**
+	 * Configures the dispatcher. A running worker thread is stopped, the pending
+	 * events are sent before the new configuration is used.
+	 *
+	 * @param mode     the {@link DispatchMode}
+	 * @param capacity the queue capacity, only used in mode QUEUE
+	 * @param policy   the {@link QueuePolicy}, only used in mode QUEUE
+	 */
+	public synchronized void configure(DispatchMode mode, int capacity, QueuePolicy policy) {
+		/* Stops the old worker and sends the pending events */
+		close();
+
+		this.policy = policy;
+		if (mode == DispatchMode.QUEUE) {
+			EventQueue q = new EventQueue(Math.max(1, capacity));
+			worker = new Thread(() -> work(q), "ThingEventDispatcher-" + name);
+			worker.setDaemon(true);
+			q.worker = worker;
+			queue = q;
+			worker.start();
+		}
+		this.mode = mode;
+
+		LOGGER.info("Event dispatcher {} configured with mode {}, capacity {} and policy {}", name, mode, capacity,
+				policy);
+	}
+
+	/**
+	 * Dispatches the event with the configured {@link DispatchMode}.
+	 *
+	 * @param event the OSGi {@link Event}
+	 */
+	public void dispatch(Event event) {
+		if (event == null)
+			return;
+		switch (mode) {
+		case POST:
+			post(event);
+			break;
+		case QUEUE:
+			enqueue(event);
+			break;
+		default:
+			send(event);
+			break;
+		}
+	}
+
+	/**
+	 * Puts the event into the queue with the configured {@link QueuePolicy}.
+	 *
+	 * @param event the OSGi {@link Event}
+	 */
+	private void enqueue(Event event) {
+		EventQueue q = queue;
+		try {
+			/*
+			 * The dispatcher was closed or reconfigured in the meantime, the queued events
+			 * were sent before
+			 */
+			if (q == null || !q.put(event, policy)) {
+				send(event);
+				return;
+			}
+		} catch (InterruptedException e) {
+			dropped.increment();
+			Thread.currentThread().interrupt();
+			return;
+		}
+		maxQueueDepth.accumulateAndGet(q.size(), Math::max);
+	}
+
+	/*
+	 * The worker loop, takes the events from the queue and sends them. After the
+	 * queue was closed, the pending events are sent before the worker ends.
+	 */
+	private void work(EventQueue q) {
+		Event event;
+		while ((event = q.take()) != null)
+			send(event);
+	}
+
+	/**
+	 * Sends the event synchronously via the {@link EventAdmin}.
+	 *
+	 * @param event the OSGi {@link Event}
+	 */
+	private void send(Event event) {
+		EventAdmin admin = getEventAdminOrDrop(event);
+		if (admin == null)
+			return;
+		try {
+			admin.sendEvent(event);
+			dispatched.increment();
+		} catch (Throwable t) {
+			LOGGER.error("", t);
+		}
+	}
+
+	/**
+	 * Posts the event asynchronously via the {@link EventAdmin}.
+	 *
+	 * @param event the OSGi {@link Event}
+	 */
+	private void post(Event event) {
+		EventAdmin admin = getEventAdminOrDrop(event);
+		if (admin == null)
+			return;
+		try {
+			admin.postEvent(event);
+			dispatched.increment();
+		} catch (Throwable t) {
+			LOGGER.error("", t);
+		}
+	}
+
+	/**
+	 * Returns the actual {@link EventAdmin}, drops the event if there is none.
+	 *
+	 * @param event the OSGi {@link Event} to dispatch
+	 * @return the {@link EventAdmin}, null if the event was dropped
+	 */
+	private EventAdmin getEventAdminOrDrop(Event event) {
+		EventAdmin admin = eventAdmin.get();
+		if (admin == null) {
+			dropped.increment();
+			LOGGER.debug("Event dispatcher {} has no EventAdmin, event {} dropped", name, event.getTopic());
+		}
+		return admin;
+	}
+
+	/**
+	 * Closes the queue and waits until the worker thread has sent the pending
+	 * events. The producers wait until the queue is drained and send their event
+	 * in their own thread afterwards, so no event overtakes a queued one. The
+	 * dispatcher falls back to the mode SYNC after the worker has finished.
+	 */
+	@Override
+	public synchronized void close() {
+		EventQueue q = queue;
+		if (q != null)
+			q.close();
+		if (worker != null) {
+			boolean interrupted = false;
+			while (worker.isAlive()) {
+				try {
+					worker.join(1000);
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+				if (worker.isAlive())
+					LOGGER.warn("Event dispatcher {} still sends {} pending events", name, q == null ? 0 : q.size());
+			}
+			if (interrupted)
+				Thread.currentThread().interrupt();
+			worker = null;
+		}
+		mode = DispatchMode.SYNC;
+		queue = null;
+	}
+
+	/**
+	 * Returns the actual OSGi {@link EventAdmin}.
+	 *
+	 * @return the {@link EventAdmin}
+	 */
+	public EventAdmin getEventAdmin() {
+		return eventAdmin.get();
+	}
+
+	/**
+	 * Returns the actual queue depth.
+	 *
+	 * @return the number of queued events, 0 if the mode is not QUEUE
+	 */
+	public int getQueueDepth() {
+		EventQueue q = queue;
+		return q == null ? 0 : q.size();
+	}
+
+	/**
+	 * Returns the highest queue depth since the start.
+	 *
+	 * @return the highest number of queued events
+	 */
+	public int getMaxQueueDepth() {
+		return maxQueueDepth.get();
+	}
+
+	/**
+	 * Returns the number of dispatched events.
+	 *
+	 * @return the number of dispatched events
+	 */
+	public long getDispatched() {
+		return dispatched.sum();
+	}
+
+	/**
+	 * Returns the number of dropped events.
+	 *
+	 * @return the number of dropped events
+	 */
+	public long getDropped() {
+		return dropped.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "ThingEventDispatcher [name=" + name + ", mode=" + mode + ", policy=" + policy + ", queueDepth="
+				+ getQueueDepth() + ", maxQueueDepth=" + getMaxQueueDepth() + ", dispatched=" + getDispatched()
+				+ ", dropped=" + getDropped() + "]";
+	}
+
+	/*
+	 * The bounded event queue. The closed flag is checked under the same lock as
+	 * the events, so an event is either queued before the close and sent by the
+	 * worker, or rejected and sent by the producer after the queue was drained.
+	 */
+	private final class EventQueue {
+		private final Deque<Event> events = new ArrayDeque<>();
+		private final int capacity;
+		private boolean closed;
+		private boolean drained;
+		/* The worker thread, an event handler of the worker may dispatch as well */
+		private Thread worker;
+
+		private EventQueue(int capacity) {
+			this.capacity = capacity;
+		}
+
+		/* Queues the event, returns false after the closed queue was drained */
+		private synchronized boolean put(Event event, QueuePolicy policy) throws InterruptedException {
+			if (policy == QueuePolicy.BLOCK) {
+				while (!closed && events.size() >= capacity)
+					wait();
+			} else {
+				/* Removes the oldest events until the new event fits */
+				while (!closed && events.size() >= capacity) {
+					events.poll();
+					dropped.increment();
+				}
+			}
+			if (closed) {
+				while (!drained && Thread.currentThread() != worker)
+					wait();
+				return false;
+			}
+			events.add(event);
+			notifyAll();
+			return true;
+		}
+
+		/* Takes the next event, returns null if the queue is closed and empty */
+		private synchronized Event take() {
+			while (!closed && events.isEmpty()) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					/* The worker ends only after the queue was closed */
+				}
+			}
+			Event event = events.poll();
+			if (event == null)
+				drained = true;
+			notifyAll();
+			return event;
+		}
+
+		/* Closes the queue and wakes up the worker, the producers wait until it is drained */
+		private synchronized void close() {
+			closed = true;
+			notifyAll();
+		}
+
+		private synchronized int size() {
+			return events.size();
+		}
+	}
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.ict.gson.utils.AdapterFactory;
+import org.ict.model.wot.core.PropertyAffordance;
+import org.json.JSONObject;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+/**
+ * The shared registry of the immutable objects of the
+ * {@link ThingChannelListener} instances. Many channels of a gateway have
+ * identical affordances (e.g. the temperature property of every room), so the
+ * data schemas of the affordances, their JSON schemas, the compiled schemas and
+ * the validators are interned here and shared by all listeners of all drivers.
+ * The key of the interned objects is the data schema of the affordance, i.e.
+ * its JSON format without the forms - the forms differ for every thing by their
+ * href. The {@link Gson} instance with the WoT type adapters is thread safe and
+ * shared as well.
+ *
+ * The registry only holds weak references to the interned objects - an object
+ * is removed as soon as no listener uses it any more, e.g. after an asset was
+ * deleted.
+ *
+ * The interned objects must not be modified.
+ */
+public final class ThingFlyweights {
+
+	/* The shared gson object with the WoT type adapters */
+	private static final Gson GSON = AdapterFactory.getGsonWithDefaultWotTypeAdapters(true);
+
+	/* The member of an affordance, which is not part of its data schema */
+	private static final String FORMS = "forms";
+
+	/* The interned property affordances without forms, the key is the data schema */
+	private static final Interner<String, PropertyAffordance> AFFORDANCES = new Interner<>();
+
+	/* The interned JSON schemas, the key is the data schema */
+	private static final Interner<String, JSONObject> SCHEMAS = new Interner<>();
+
+	/* The interned compiled schemas, the key is the data schema */
+	private static final Interner<String, Schema> COMPILED_SCHEMAS = new Interner<>();
+
+	/* The interned Gson schema validators, the key is the data schema */
+	private static final Interner<String, ThingSchemaValidator> VALIDATORS = new Interner<>();
+
+	private ThingFlyweights() {
+	}
+
+	/**
+	 * Returns the shared {@link Gson} instance with the WoT type adapters.
+	 *
+	 * @return the {@link Gson} instance
+	 */
+	public static Gson getGson() {
+		return GSON;
+	}
+
+	/**
+	 * Returns the data schema of the given affordance, the key of the interned
+	 * objects. The data schema is the JSON format of the affordance without its
+	 * forms, so the affordances of different things with equal data are
+	 * identical. The affordance is serialized only once, the returned key is
+	 * passed to the other methods.
+	 *
+	 * @param affordance the affordance e.g. a {@link PropertyAffordance}
+	 * @return the data schema in JSON format, null if there is no affordance
+	 */
+	public static String getDataSchema(Object affordance) {
+		return getDataSchema(GSON, affordance);
+	}
+
+	/**
+	 * Returns the data schema of the given affordance, see
+	 * {@link #getDataSchema(Object)}.
+	 *
+	 * @param gson       the {@link Gson} instance to serialize the affordance
+	 * @param affordance the affordance e.g. an action or property affordance
+	 * @return the data schema in JSON format, null if there is no affordance
+	 */
+	public static String getDataSchema(Gson gson, Object affordance) {
+		if (affordance == null)
+			return null;
+		JsonElement json = gson.toJsonTree(affordance);
+		if (json.isJsonObject())
+			json.getAsJsonObject().remove(FORMS);
+		return json.toString();
+	}
+
+	/**
+	 * Returns the shared {@link PropertyAffordance} of the given data schema. The
+	 * shared affordance has no forms, it is created only once for all identical
+	 * data schemas.
+	 *
+	 * @param dataSchema the data schema, see {@link #getDataSchema(Object)}
+	 * @return the shared {@link PropertyAffordance} without forms
+	 */
+	public static PropertyAffordance intern(String dataSchema) {
+		if (dataSchema == null)
+			return null;
+		return AFFORDANCES.intern(dataSchema, json -> GSON.fromJson(json, PropertyAffordance.class));
+	}
+
+	/**
+	 * Returns the shared JSON schema of the given data schema.
+	 *
+	 * @param dataSchema the data schema, see {@link #getDataSchema(Object)}
+	 * @return the shared schema as {@link JSONObject}
+	 */
+	public static JSONObject getSchema(String dataSchema) {
+		return SCHEMAS.intern(dataSchema, JSONObject::new);
+	}
+
+	/**
+	 * Returns the shared compiled everit {@link Schema} of the given affordance.
+	 * The schema is compiled only once for all identical data schemas.
+	 *
+	 * @param gson       the {@link Gson} instance to serialize the affordance
+	 * @param affordance the affordance e.g. an action or property affordance
+	 * @return the shared compiled {@link Schema}
+	 */
+	public static Schema getCompiledSchema(Gson gson, Object affordance) {
+		return COMPILED_SCHEMAS.intern(getDataSchema(gson, affordance),
+				json -> SchemaLoader.load(new JSONObject(json)));
+	}
+
+	/**
+	 * Returns the shared {@link ThingSchemaValidator} of the given data schema. The
+	 * validator is compiled only once for all identical data schemas.
+	 *
+	 * @param dataSchema the data schema, see {@link #getDataSchema(Object)}
+	 * @return the shared {@link ThingSchemaValidator}
+	 */
+	public static ThingSchemaValidator getValidator(String dataSchema) {
+		return VALIDATORS.intern(dataSchema, json -> ThingSchemaValidator.compile(new JsonParser().parse(json)));
+	}
+
+	/**
+	 * Returns the number of interned objects per kind, e.g. for the metrics.
+	 *
+	 * @return the map with the kind (key) and the number of interned objects
+	 *         (value)
+	 */
+	public static Map<String, Integer> getSizes() {
+		return Map.of("affordances", AFFORDANCES.size(), "schemas", SCHEMAS.size(), "compiledSchemas",
+				COMPILED_SCHEMAS.size(), "validators", VALIDATORS.size());
+	}
+
+	/* A thread safe map of weakly referenced canonical values */
+	private static final class Interner<K, V> {
+		private final Map<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+		private final ReferenceQueue<V> queue = new ReferenceQueue<>();
+
+		/* Returns the canonical value of the key, created by the factory if missing */
+		private V intern(K key, Function<K, V> factory) {
+			expunge();
+			while (true) {
+				Entry<K, V> entry = entries.get(key);
+				V value = entry == null ? null : entry.get();
+				if (value != null)
+					return value;
+
+				value = factory.apply(key);
+				Entry<K, V> created = new Entry<>(key, value, queue);
+				if (entry == null ? entries.putIfAbsent(key, created) == null : entries.replace(key, entry, created))
+					return value;
+				/* Another thread was faster - takes its value */
+			}
+		}
+
+		private int size() {
+			expunge();
+			return entries.size();
+		}
+
+		/* Removes the entries whose values were garbage collected */
+		@SuppressWarnings("unchecked")
+		private void expunge() {
+			Reference<? extends V> reference;
+			while ((reference = queue.poll()) != null) {
+				Entry<K, V> entry = (Entry<K, V>) reference;
+				entries.remove(entry.key, entry);
+			}
+		}
+	}
+
+	/* A weak reference to the value, which knows its key */
+	private static final class Entry<K, V> extends WeakReference<V> {
+		private final K key;
+
+		private Entry(K key, V value, ReferenceQueue<V> queue) {
+			super(value, queue);
+			this.key = key;
+		}
+	}
+}
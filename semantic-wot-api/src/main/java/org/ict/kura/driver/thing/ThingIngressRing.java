@@ -0,0 +1,342 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import lombok.Getter;
+
+/**
+ * The ingress ring buffer between the technology callbacks (e.g. MQTT, KNX or
+ * CoAP I/O threads) and the {@link ThingChannelListener}. The callback only
+ * publishes a task - the JSON parsing, the listener lookup and the KURA
+ * dispatch are executed by the consumer threads, so the callback thread returns
+ * immediately even during bursts.
+ *
+ * The ring consists of one pre-allocated, bounded, lock free ring per consumer
+ * thread (sequence per slot, see D. Vyukov's bounded queue). The ring of a task
+ * is selected by the hash of its key (e.g. the binding, topic or group
+ * address), so the tasks of one key are executed in order by the same
+ * consumer. An idle consumer parks and is unparked by the next publish.
+ *
+ * A closed ring rejects new tasks, the tasks published before - including the
+ * tasks of producers inside {@link #publish(Object, Runnable)} while the ring
+ * was closed - are executed before the consumers stop. The {@link ThingDriver}
+ * hands the rejected tasks over to the ring which replaces the closed ring.
+ */
+public class ThingIngressRing implements Closeable {
+	/* The logger instance */
+	private static final Logger LOGGER = LoggerFactory.getLogger(ThingIngressRing.class);
+
+	/* The maximum number of tasks a consumer executes before it checks the state */
+	private static final int BATCH_SIZE = 256;
+
+	/* The behaviours if a ring is full */
+	public enum OverflowPolicy {
+		BLOCK, DROP;
+
+		/**
+		 * Returns the overflow policy from the configuration value, BLOCK if unknown.
+		 *
+		 * @param value the configuration value e.g. block or drop
+		 * @return the {@link OverflowPolicy}
+		 */
+		public static OverflowPolicy from(String value) {
+			try {
+				return OverflowPolicy.valueOf(value.trim().toUpperCase());
+			} catch (Exception e) {
+				return BLOCK;
+			}
+		}
+	}
+
+	/* The rings, one per consumer */
+	private final Ring[] rings;
+
+	/* The behaviour if a ring is full */
+	@Getter
+	private final OverflowPolicy policy;
+
+	/* Is the ring closed */
+	private volatile boolean closed;
+
+	/* Number of published tasks */
+	private final LongAdder published = new LongAdder();
+
+	/* Number of executed tasks */
+	private final LongAdder executed = new LongAdder();
+
+	/* Number of tasks dropped because a ring was full */
+	private final LongAdder dropped = new LongAdder();
+
+	/**
+	 * Constructor, starts the consumer threads.
+	 *
+	 * @param name      the name of the consumer threads
+	 * @param consumers the number of consumer threads
+	 * @param capacity  the capacity of the ring of each consumer, rounded up to a
+	 *                  power of two
+	 * @param policy    the behaviour if a ring is full
+	 */
+	public ThingIngressRing(String name, int consumers, int capacity, OverflowPolicy policy) {
+		this.policy = policy;
+		this.rings = new Ring[Math.max(1, consumers)];
+		for (int i = 0; i < rings.length; i++) {
+			rings[i] = new Ring(capacity);
+			Thread thread = new Thread(rings[i]::consume, name + "-Ingress-" + (i + 1));
+			thread.setDaemon(true);
+			rings[i].consumer = thread;
+			thread.start();
+		}
+	}
+
+	/**
+	 * Publishes a task. The tasks with the same key are executed in the order of
+	 * publishing.
+	 *
+	 * @param key  the ordering key e.g. the binding
+	 * @param task the task
+	 * @return false if the task was dropped, because the ring is full, or rejected,
+	 *         because the ring is closed, see {@link #isClosed()}
+	 */
+	public boolean publish(Object key, Runnable task) {
+		int hash = key == null ? 0 : key.hashCode();
+		Ring ring = rings[((hash ^ (hash >>> 16)) & 0x7fffffff) % rings.length];
+
+		/* The consumer does not stop while a producer is inside */
+		ring.producers.incrementAndGet();
+		try {
+			if (closed)
+				return false;
+			while (!ring.offer(task)) {
+				if (policy == OverflowPolicy.DROP) {
+					dropped.increment();
+					return false;
+				}
+				/* Back pressure - waits until the consumer has made room */
+				ring.wakeUp();
+				LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+			}
+			published.increment();
+			ring.wakeUp();
+			return true;
+		} finally {
+			ring.producers.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Checks whether the ring is closed and rejects new tasks.
+	 *
+	 * @return true if the ring is closed
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Waits until the consumer threads of the closed ring have executed the
+	 * published tasks. Returns immediately if called by a consumer thread.
+	 */
+	public void awaitTermination() {
+		for (Ring ring : rings) {
+			if (ring.consumer == Thread.currentThread())
+				return;
+		}
+		for (Ring ring : rings) {
+			try {
+				ring.consumer.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Stops the consumer threads after the published tasks are executed.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		for (Ring ring : rings) {
+			LockSupport.unpark(ring.consumer);
+			try {
+				ring.consumer.join(1000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of tasks in all rings.
+	 *
+	 * @return the number of pending tasks
+	 */
+	public long getPending() {
+		long pending = 0;
+		for (Ring ring : rings)
+			pending += ring.size();
+		return pending;
+	}
+
+	/**
+	 * Returns the number of published tasks.
+	 *
+	 * @return the number of published tasks
+	 */
+	public long getPublished() {
+		return published.sum();
+	}
+
+	/**
+	 * Returns the number of executed tasks.
+	 *
+	 * @return the number of executed tasks
+	 */
+	public long getExecuted() {
+		return executed.sum();
+	}
+
+	/**
+	 * Returns the number of tasks dropped because a ring was full.
+	 *
+	 * @return the number of dropped tasks
+	 */
+	public long getDropped() {
+		return dropped.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "ThingIngressRing [consumers=" + rings.length + ", policy=" + policy + ", pending=" + getPending()
+				+ ", published=" + getPublished() + ", executed=" + getExecuted() + ", dropped=" + getDropped()
+				+ "]";
+	}
+
+	/* The bounded multi producer, single consumer ring of one consumer thread */
+	private final class Ring {
+		private final Runnable[] tasks;
+		private final AtomicLongArray sequences;
+		private final int mask;
+
+		/* The next write position, claimed by the producers */
+		private final AtomicLong tail = new AtomicLong();
+
+		/* The next read position, only used by the consumer */
+		private volatile long head;
+
+		/* Is the consumer parked or about to park */
+		private volatile boolean waiting;
+
+		/* The number of producers inside the publish */
+		private final AtomicInteger producers = new AtomicInteger();
+
+		/* The consumer thread */
+		private Thread consumer;
+
+		private Ring(int capacity) {
+			int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+			this.tasks = new Runnable[size];
+			this.sequences = new AtomicLongArray(size);
+			this.mask = size - 1;
+			for (int i = 0; i < size; i++)
+				sequences.set(i, i);
+		}
+
+		/* Claims a slot and stores the task, false if the ring is full */
+		private boolean offer(Runnable task) {
+			while (true) {
+				long position = tail.get();
+				int index = (int) (position & mask);
+				long difference = sequences.get(index) - position;
+				if (difference == 0) {
+					if (tail.compareAndSet(position, position + 1)) {
+						tasks[index] = task;
+						/* Publishes the slot to the consumer */
+						sequences.lazySet(index, position + 1);
+						return true;
+					}
+				} else if (difference < 0) {
+					return false;
+				}
+			}
+		}
+
+		/* Takes the next task, null if the ring is empty */
+		private Runnable poll() {
+			long position = head;
+			int index = (int) (position & mask);
+			if (sequences.get(index) != position + 1)
+				return null;
+			Runnable task = tasks[index];
+			tasks[index] = null;
+			/* Releases the slot for the next round of the producers */
+			sequences.lazySet(index, position + mask + 1);
+			head = position + 1;
+			return task;
+		}
+
+		private long size() {
+			return Math.max(0, tail.get() - head);
+		}
+
+		private void wakeUp() {
+			if (waiting)
+				LockSupport.unpark(consumer);
+		}
+
+		/* The loop of the consumer thread */
+		private void consume() {
+			while (true) {
+				int count = 0;
+				Runnable task;
+				while (count < BATCH_SIZE && (task = poll()) != null) {
+					count++;
+					try {
+						task.run();
+					} catch (Throwable t) {
+						LOGGER.error("", t);
+					}
+					executed.increment();
+				}
+				if (count > 0)
+					continue;
+
+				/*
+				 * The ring is empty - stops if closed and no producer is inside the publish,
+				 * otherwise parks until the next publish
+				 */
+				if (closed && producers.get() == 0 && size() == 0)
+					return;
+				waiting = true;
+				if (size() == 0 && !closed)
+					LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+				waiting = false;
+			}
+		}
+	}
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.ict.model.wot.core.PropertyAffordance;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * A compiled JSON schema validator, which works directly on the Gson
+ * {@link JsonElement}s of the WoT payloads - the payload is not converted to
+ * org.json as for the everit schemas. The schema (e.g. the JSON format of a
+ * {@link PropertyAffordance}) is compiled once into a tree of checks, a
+ * successful validation does not allocate.
+ *
+ * The WoT data schema keywords are supported: type, enum, const, minimum,
+ * maximum, exclusiveMinimum, exclusiveMaximum, multipleOf, minLength,
+ * maxLength, pattern, properties, required, additionalProperties, items,
+ * minItems, maxItems, allOf, anyOf and oneOf. All other keywords (e.g. title,
+ * forms or unit) are ignored.
+ *
+ * The validators are immutable and thread safe, identical affordances share
+ * one validator, see {@link ThingFlyweights#getValidator(String)}.
+ */
+public final class ThingSchemaValidator {
+
+	/* The JSON schema types */
+	private enum Type {
+		OBJECT, ARRAY, STRING, NUMBER, INTEGER, BOOLEAN, NULL;
+	}
+
+	/* A compiled check, returns null if valid, otherwise the violation */
+	private interface Check {
+		String check(JsonElement value);
+	}
+
+	/* The validator which accepts every value */
+	private static final ThingSchemaValidator ANY = new ThingSchemaValidator(new Check[0]);
+
+	/* The compiled checks */
+	private final Check[] checks;
+
+	private ThingSchemaValidator(Check[] checks) {
+		this.checks = checks;
+	}
+
+	/**
+	 * Compiles the given JSON schema.
+	 *
+	 * @param schema the JSON schema e.g. the JSON format of a
+	 *               {@link PropertyAffordance}
+	 * @return the {@link ThingSchemaValidator}
+	 * @throws IllegalArgumentException if a keyword has an invalid value
+	 */
+	public static ThingSchemaValidator compile(JsonElement schema) {
+		if (schema == null || !schema.isJsonObject())
+			return ANY;
+		try {
+			Check[] checks = compileChecks(schema.getAsJsonObject());
+			return checks.length == 0 ? ANY : new ThingSchemaValidator(checks);
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Invalid schema: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Validates the given value.
+	 *
+	 * @param value the value e.g. the WoT payload
+	 * @return empty if the value is valid, otherwise the first violation with
+	 *         the JSON pointer of the invalid value
+	 */
+	public Optional<String> validate(JsonElement value) {
+		String violation = check(checks, value == null ? JsonNull.INSTANCE : value);
+		if (violation == null)
+			return Optional.empty();
+		return Optional.of(violation.startsWith("/") ? violation : "#: " + violation);
+	}
+
+	/**
+	 * Checks whether the given value is valid.
+	 *
+	 * @param value the value e.g. the WoT payload
+	 * @return true if the value is valid
+	 */
+	public boolean isValid(JsonElement value) {
+		return check(checks, value == null ? JsonNull.INSTANCE : value) == null;
+	}
+
+	/**
+	 * Checks whether the validator accepts every value, e.g. if the affordance
+	 * has no data schema.
+	 *
+	 * @return true if no check is compiled
+	 */
+	public boolean isEmpty() {
+		return checks.length == 0;
+	}
+
+	/* Runs the checks until the first violation */
+	private static String check(Check[] checks, JsonElement value) {
+		for (Check check : checks) {
+			String violation = check.check(value);
+			if (violation != null)
+				return violation;
+		}
+		return null;
+	}
+
+	/* Prefixes the violation of a child value with its name */
+	private static String child(String name, String violation) {
+		return "/" + name + (violation.startsWith("/") ? violation : ": " + violation);
+	}
+
+	/* Compiles the keywords of one schema object */
+	private static Check[] compileChecks(JsonObject schema) {
+		List<Check> checks = new ArrayList<>();
+
+		/* Section type */
+		JsonElement type = schema.get("type");
+		if (type != null) {
+			EnumSet<Type> types = EnumSet.noneOf(Type.class);
+			if (type.isJsonArray())
+				type.getAsJsonArray().forEach(t -> types.add(Type.valueOf(t.getAsString().toUpperCase())));
+			else
+				types.add(Type.valueOf(type.getAsString().toUpperCase()));
+			String expected = "expected " + types.toString().toLowerCase();
+			checks.add(value -> matches(types, value) ? null : expected);
+		}
+
+		/* Section enum and const */
+		JsonElement enumeration = schema.get("enum");
+		if (enumeration != null && enumeration.isJsonArray()) {
+			Set<JsonElement> values = new HashSet<>();
+			enumeration.getAsJsonArray().forEach(values::add);
+			checks.add(value -> values.contains(value) ? null : "not one of " + enumeration);
+		}
+		JsonElement constant = schema.get("const");
+		if (constant != null)
+			checks.add(value -> constant.equals(value) ? null : "expected " + constant);
+
+		/* Section numbers */
+		addBound(checks, schema, "minimum", false, true);
+		addBound(checks, schema, "maximum", false, false);
+		addBound(checks, schema, "exclusiveMinimum", true, true);
+		addBound(checks, schema, "exclusiveMaximum", true, false);
+		JsonElement multipleOf = schema.get("multipleOf");
+		if (isNumber(multipleOf)) {
+			double factor = multipleOf.getAsDouble();
+			checks.add(value -> {
+				if (!isNumber(value))
+					return null;
+				double quotient = value.getAsDouble() / factor;
+				return Math.abs(quotient - Math.rint(quotient)) < 1e-9 ? null : "not a multiple of " + factor;
+			});
+		}
+
+		/* Section strings */
+		JsonElement minLength = schema.get("minLength");
+		if (isNumber(minLength)) {
+			int length = minLength.getAsInt();
+			checks.add(value -> !isString(value) || value.getAsString().length() >= length ? null
+					: "shorter than " + length);
+		}
+		JsonElement maxLength = schema.get("maxLength");
+		if (isNumber(maxLength)) {
+			int length = maxLength.getAsInt();
+			checks.add(value -> !isString(value) || value.getAsString().length() <= length ? null
+					: "longer than " + length);
+		}
+		JsonElement pattern = schema.get("pattern");
+		if (isString(pattern)) {
+			Pattern regex = Pattern.compile(pattern.getAsString());
+			checks.add(value -> !isString(value) || regex.matcher(value.getAsString()).find() ? null
+					: "does not match " + regex);
+		}
+
+		/* Section objects */
+		JsonElement properties = schema.get("properties");
+		Map<String, Check[]> children = new LinkedHashMap<>();
+		if (properties != null && properties.isJsonObject()) {
+			for (Entry<String, JsonElement> entry : properties.getAsJsonObject().entrySet()) {
+				if (entry.getValue().isJsonObject())
+					children.put(entry.getKey(), compileChecks(entry.getValue().getAsJsonObject()));
+			}
+			children.values().removeIf(c -> c.length == 0);
+			if (!children.isEmpty()) {
+				checks.add(value -> {
+					if (!value.isJsonObject())
+						return null;
+					JsonObject object = value.getAsJsonObject();
+					for (Entry<String, Check[]> child : children.entrySet()) {
+						JsonElement member = object.get(child.getKey());
+						if (member == null)
+							continue;
+						String violation = check(child.getValue(), member);
+						if (violation != null)
+							return child(child.getKey(), violation);
+					}
+					return null;
+				});
+			}
+		}
+		JsonElement required = schema.get("required");
+		if (required != null && required.isJsonArray() && required.getAsJsonArray().size() > 0) {
+			String[] names = new String[required.getAsJsonArray().size()];
+			for (int i = 0; i < names.length; i++)
+				names[i] = required.getAsJsonArray().get(i).getAsString();
+			checks.add(value -> {
+				if (!value.isJsonObject())
+					return null;
+				for (String name : names) {
+					if (!value.getAsJsonObject().has(name))
+						return "missing required property " + name;
+				}
+				return null;
+			});
+		}
+		JsonElement additionalProperties = schema.get("additionalProperties");
+		if (additionalProperties != null && additionalProperties.isJsonPrimitive()
+				&& !additionalProperties.getAsBoolean()) {
+			Set<String> names = properties != null && properties.isJsonObject()
+					? new HashSet<>(properties.getAsJsonObject().keySet())
+					: new HashSet<>();
+			checks.add(value -> {
+				if (!value.isJsonObject())
+					return null;
+				for (String name : value.getAsJsonObject().keySet()) {
+					if (!names.contains(name))
+						return "additional property " + name;
+				}
+				return null;
+			});
+		}
+
+		/* Section arrays */
+		JsonElement items = schema.get("items");
+		if (items != null && items.isJsonObject()) {
+			Check[] item = compileChecks(items.getAsJsonObject());
+			if (item.length > 0) {
+				checks.add(value -> {
+					if (!value.isJsonArray())
+						return null;
+					JsonArray array = value.getAsJsonArray();
+					for (int i = 0; i < array.size(); i++) {
+						String violation = check(item, array.get(i));
+						if (violation != null)
+							return child(String.valueOf(i), violation);
+					}
+					return null;
+				});
+			}
+		} else if (items != null && items.isJsonArray()) {
+			List<Check[]> tuple = new ArrayList<>();
+			for (JsonElement element : items.getAsJsonArray())
+				tuple.add(element.isJsonObject() ? compileChecks(element.getAsJsonObject()) : new Check[0]);
+			checks.add(value -> {
+				if (!value.isJsonArray())
+					return null;
+				JsonArray array = value.getAsJsonArray();
+				for (int i = 0; i < Math.min(array.size(), tuple.size()); i++) {
+					String violation = check(tuple.get(i), array.get(i));
+					if (violation != null)
+						return child(String.valueOf(i), violation);
+				}
+				return null;
+			});
+		}
+		JsonElement minItems = schema.get("minItems");
+		if (isNumber(minItems)) {
+			long size = minItems.getAsLong();
+			checks.add(value -> !value.isJsonArray() || value.getAsJsonArray().size() >= size ? null
+					: "less than " + size + " items");
+		}
+		JsonElement maxItems = schema.get("maxItems");
+		if (isNumber(maxItems)) {
+			long size = maxItems.getAsLong();
+			checks.add(value -> !value.isJsonArray() || value.getAsJsonArray().size() <= size ? null
+					: "more than " + size + " items");
+		}
+
+		/* Section combinations */
+		List<Check[]> allOf = compileAll(schema.get("allOf"));
+		for (Check[] all : allOf)
+			checks.addAll(List.of(all));
+		List<Check[]> anyOf = compileAll(schema.get("anyOf"));
+		if (!anyOf.isEmpty())
+			checks.add(value -> anyOf.stream().anyMatch(c -> check(c, value) == null) ? null
+					: "matches none of the anyOf schemas");
+		List<Check[]> oneOf = compileAll(schema.get("oneOf"));
+		if (!oneOf.isEmpty()) {
+			checks.add(value -> {
+				long matches = oneOf.stream().filter(c -> check(c, value) == null).count();
+				return matches == 1 ? null : "matches " + matches + " of the oneOf schemas";
+			});
+		}
+
+		return checks.toArray(new Check[0]);
+	}
+
+	/* Compiles the schemas of a combination keyword */
+	private static List<Check[]> compileAll(JsonElement schemas) {
+		List<Check[]> compiled = new ArrayList<>();
+		if (schemas != null && schemas.isJsonArray()) {
+			for (JsonElement schema : schemas.getAsJsonArray()) {
+				if (schema.isJsonObject())
+					compiled.add(compileChecks(schema.getAsJsonObject()));
+			}
+		}
+		return compiled;
+	}
+
+	/*
+	 * Adds the check of a numeric bound. The draft 4 form of exclusiveMinimum and
+	 * exclusiveMaximum (boolean) is handled by the minimum and maximum.
+	 */
+	private static void addBound(List<Check> checks, JsonObject schema, String keyword, boolean exclusive,
+			boolean lower) {
+		JsonElement bound = schema.get(keyword);
+		if (!isNumber(bound))
+			return;
+		double limit = bound.getAsDouble();
+		if (!exclusive) {
+			JsonElement flag = schema.get(lower ? "exclusiveMinimum" : "exclusiveMaximum");
+			exclusive = flag != null && flag.isJsonPrimitive() && flag.getAsJsonPrimitive().isBoolean()
+					&& flag.getAsBoolean();
+		}
+		boolean strict = exclusive;
+		String violation = (lower ? (strict ? "not greater than " : "less than ")
+				: (strict ? "not less than " : "greater than ")) + limit;
+		checks.add(value -> {
+			if (!isNumber(value))
+				return null;
+			double number = value.getAsDouble();
+			boolean valid = lower ? (strict ? number > limit : number >= limit)
+					: (strict ? number < limit : number <= limit);
+			return valid ? null : violation;
+		});
+	}
+
+	/* Checks whether the value has one of the types */
+	private static boolean matches(Set<Type> types, JsonElement value) {
+		if (value.isJsonNull())
+			return types.contains(Type.NULL);
+		if (value.isJsonObject())
+			return types.contains(Type.OBJECT);
+		if (value.isJsonArray())
+			return types.contains(Type.ARRAY);
+		JsonPrimitive primitive = value.getAsJsonPrimitive();
+		if (primitive.isBoolean())
+			return types.contains(Type.BOOLEAN);
+		if (primitive.isString())
+			return types.contains(Type.STRING);
+		if (types.contains(Type.NUMBER))
+			return true;
+		double number = primitive.getAsDouble();
+		return types.contains(Type.INTEGER) && number == Math.rint(number) && !Double.isInfinite(number);
+	}
+
+	private static boolean isNumber(JsonElement value) {
+		return value != null && value.isJsonPrimitive() && value.getAsJsonPrimitive().isNumber();
+	}
+
+	private static boolean isString(JsonElement value) {
+		return value != null && value.isJsonPrimitive() && value.getAsJsonPrimitive().isString();
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import java.util.Map;
+import java.util.Optional;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The cached property values of a thing at one point in time, see
+ * {@link ThingDriver#readThing(String)}.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public final class ThingSnapshot {
+	/* The id of the thing */
+	private final String thingId;
+
+	/* The time in milliseconds when the snapshot was taken */
+	private final long time;
+
+	/*
+	 * The cached values, the key is the property name. A property without a
+	 * cached value is not contained.
+	 */
+	private final Map<String, ThingValue> values;
+
+	/*
+	 * True if no value was updated while the snapshot was taken, false if the
+	 * values were updated too often - the values are then the latest values
+	 */
+	private final boolean consistent;
+
+	/**
+	 * Returns the cached value of the property.
+	 *
+	 * @param propertyName the name of the property
+	 * @return the {@link ThingValue} or empty if no value is cached
+	 */
+	public Optional<ThingValue> getValue(String propertyName) {
+		return Optional.ofNullable(values.get(propertyName));
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import org.eclipse.kura.type.TypedValue;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The last value of a property, cached by the {@link ThingChannelListener}.
+ * The value is immutable and replaced as a whole by each update, so the typed
+ * value and its time stamps are always consistent.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public final class ThingValue {
+	/* The KURA channel name - corresponding with the WoT property name */
+	private final String propertyName;
+
+	/* The KURA value object - contains the value and the data type of the value */
+	private final TypedValue<?> typedValue;
+
+	/* The time stamp of the value in milliseconds, set by the technology */
+	private final long timestamp;
+
+	/* The time in milliseconds when the value was received by the listener */
+	private final long received;
+}
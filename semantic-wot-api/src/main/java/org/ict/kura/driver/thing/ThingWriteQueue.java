@@ -0,0 +1,536 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.ict.model.wot.core.ActionAffordance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonObject;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The asynchronous write pipeline of a {@link ThingDriver}. The writes are
+ * queued per device (thing), at most {@code concurrency} writes of a device are
+ * executed at the same time. A queued write to the same form action href is
+ * replaced by a newer write, so the latest value wins - e.g. a slider which
+ * sends 20 dimmer values per second results in only a few device writes.
+ *
+ * The number of queued writes is bounded, a write is rejected if the queue is
+ * full. A write which is not finished after the timeout is reported as
+ * {@link Status#TIMEOUT} and interrupted - the device stays blocked until the
+ * technology returns. The result of each write is reported via a
+ * {@link Consumer} of {@link Result}.
+ *
+ * If the technology implements the {@link AsyncBinding}, the writes are
+ * started without a worker thread and the future of a timed out write is
+ * completed exceptionally, which releases the device.
+ *
+ * The writes are started outside the lock of the queue. After the
+ * {@link #close()} new writes are rejected, the discarded writes are reported
+ * as {@link Status#FAILURE}.
+ */
+public class ThingWriteQueue<T> implements Closeable {
+	/* The logger instance */
+	private static final Logger LOGGER = LoggerFactory.getLogger(ThingWriteQueue.class);
+
+	/* The write modes of the {@link ThingDriver} */
+	public enum WriteMode {
+		SYNC, ASYNC;
+
+		/**
+		 * Returns the write mode from the configuration value, SYNC if unknown.
+		 *
+		 * @param value the configuration value e.g. sync or async
+		 * @return the {@link WriteMode}
+		 */
+		public static WriteMode from(String value) {
+			try {
+				return WriteMode.valueOf(value.trim().toUpperCase());
+			} catch (Exception e) {
+				return SYNC;
+			}
+		}
+	}
+
+	/* The result states of a write */
+	public enum Status {
+		SUCCESS, FAILURE, TIMEOUT, COALESCED;
+
+		/**
+		 * Returns the status in lower case, used in the events.
+		 *
+		 * @return the status e.g. success
+		 */
+		public String value() {
+			return name().toLowerCase();
+		}
+	}
+
+	/* The technology binding */
+	private final Binding<T> binding;
+
+	/* The non blocking technology binding, null if the technology is blocking only */
+	private final AsyncBinding<T> asyncBinding;
+
+	/* The receiver of the write results */
+	private final Consumer<Result> results;
+
+	/* The maximum number of queued writes of all devices */
+	@Getter
+	private final int capacity;
+
+	/* The maximum number of concurrent writes per device */
+	@Getter
+	private final int concurrency;
+
+	/* The timeout of a write in milliseconds, 0 disables the timeout */
+	@Getter
+	private final long timeout;
+
+	/* The worker threads */
+	private final ThreadPoolExecutor executor;
+
+	/* The timer of this queue, interrupts the writes after the timeout */
+	private final ScheduledThreadPoolExecutor timer;
+
+	/* True if the queue was closed */
+	private boolean closed;
+
+	/* The queues of the devices, the key is the device (thing) id */
+	private final Map<String, DeviceQueue> devices = new HashMap<>();
+
+	/* The number of queued writes of all devices */
+	private int queued;
+
+	/* Number of writes replaced by a newer write */
+	private final LongAdder coalesced = new LongAdder();
+
+	/* Number of writes rejected because the queue is full */
+	private final LongAdder rejected = new LongAdder();
+
+	/* Number of writes interrupted after the timeout */
+	private final LongAdder timeouts = new LongAdder();
+
+	/* Number of queued writes discarded by the close */
+	private final LongAdder discarded = new LongAdder();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param name        the name of the worker threads
+	 * @param binding     the technology binding which executes the writes
+	 * @param results     the receiver of the write results
+	 * @param threads     the number of worker threads
+	 * @param capacity    the maximum number of queued writes
+	 * @param concurrency the maximum number of concurrent writes per device
+	 * @param timeout     the timeout of a write in milliseconds, 0 disables the
+	 *                    timeout
+	 */
+	public ThingWriteQueue(String name, Binding<T> binding, Consumer<Result> results, int threads, int capacity,
+			int concurrency, long timeout) {
+		this.binding = binding;
+		this.asyncBinding = AsyncBinding.of(binding);
+		this.results = results;
+		this.capacity = Math.max(1, capacity);
+		this.concurrency = Math.max(1, concurrency);
+		this.timeout = Math.max(0, timeout);
+
+		AtomicInteger number = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(Math.max(1, threads), Math.max(1, threads), 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable, name + "-Write-" + number.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		this.executor.allowCoreThreadTimeOut(true);
+		this.timer = createTimer(name + "-WriteTimer");
+	}
+
+	/**
+	 * Queues a write. A queued (not yet started) write with the same form action
+	 * href is replaced and reported as {@link Status#COALESCED}.
+	 *
+	 * @param write the write
+	 * @return false if the queue is full or closed and the write was rejected
+	 */
+	public boolean submit(Write<T> write) {
+		Write<T> replaced = null;
+		boolean accepted;
+		DeviceQueue device;
+		List<Write<T>> started;
+		synchronized (this) {
+			if (closed) {
+				rejected.increment();
+				return false;
+			}
+			device = devices.computeIfAbsent(write.getDeviceId(), DeviceQueue::new);
+			accepted = device.pending.containsKey(write.getFormAction()) || queued < capacity;
+			if (accepted) {
+				/* Replaces a queued write in place, otherwise appends the write */
+				replaced = device.pending.put(write.getFormAction(), write);
+				if (replaced == null)
+					queued++;
+			} else {
+				rejected.increment();
+			}
+			started = take(device);
+		}
+
+		/* Starts the writes outside of the lock */
+		start(device, started);
+		if (!accepted)
+			return false;
+
+		/* Reports the replaced write outside of the lock */
+		if (replaced != null) {
+			coalesced.increment();
+			report(new Result(replaced.getThingName(), replaced.getActionName(), replaced.getFormAction(),
+					Status.COALESCED, null, 0));
+		}
+		return true;
+	}
+
+	/*
+	 * Takes the next writes of the device, if the concurrency limit allows it. The
+	 * writes are counted as active and have to be started by the caller outside
+	 * of the lock.
+	 */
+	private synchronized List<Write<T>> take(DeviceQueue device) {
+		List<Write<T>> started = new ArrayList<>();
+		Iterator<Write<T>> iterator = device.pending.values().iterator();
+		while (device.active < concurrency && iterator.hasNext()) {
+			started.add(iterator.next());
+			iterator.remove();
+			queued--;
+			device.active++;
+		}
+		if (device.active == 0 && device.pending.isEmpty())
+			devices.remove(device.id);
+		return started;
+	}
+
+	/* Starts the taken writes, must not be called with the lock of the queue */
+	private void start(DeviceQueue device, List<Write<T>> started) {
+		for (Write<T> write : started) {
+			if (asyncBinding != null) {
+				executeAsync(device, write);
+				continue;
+			}
+			try {
+				executor.execute(new WriteTask(device, write));
+			} catch (RejectedExecutionException e) {
+				/* The queue was closed in the meantime */
+				release(device);
+				report(closed(write));
+			}
+		}
+	}
+
+	/* Releases the slot of a finished write and starts the next writes of the device */
+	private void release(DeviceQueue device) {
+		List<Write<T>> started;
+		synchronized (this) {
+			device.active--;
+			started = take(device);
+		}
+		start(device, started);
+	}
+
+	/* Executes a write via the {@link AsyncBinding} without a worker thread */
+	private void executeAsync(DeviceQueue device, Write<T> write) {
+		long start = System.nanoTime();
+		CompletableFuture<Void> future;
+		try {
+			future = asyncBinding.doWriteAsync(write.getBinding(), write.getActionAffordance(), write.getValue());
+		} catch (Throwable t) {
+			future = new CompletableFuture<>();
+			future.completeExceptionally(t);
+		}
+
+		/* The technology should stop the request if the future is completed by the timeout */
+		if (timeout > 0)
+			future.orTimeout(timeout, TimeUnit.MILLISECONDS);
+
+		future.whenComplete((result, t) -> {
+			/* An already completed write starts the next write in this thread, without the lock */
+			release(device);
+
+			Throwable cause = t instanceof CompletionException ? t.getCause() : t;
+			Status status = cause == null ? Status.SUCCESS
+					: cause instanceof TimeoutException ? Status.TIMEOUT : Status.FAILURE;
+			if (status == Status.TIMEOUT)
+				timeouts.increment();
+			else if (status == Status.FAILURE)
+				LOGGER.error("", cause);
+			report(new Result(write.getThingName(), write.getActionName(), write.getFormAction(), status,
+					cause == null ? null : cause.toString(),
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+		});
+	}
+
+	/* Executes a write in a worker thread */
+	private void execute(DeviceQueue device, Write<T> write) {
+		long start = System.nanoTime();
+
+		/* The result is reported once - by the write or by the timeout */
+		AtomicBoolean reported = new AtomicBoolean();
+		Thread worker = Thread.currentThread();
+		ScheduledFuture<?> watchdog = null;
+		try {
+			watchdog = timeout <= 0 ? null : timer.schedule(() -> {
+				synchronized (reported) {
+					if (!reported.compareAndSet(false, true))
+						return;
+					worker.interrupt();
+				}
+				timeouts.increment();
+				report(new Result(write.getThingName(), write.getActionName(), write.getFormAction(),
+						Status.TIMEOUT, "Write timeout after " + timeout + " ms", timeout));
+			}, timeout, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			/* The queue was closed in the meantime, the write is interrupted by the close */
+		}
+
+		Result result;
+		try {
+			binding.doWrite(write.getBinding(), write.getActionAffordance(), write.getValue());
+			result = new Result(write.getThingName(), write.getActionName(), write.getFormAction(), Status.SUCCESS,
+					null, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		} catch (Throwable t) {
+			LOGGER.error("", t);
+			result = new Result(write.getThingName(), write.getActionName(), write.getFormAction(), Status.FAILURE,
+					t.toString(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		} finally {
+			if (watchdog != null)
+				watchdog.cancel(false);
+			release(device);
+		}
+
+		/* Clears the interrupt of the watchdog before the thread is reused */
+		boolean timedOut;
+		synchronized (reported) {
+			timedOut = !reported.compareAndSet(false, true);
+			Thread.interrupted();
+		}
+		if (!timedOut)
+			report(result);
+	}
+
+	/* Creates the failure result of a write discarded by the close */
+	private Result closed(Write<T> write) {
+		return new Result(write.getThingName(), write.getActionName(), write.getFormAction(), Status.FAILURE,
+				"The write queue is closed", 0);
+	}
+
+	/* Reports a write result */
+	private void report(Result result) {
+		try {
+			results.accept(result);
+		} catch (Throwable t) {
+			LOGGER.error("", t);
+		}
+	}
+
+	/**
+	 * Discards the queued writes and stops the worker threads and the timer.
+	 * Running writes are interrupted, new writes are rejected. Each discarded write
+	 * is reported as {@link Status#FAILURE}, so the sender gets a result for every
+	 * accepted write.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void close() {
+		List<Write<T>> pending = new ArrayList<>();
+		synchronized (this) {
+			closed = true;
+			devices.values().forEach(device -> {
+				pending.addAll(device.pending.values());
+				device.pending.clear();
+			});
+			devices.clear();
+			queued = 0;
+		}
+
+		/* The writes taken from the device queues, but not yet started by a worker */
+		List<Write<T>> discarded = new ArrayList<>();
+		for (Runnable task : executor.shutdownNow())
+			if (task instanceof ThingWriteQueue.WriteTask)
+				discarded.add(((WriteTask) task).write);
+		discarded.addAll(pending);
+		timer.shutdownNow();
+
+		/* Reports the discarded writes outside of the lock */
+		for (Write<T> write : discarded) {
+			this.discarded.increment();
+			report(closed(write));
+		}
+	}
+
+	/**
+	 * Returns the number of queued writes of all devices.
+	 *
+	 * @return the number of queued writes
+	 */
+	public synchronized int getQueued() {
+		return queued;
+	}
+
+	/**
+	 * Returns the number of writes replaced by a newer write.
+	 *
+	 * @return the number of coalesced writes
+	 */
+	public long getCoalesced() {
+		return coalesced.sum();
+	}
+
+	/**
+	 * Returns the number of writes rejected because the queue was full.
+	 *
+	 * @return the number of rejected writes
+	 */
+	public long getRejected() {
+		return rejected.sum();
+	}
+
+	/**
+	 * Returns the number of writes interrupted after the timeout.
+	 *
+	 * @return the number of timeouts
+	 */
+	public long getTimeouts() {
+		return timeouts.sum();
+	}
+
+	/**
+	 * Returns the number of queued writes discarded by the close.
+	 *
+	 * @return the number of discarded writes
+	 */
+	public long getDiscarded() {
+		return discarded.sum();
+	}
+
+	/* Creates the timer with one daemon thread */
+	private static ScheduledThreadPoolExecutor createTimer(String name) {
+		ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, name);
+			thread.setDaemon(true);
+			return thread;
+		});
+		timer.setRemoveOnCancelPolicy(true);
+		return timer;
+	}
+
+	@Override
+	public String toString() {
+		return "ThingWriteQueue [capacity=" + capacity + ", concurrency=" + concurrency + ", timeout=" + timeout
+				+ ", queued=" + getQueued() + ", coalesced=" + getCoalesced() + ", rejected=" + getRejected()
+				+ ", timeouts=" + getTimeouts() + ", discarded=" + getDiscarded() + "]";
+	}
+
+	/* A write started in a worker thread, known by the close if it was not executed */
+	private final class WriteTask implements Runnable {
+		private final DeviceQueue device;
+		private final Write<T> write;
+
+		private WriteTask(DeviceQueue device, Write<T> write) {
+			this.device = device;
+			this.write = write;
+		}
+
+		@Override
+		public void run() {
+			execute(device, write);
+		}
+	}
+
+	/* The queue of a device - the pending writes in order with the form action href as key */
+	private final class DeviceQueue {
+		private final String id;
+		private final Map<String, Write<T>> pending = new LinkedHashMap<>();
+		private int active;
+
+		private DeviceQueue(String id) {
+			this.id = id;
+		}
+	}
+
+	/* A queued write */
+	@Getter
+	@ToString
+	@AllArgsConstructor
+	public static final class Write<T> {
+		/* The device (thing) id, the concurrency limit is applied per device */
+		private final String deviceId;
+		/* The name of the thing */
+		private final String thingName;
+		/* The name of the action (KURA channel name) */
+		private final String actionName;
+		/* The form action href, writes with the same href are coalesced */
+		private final String formAction;
+		/* The technology binding */
+		private final T binding;
+		/* The {@link ActionAffordance} of the action */
+		private final ActionAffordance actionAffordance;
+		/* The value to write */
+		private final JsonObject value;
+	}
+
+	/* The result of a write */
+	@Getter
+	@ToString
+	@AllArgsConstructor
+	public static final class Result {
+		/* The name of the thing */
+		private final String thingName;
+		/* The name of the action (KURA channel name) */
+		private final String actionName;
+		/* The form action href */
+		private final String formAction;
+		/* The result status */
+		private final Status status;
+		/* The error message or null */
+		private final String error;
+		/* The duration of the write in milliseconds */
+		private final long duration;
+	}
+}
@@ -15,6 +15,8 @@
  */
 package org.ict.kura.driver.thing;
 
+import java.util.List;
+
 import com.google.gson.JsonObject;
 
 /**
@@ -41,4 +43,41 @@ public interface Update {
 	 * @param jsonValue the value in {link JsonObject} format
 	 */
 	void doUpdate(JsonObject jsonValue);
+
+	/**
+	 * Updates the state changes of a sensor/actuator (technology) in the KURA
+	 * environment without an intermediate JSON string.
+	 * 
+	 * @param time  the time stamp of the value in milliseconds
+	 * @param value the numeric value
+	 */
+	void doUpdate(long time, double value);
+
+	/**
+	 * Updates the state changes of a sensor/actuator (technology) in the KURA
+	 * environment without an intermediate JSON string.
+	 * 
+	 * @param time  the time stamp of the value in milliseconds
+	 * @param value the integral value
+	 */
+	void doUpdate(long time, long value);
+
+	/**
+	 * Updates the state changes of a sensor/actuator (technology) in the KURA
+	 * environment without an intermediate JSON string.
+	 * 
+	 * @param time  the time stamp of the value in milliseconds
+	 * @param value the boolean value
+	 */
+	void doUpdate(long time, boolean value);
+
+	/**
+	 * Updates a block of timestamped samples (e.g. vibration data) of a
+	 * sensor/actuator (technology) in the KURA environment. The block is sent as
+	 * one event, so consumers can handle it with one operation.
+	 * 
+	 * @param jsonValues the values in {link JsonObject} format, ordered by the
+	 *                   time stamp
+	 */
+	void doUpdateBatch(List<JsonObject> jsonValues);
 }
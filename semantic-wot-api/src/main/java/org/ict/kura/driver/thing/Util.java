@@ -24,7 +24,6 @@ import java.util.Map;
 import org.eclipse.kura.channel.ChannelFlag;
 import org.eclipse.kura.channel.ChannelRecord;
 import org.eclipse.kura.channel.ChannelStatus;
-import org.ict.gson.utils.AdapterFactory;
 import org.ict.model.wot.core.Thing;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -75,7 +74,7 @@ public class Util {
 		LOGGER.info("... getThingsFromFolder, currentFolder {}", currrentFolder);
 
 		/* The gson object to convert json string to {@link Thing} */
-		Gson gsonThing = AdapterFactory.getGsonWithDefaultWotTypeAdapters(true);
+		Gson gsonThing = ThingFlyweights.getGson();
 
 		/* For recursive search we need temporary thing map */
 		Map<String, Thing> thingsTmp = things;
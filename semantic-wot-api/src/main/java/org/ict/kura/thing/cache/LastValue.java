@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.thing.cache;
+
+import java.util.function.Supplier;
+
+import org.ict.kura.driver.thing.ThingValue;
+
+import com.google.gson.JsonObject;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The last value of a thing property, saved in the {@link LastValueCache}. The
+ * instance is immutable - the WoT payload must not be modified.
+ *
+ * The values suppressed by the report by exception of the
+ * {@link org.ict.kura.driver.thing.ThingChannelListener} are not sent, so the
+ * receive time is taken from the last value of the listener, if it is newer. A
+ * constant value is therefore not stale.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public final class LastValue {
+	/* The name of the thing (asset name) */
+	private final String thingName;
+
+	/* The name of the property (channel name) */
+	private final String propertyName;
+
+	/* The WoT payload e.g. {"time": 1610000000000, "temperature": 21.5} */
+	private final JsonObject value;
+
+	/* The time stamp of the value from the WoT payload in milliseconds */
+	private final long timestamp;
+
+	/* The time in milliseconds when the value was received by the gateway */
+	private final long received;
+
+	/* The maximum age in milliseconds, after that the value is stale */
+	private final long maxAge;
+
+	/* The last value of the listener, including the suppressed values - or null */
+	private final Supplier<ThingValue> source;
+
+	/**
+	 * Constructor of a value without listener.
+	 *
+	 * @param thingName    the name of the thing (asset name)
+	 * @param propertyName the name of the property (channel name)
+	 * @param value        the WoT payload
+	 * @param timestamp    the time stamp of the value in milliseconds
+	 * @param received     the time in milliseconds when the value was received
+	 * @param maxAge       the maximum age in milliseconds, 0 if never stale
+	 */
+	public LastValue(String thingName, String propertyName, JsonObject value, long timestamp, long received,
+			long maxAge) {
+		this(thingName, propertyName, value, timestamp, received, maxAge, null);
+	}
+
+	/**
+	 * Returns the time in milliseconds when the value was received by the gateway.
+	 * A newer value of the listener, which was suppressed by the report by
+	 * exception, counts as received as well.
+	 *
+	 * @return the receive time in milliseconds
+	 */
+	public long getReceived() {
+		ThingValue last = source == null ? null : source.get();
+		return last == null ? received : Math.max(received, last.getReceived());
+	}
+
+	/**
+	 * Checks whether the value is older than the configured maximum age.
+	 *
+	 * @return true if the value is stale
+	 */
+	public boolean isStale() {
+		return maxAge > 0 && System.currentTimeMillis() - getReceived() > maxAge;
+	}
+}
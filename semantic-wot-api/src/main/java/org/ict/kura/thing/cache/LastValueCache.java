@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.thing.cache;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The gateway wide cache with the last value of each thing property. The cache
+ * is fed by the telemetry events of all
+ * {@link org.ict.kura.driver.thing.ThingChannelListener} instances,
+ * so the last values are available without a database query or a request to
+ * the device.
+ */
+public interface LastValueCache {
+
+	/**
+	 * Gets the last value of a thing property.
+	 *
+	 * @param thingName    the name of the thing (asset name)
+	 * @param propertyName the name of the property (channel name)
+	 * @return the {@link LastValue} or empty if no value was received
+	 */
+	public Optional<LastValue> getLastValue(String thingName, String propertyName);
+
+	/**
+	 * Gets a consistent snapshot of the last values of all properties of a thing.
+	 *
+	 * @param thingName the name of the thing (asset name)
+	 * @return an unmodifiable map with the property name (key) and the
+	 *         {@link LastValue} (value), empty if no value was received
+	 */
+	public Map<String, LastValue> getLastValues(String thingName);
+
+	/**
+	 * Gets the names of all things with at least one value.
+	 *
+	 * @return the thing names
+	 */
+	public Set<String> getThingNames();
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.thing.creator;
+
+import org.ict.kura.asset.creator.thing.util.ThingContainer;
+
+/**
+ * Receives the progress of a bulk provisioning, see
+ * {@link ThingProvider#createAssetsWithChannels(ThingContainer, ProvisioningProgress)}.
+ */
+@FunctionalInterface
+public interface ProvisioningProgress {
+
+	/**
+	 * Called after each thing of the bulk provisioning.
+	 *
+	 * @param done      the number of processed things
+	 * @param total     the number of things
+	 * @param assetName the name of the asset of the processed thing
+	 * @param error     the error if the asset could not be created or updated,
+	 *                  otherwise null
+	 */
+	public void onProgress(int done, int total, String assetName, Throwable error);
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.thing.creator;
+
+import java.util.Map;
+
+import org.ict.kura.asset.creator.thing.util.ThingContainer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The result of a bulk provisioning, see
+ * {@link ThingProvider#createAssetsWithChannels(ThingContainer, ProvisioningProgress)}.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public final class ProvisioningReport {
+	/* The number of things */
+	private final int total;
+
+	/* The number of created assets */
+	private final int created;
+
+	/* The number of updated assets */
+	private final int updated;
+
+	/* The number of existing assets which are unchanged and not updated */
+	private final int unchanged;
+
+	/* The assets which could not be created or updated, the key is the asset name */
+	private final Map<String, Throwable> failures;
+
+	/* The id of the configuration snapshot, -1 if no snapshot was taken */
+	private final long snapshotId;
+
+	/* The duration of the provisioning in milliseconds */
+	private final long duration;
+
+	/**
+	 * Returns the number of assets which could not be created or updated.
+	 *
+	 * @return the number of failed assets
+	 */
+	public int getFailed() {
+		return failures.size();
+	}
+}
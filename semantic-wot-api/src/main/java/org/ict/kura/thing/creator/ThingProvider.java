@@ -16,8 +16,14 @@
 package org.ict.kura.thing.creator;
 
 import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.ict.kura.asset.creator.thing.util.ThingContainer;
 import org.ict.model.wot.core.ActionAffordance;
@@ -26,7 +32,12 @@ import org.ict.model.wot.core.Thing;
 
 /**
  * The interface description to create kura asset and channels from a thing
- * description.
+ * description. The returned maps and sets are unmodifiable snapshots, they are
+ * safe to read while things are provisioned.
+ * 
+ * The bulk and index methods have default implementations based on the single
+ * thing methods and the maps, so existing implementations keep working. An
+ * implementation should override them with its own indexes.
  * 
  * @author IKT M. Biskup
  * @author IKT M. Kuller
@@ -42,6 +53,43 @@ public interface ThingProvider {
 	 */
 	public void createAssetsWithChannels(ThingContainer thingContainer) throws Exception;
 
+	/**
+	 * Creates or updates the assets and channels from a list of web of thing
+	 * descriptions in bulk. The configuration snapshot is taken once after all
+	 * things are processed. A thing whose asset can not be created or updated
+	 * does not stop the provisioning of the other things. An existing asset is
+	 * only updated if its channels have changed.
+	 * 
+	 * The default implementation creates the things one by one with
+	 * {@link #createAssetsWithChannels(String, Thing)}.
+	 * 
+	 * @param thingContainer the list of web of thing descriptions
+	 * @param progress       receives the progress after each thing, may be null
+	 * @return the {@link ProvisioningReport}
+	 * @exception an Exception if the snapshot can not be taken
+	 */
+	public default ProvisioningReport createAssetsWithChannels(ThingContainer thingContainer,
+			ProvisioningProgress progress) throws Exception {
+		long start = System.currentTimeMillis();
+		List<Thing> things = thingContainer.getThings();
+		Map<String, Throwable> failures = new LinkedHashMap<>();
+		int done = 0;
+		for (Thing thing : things) {
+			String name = thing.getId() == null ? String.valueOf(thing.getTitle()) : thing.getId().toString();
+			Throwable error = null;
+			try {
+				createAssetsWithChannels(thingContainer.getDriverPID(), thing);
+			} catch (Throwable t) {
+				error = t;
+				failures.put(name, t);
+			}
+			if (progress != null)
+				progress.onProgress(++done, things.size(), name, error);
+		}
+		return new ProvisioningReport(things.size(), things.size() - failures.size(), 0, 0, failures, -1,
+				System.currentTimeMillis() - start);
+	}
+
 	/**
 	 * Creates an asset and channels with a driverPID and a web of thing description
 	 * and holds this in an internal memory (configuration service).
@@ -62,6 +110,21 @@ public interface ThingProvider {
 	 */
 	public void deleteAssetsWithChannels(String driverPID) throws Exception;
 
+	/**
+	 * Deletes the assets with the given asset names in bulk. The configuration
+	 * snapshot is taken once after all assets are deleted. An asset which can not
+	 * be deleted does not stop the deletion of the other assets.
+	 * 
+	 * The default implementation does not support the deletion of single assets.
+	 * 
+	 * @param assetNames the asset names (the modified thing ids)
+	 * @return the number of deleted assets
+	 * @exception an Exception of the first asset which could not be deleted
+	 */
+	public default int deleteAssets(Collection<String> assetNames) throws Exception {
+		throw new UnsupportedOperationException("The deletion of single assets is not supported");
+	}
+
 	/**
 	 * Gets a map with thing description property/action form href (key) linked to
 	 * the corresponding semantic type informations (value).
@@ -71,6 +134,41 @@ public interface ThingProvider {
 	 */
 	public Map<String, List<URI>> getSemanticTypes();
 
+	/**
+	 * Gets the property/action form hrefs with the given semantic type, e.g.
+	 * all temperature properties of the gateway. The index is the inverted
+	 * {@link #getSemanticTypes()} map and is updated as things are provisioned
+	 * and removed.
+	 * 
+	 * @param semanticType the semantic type URI, e.g. a iot.schema.org type
+	 * @return an unmodifiable set with the form hrefs, empty if no
+	 *         property/action has this semantic type
+	 */
+	public default Set<String> getHrefsBySemanticType(URI semanticType) {
+		return getSemanticTypeIndex().getOrDefault(semanticType, Collections.emptySet());
+	}
+
+	/**
+	 * Gets a map with semantic types (key) linked to the property/action form
+	 * hrefs with this semantic type (value).
+	 * 
+	 * The default implementation inverts the {@link #getSemanticTypes()} map on
+	 * each call.
+	 * 
+	 * @return a map with key (semantic type) and value (thing description
+	 *         property/action form hrefs)
+	 */
+	public default Map<URI, Set<String>> getSemanticTypeIndex() {
+		Map<URI, Set<String>> index = new HashMap<>();
+		getSemanticTypes().forEach((href, semanticTypes) -> {
+			if (semanticTypes != null)
+				for (URI semanticType : semanticTypes)
+					index.computeIfAbsent(semanticType, k -> new HashSet<>()).add(href);
+		});
+		index.replaceAll((semanticType, hrefs) -> Collections.unmodifiableSet(hrefs));
+		return Collections.unmodifiableMap(index);
+	}
+
 	/**
 	 * Gets a map with modified thing ids. The property/action form href (key)
 	 * linked to the corresponding thing id (value). the modified thing ids -
@@ -114,4 +212,48 @@ public interface ThingProvider {
 	 * @return {@link ActionAffordance} with the given key
 	 */
 	public ActionAffordance getActionAffordance(String key);
+
+	/**
+	 * Gets the property/action form hrefs of an asset.
+	 * 
+	 * @param assetName the asset name (the modified thing id)
+	 * @return an unmodifiable set with the form hrefs, empty if the asset is
+	 *         unknown
+	 */
+	public default Set<String> getHrefs(String assetName) {
+		Set<String> hrefs = new HashSet<>();
+		getIds().forEach((href, name) -> {
+			if (name.equals(assetName))
+				hrefs.add(href);
+		});
+		return Collections.unmodifiableSet(hrefs);
+	}
+
+	/**
+	 * Gets the asset name of a thing.
+	 * 
+	 * The default implementation has no index of the thing ids and returns null.
+	 * 
+	 * @param thingId the thing id
+	 * @return the asset name (the modified thing id) or null if the thing is
+	 *         unknown
+	 */
+	public default String getAssetName(String thingId) {
+		return null;
+	}
+
+	/**
+	 * Gets the asset names of all things provisioned by a driver, including the
+	 * existing assets of the driver found at the activation of the provider.
+	 * 
+	 * The default implementation has no index of the drivers and returns an empty
+	 * set.
+	 * 
+	 * @param driverPID the driver id
+	 * @return an unmodifiable set with the asset names, empty if the driver is
+	 *         unknown
+	 */
+	public default Set<String> getAssetNames(String driverPID) {
+		return Collections.emptySet();
+	}
 }
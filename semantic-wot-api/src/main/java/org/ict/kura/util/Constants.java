@@ -34,7 +34,31 @@ public enum Constants {
 	 * property tag name to publish new property values (telemetry) via the {@link
 	 * EventAdmin}.
 	 */
-	EVENT_ADMIN_PROPERTY_TAG_TOPIC_NAME("/properties/");
+	EVENT_ADMIN_PROPERTY_TAG_TOPIC_NAME("/properties/"),
+	/*
+	 * The {@link EventAdmin} metrics topic name. All drivers uses this base name to
+	 * publish the periodic snapshots of the driver metrics via the {@link
+	 * EventAdmin}.
+	 */
+	EVENT_ADMIN_METRICS_TOPIC_NAME("metrics/drivers/"),
+	/*
+	 * The {@link EventAdmin} action base topic name. All drivers uses this base
+	 * name to publish the results of the asynchronous writes via the {@link
+	 * EventAdmin}.
+	 */
+	EVENT_ADMIN_ACTION_BASE_TOPIC_NAME("actions/things/"),
+	/*
+	 * The {@link EventAdmin} action tag topic name. All drivers uses this action
+	 * tag name to publish the results of the asynchronous writes via the {@link
+	 * EventAdmin}.
+	 */
+	EVENT_ADMIN_ACTION_TAG_TOPIC_NAME("/actions/"),
+	/*
+	 * The {@link EventAdmin} removed base topic name. All drivers uses this base
+	 * name to announce a removed channel via the {@link EventAdmin}, e.g. to evict
+	 * the last value of the property.
+	 */
+	EVENT_ADMIN_REMOVED_BASE_TOPIC_NAME("removed/things/");
 
 	private final String value;
 
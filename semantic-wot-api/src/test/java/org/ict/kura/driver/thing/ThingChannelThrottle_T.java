@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Tests the {@link ThingChannelThrottle} - at most one value per interval is
+ * sent, inside an interval the latest value wins and is sent at the end of the
+ * interval. The close of the throttle discards the pending value, the close of
+ * the driver metrics sends it, later values are sent directly.
+ */
+public class ThingChannelThrottle_T {
+
+	/* The interval of the rate limit in milliseconds */
+	private static final long INTERVAL = 200;
+
+	public static void main(String[] args) throws Exception {
+		ordering();
+		close();
+		metricsClose();
+		disabled();
+		System.out.println("ThingChannelThrottle: OK");
+	}
+
+	/* The first value is sent directly, the latest value of the interval at its end */
+	private static void ordering() throws Exception {
+		ThingDriverMetrics metrics = new ThingDriverMetrics("ordering");
+		ThingChannelThrottle throttle = new ThingChannelThrottle(INTERVAL, metrics::getTimer);
+		List<Integer> sent = new CopyOnWriteArrayList<>();
+
+		for (int i = 1; i <= 5; i++) {
+			int value = i;
+			throttle.submit(() -> sent.add(value));
+		}
+		check(sent.equals(List.of(1)), "first value not sent directly: " + sent);
+
+		Thread.sleep(INTERVAL * 2);
+		check(sent.equals(List.of(1, 5)), "latest value not sent: " + sent);
+		check(throttle.getSubmitted() == 5 && throttle.getSent() == 2 && throttle.getCoalesced() == 3,
+				"wrong counters: " + throttle);
+		metrics.close();
+	}
+
+	/* The close of the throttle discards the pending value */
+	private static void close() throws Exception {
+		ThingDriverMetrics metrics = new ThingDriverMetrics("close");
+		ThingChannelThrottle throttle = new ThingChannelThrottle(INTERVAL, metrics::getTimer);
+		List<Integer> sent = new CopyOnWriteArrayList<>();
+
+		throttle.submit(() -> sent.add(1));
+		throttle.submit(() -> sent.add(2));
+		throttle.close();
+
+		Thread.sleep(INTERVAL * 2);
+		check(sent.equals(List.of(1)) && throttle.getDropped() == 1, "pending value sent: " + sent);
+		metrics.close();
+	}
+
+	/* The close of the driver metrics sends the pending value, later values are sent directly */
+	private static void metricsClose() throws Exception {
+		ThingDriverMetrics metrics = new ThingDriverMetrics("metrics");
+		ThingChannelThrottle throttle = new ThingChannelThrottle(INTERVAL * 50, metrics::getTimer);
+		List<Integer> sent = new CopyOnWriteArrayList<>();
+
+		throttle.submit(() -> sent.add(1));
+		throttle.submit(() -> sent.add(2));
+		metrics.close();
+		check(sent.equals(List.of(1, 2)), "pending value lost by the close: " + sent);
+
+		throttle.submit(() -> sent.add(3));
+		check(sent.equals(List.of(1, 2, 3)), "value after the close not sent directly: " + sent);
+	}
+
+	/* Without interval every value is sent directly */
+	private static void disabled() {
+		ThingChannelThrottle throttle = new ThingChannelThrottle(0, () -> {
+			throw new IllegalStateException("No timer expected");
+		});
+		List<Integer> sent = new CopyOnWriteArrayList<>();
+		for (int i = 1; i <= 3; i++) {
+			int value = i;
+			throttle.submit(() -> sent.add(value));
+		}
+		check(!throttle.isEnabled() && sent.equals(List.of(1, 2, 3)), "values not sent directly: " + sent);
+	}
+
+	/* Fails if the condition is false */
+	private static void check(boolean condition, String failure) {
+		if (!condition)
+			throw new IllegalStateException(failure);
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.eclipse.kura.channel.listener.ChannelListener;
+import org.ict.kura.thing.creator.ThingProvider;
+import org.ict.model.wot.core.ActionAffordance;
+import org.ict.model.wot.core.PropertyAffordance;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Benchmark of an asset reload - all channel listeners are unregistered one at
+ * a time and registered again, as KURA does when an asset is reconfigured.
+ * Every second channel is a property/action pair, so the reload includes the
+ * action bindings and the compiled action schemas.
+ */
+public class ThingDriverReload_T {
+
+	/* The number of channels of the largest run */
+	private static final int CHANNELS = 5000;
+
+	/* A driver without technology, the binding is the form href */
+	private static class BenchmarkDriver extends ThingDriver<String> {
+		@Override
+		public Optional<JsonObject> doRead(String technologyBindingConfiguration) {
+			return Optional.empty();
+		}
+
+		@Override
+		public void doWrite(String technologyBindingConfiguration, ActionAffordance actionAffordance,
+				JsonObject jsonValue) {
+		}
+
+		@Override
+		public String createBinding(String jsonBinding) {
+			return jsonBinding;
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		/* Warm up */
+		run(CHANNELS / 5);
+
+		/* A linear growth of the reload time is expected */
+		for (int channels : new int[] { CHANNELS / 5, CHANNELS / 2, CHANNELS })
+			run(channels);
+	}
+
+	/**
+	 * Registers the channels, then measures the reload of the asset.
+	 *
+	 * @param channels the number of channels
+	 */
+	private static void run(int channels) throws Exception {
+		Map<String, String> ids = new HashMap<>();
+		BenchmarkDriver driver = new BenchmarkDriver();
+		driver.setThingProvider(createThingProvider(ids));
+
+		List<Map<String, Object>> configurations = new ArrayList<>();
+		List<ChannelListener> listeners = new ArrayList<>();
+		for (int i = 0; i < channels; i++) {
+			String href = "http://localhost/things/thing" + (i / 10) + "/properties/property" + i;
+			ids.put(href, "thing" + (i / 10));
+
+			Map<String, Object> configuration = new HashMap<>();
+			configuration.put("+name", "property" + i);
+			configuration.put("+type", "READ");
+			configuration.put("+value.type", "STRING");
+			configuration.put("formProperty", href);
+			configuration.put("formPropertyBinding", href);
+			if (i % 2 == 0) {
+				String actionHref = "http://localhost/things/thing" + (i / 10) + "/actions/action" + i;
+				ids.put(actionHref, "thing" + (i / 10));
+				configuration.put("+type", "READ_WRITE");
+				configuration.put("formAction", actionHref);
+				configuration.put("formActionBinding", actionHref);
+			}
+			configurations.add(configuration);
+			listeners.add(event -> {
+			});
+		}
+
+		/* Initial registration */
+		for (int i = 0; i < channels; i++)
+			driver.registerChannelListener(configurations.get(i), listeners.get(i));
+
+		/* Reload - unregisters all listeners one at a time and registers them again */
+		long start = System.nanoTime();
+		for (ChannelListener listener : listeners)
+			driver.unregisterChannelListener(listener);
+		long unregistered = System.nanoTime();
+		for (int i = 0; i < channels; i++)
+			driver.registerChannelListener(configurations.get(i), listeners.get(i));
+		long registered = System.nanoTime();
+
+		System.out.println(String.format("%5d channels: unregister %8.2f ms, register %8.2f ms, reload %8.2f ms",
+				channels, (unregistered - start) / 1e6, (registered - unregistered) / 1e6,
+				(registered - start) / 1e6));
+
+		int actions = (channels + 1) / 2;
+		if (driver.getListenerBindingConfigurations().size() != channels
+				|| driver.getUpdateBindingConfigurations().size() != channels
+				|| driver.getActionBindingConfigurations().size() != actions
+				|| driver.getActionSchemaRegistry().size() != actions)
+			throw new IllegalStateException("Bindings are not consistent after the reload");
+	}
+
+	/**
+	 * Creates a {@link ThingProvider} which only provides the thing ids, an empty
+	 * {@link PropertyAffordance} and an empty {@link ActionAffordance}.
+	 *
+	 * @param ids the map with form href (key) and thing id (value)
+	 * @return the {@link ThingProvider}
+	 */
+	private static ThingProvider createThingProvider(Map<String, String> ids) {
+		PropertyAffordance propertyAffordance = PropertyAffordance.builder().build();
+		ActionAffordance actionAffordance = ActionAffordance.builder().build();
+		return (ThingProvider) Proxy.newProxyInstance(ThingProvider.class.getClassLoader(),
+				new Class<?>[] { ThingProvider.class }, (proxy, method, arguments) -> {
+					switch (method.getName()) {
+					case "getIds":
+						return ids;
+					case "getPropertyAffordance":
+						return propertyAffordance;
+					case "getActionAffordance":
+						return actionAffordance;
+					default:
+						return null;
+					}
+				});
+	}
+}
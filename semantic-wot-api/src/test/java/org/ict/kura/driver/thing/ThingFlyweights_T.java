@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.ict.gson.utils.AdapterFactory;
+import org.ict.kura.asset.creator.thing.util.WoTUtils;
+import org.ict.model.wot.core.PropertyAffordance;
+import org.json.JSONObject;
+
+import com.google.gson.Gson;
+
+/**
+ * Memory benchmark of the {@link ThingFlyweights} - compares the heap used by
+ * the immutable objects of the channel listeners with a separate {@link Gson}
+ * instance, affordance and JSON schema per listener (before) with the heap used
+ * by the interned objects shared by the listeners (after). Every channel gets
+ * its own {@link PropertyAffordance} instance, as the things are deserialized
+ * one by one. The affordances of a kind have equal data schemas, but forms with
+ * the href of their own thing, as real affordances. Both runs hold the objects
+ * of a channel in the same array, so only the sharing makes the difference.
+ *
+ * Run with a fixed heap, e.g. -Xms512m -Xmx512m.
+ */
+public class ThingFlyweights_T {
+
+	/* The number of channels */
+	private static final int CHANNELS = 10000;
+
+	/* The number of different affordances, e.g. temperature, humidity, ... */
+	private static final int KINDS = 10;
+
+	public static void main(String[] args) throws Exception {
+		/* Before - every listener holds its own gson object, affordance and JSON schema */
+		long empty = usedHeap();
+		List<Object> before = new ArrayList<>();
+		for (int i = 0; i < CHANNELS; i++) {
+			PropertyAffordance propertyAffordance = createPropertyAffordance(i, i % KINDS);
+			Gson gson = AdapterFactory.getGsonWithDefaultWotTypeAdapters(true);
+			before.add(new Object[] { gson, propertyAffordance, new JSONObject(gson.toJson(propertyAffordance)) });
+		}
+		long beforeHeap = usedHeap() - empty;
+		before.clear();
+
+		/* After - the listeners share the gson object, the affordances and schemas */
+		empty = usedHeap();
+		List<Object> after = new ArrayList<>();
+		for (int i = 0; i < CHANNELS; i++) {
+			String dataSchema = ThingFlyweights.getDataSchema(createPropertyAffordance(i, i % KINDS));
+			after.add(new Object[] { ThingFlyweights.getGson(), ThingFlyweights.intern(dataSchema),
+					ThingFlyweights.getSchema(dataSchema) });
+		}
+		long afterHeap = usedHeap() - empty;
+		Map<String, Integer> sizes = ThingFlyweights.getSizes();
+		if (sizes.get("affordances") != KINDS || sizes.get("schemas") != KINDS)
+			throw new IllegalStateException("Affordances with different forms are not shared: " + sizes);
+
+		System.out.println(String.format("%d channels, %d affordances: before %8.2f MB, after %8.2f MB (%.1f %%)",
+				CHANNELS, KINDS, beforeHeap / 1048576.0, afterHeap / 1048576.0, 100.0 * afterHeap / beforeHeap));
+		System.out.println("Interned: " + sizes + ", listeners: " + after.size());
+	}
+
+	/* Creates a new affordance instance of the given kind with the form of the thing */
+	private static PropertyAffordance createPropertyAffordance(int thing, int kind) throws Exception {
+		PropertyAffordance propertyAffordance = WoTUtils.createTemperaturPropertie("https://localhost/things/thing" + thing,
+				"temperature");
+		propertyAffordance.setAtType(Arrays.asList(URI.create("iot:Temperature"), URI.create("iot:Kind" + kind)));
+		return propertyAffordance;
+	}
+
+	/* Returns the used heap after a garbage collection */
+	private static long usedHeap() throws InterruptedException {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			Thread.sleep(100);
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ict.kura.driver.thing.ThingIngressRing.OverflowPolicy;
+import org.ict.model.wot.core.ActionAffordance;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Tests the {@link ThingIngressRing} - the tasks of a key are executed in
+ * order, a full ring drops or blocks by its policy, a closed ring executes the
+ * published tasks and rejects new tasks. The {@link ThingDriver} hands the
+ * values of the callbacks over to the new ring, while the ring is replaced by a
+ * configuration update.
+ */
+public class ThingIngressRing_T {
+
+	/* The number of tasks per producer */
+	private static final int TASKS = 100000;
+
+	/* The number of producer threads, each with its own key */
+	private static final int PRODUCERS = 4;
+
+	/* A driver without technology, only the ingress ring is used */
+	private static class IngressDriver extends ThingDriver<String> {
+		@Override
+		public Optional<JsonObject> doRead(String technologyBindingConfiguration) {
+			return Optional.empty();
+		}
+
+		@Override
+		public void doWrite(String technologyBindingConfiguration, ActionAffordance actionAffordance,
+				JsonObject jsonValue) {
+		}
+
+		@Override
+		public String createBinding(String jsonBinding) {
+			return jsonBinding;
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		ordering();
+		overflowDrop();
+		overflowBlock();
+		close();
+		handover();
+		System.out.println("ThingIngressRing: OK");
+	}
+
+	/* The tasks of a key are executed in the order of publishing */
+	private static void ordering() throws Exception {
+		ThingIngressRing ring = new ThingIngressRing("ordering", 2, 1024, OverflowPolicy.BLOCK);
+		Map<Integer, Integer> last = new ConcurrentHashMap<>();
+		AtomicInteger outOfOrder = new AtomicInteger();
+
+		Thread[] producers = new Thread[PRODUCERS];
+		for (int p = 0; p < PRODUCERS; p++) {
+			int key = p;
+			producers[p] = new Thread(() -> {
+				for (int i = 0; i < TASKS; i++) {
+					int sequence = i;
+					ring.publish(key, () -> {
+						Integer previous = last.put(key, sequence);
+						if (previous != null && previous != sequence - 1)
+							outOfOrder.incrementAndGet();
+					});
+				}
+			});
+			producers[p].start();
+		}
+		for (Thread producer : producers)
+			producer.join();
+		ring.close();
+
+		check(outOfOrder.get() == 0, "tasks out of order: " + outOfOrder.get());
+		check(ring.getExecuted() == (long) PRODUCERS * TASKS, "tasks lost: " + ring);
+		check(ring.getDropped() == 0, "tasks dropped: " + ring);
+	}
+
+	/* A full ring with the policy DROP drops the new tasks */
+	private static void overflowDrop() throws Exception {
+		ThingIngressRing ring = new ThingIngressRing("drop", 1, 4, OverflowPolicy.DROP);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ring.publish("key", () -> {
+			started.countDown();
+			await(release);
+		});
+		started.await();
+
+		/* The consumer is blocked, 4 tasks fit into the ring */
+		int accepted = 0;
+		for (int i = 0; i < 10; i++)
+			if (ring.publish("key", () -> {
+			}))
+				accepted++;
+		check(accepted == 4 && ring.getDropped() == 6, "overflow not dropped: " + ring);
+
+		release.countDown();
+		ring.close();
+		check(ring.getExecuted() == 5, "accepted tasks lost: " + ring);
+	}
+
+	/* A full ring with the policy BLOCK blocks the producer until there is room */
+	private static void overflowBlock() throws Exception {
+		ThingIngressRing ring = new ThingIngressRing("block", 1, 2, OverflowPolicy.BLOCK);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ring.publish("key", () -> {
+			started.countDown();
+			await(release);
+		});
+		started.await();
+
+		AtomicInteger published = new AtomicInteger();
+		Thread producer = new Thread(() -> {
+			for (int i = 0; i < 10; i++)
+				if (ring.publish("key", () -> {
+				}))
+					published.incrementAndGet();
+		});
+		producer.start();
+		Thread.sleep(200);
+		check(producer.isAlive() && published.get() == 2, "producer not blocked: " + published.get());
+
+		release.countDown();
+		producer.join();
+		ring.close();
+		check(published.get() == 10 && ring.getExecuted() == 11 && ring.getDropped() == 0,
+				"blocked tasks lost: " + ring);
+	}
+
+	/* A closed ring executes the published tasks and rejects new tasks */
+	private static void close() throws Exception {
+		ThingIngressRing ring = new ThingIngressRing("close", 2, 1024, OverflowPolicy.BLOCK);
+		AtomicInteger executed = new AtomicInteger();
+		for (int i = 0; i < 1000; i++)
+			ring.publish(i, () -> executed.incrementAndGet());
+		ring.close();
+		ring.awaitTermination();
+		check(executed.get() == 1000, "published tasks lost: " + executed.get());
+
+		check(!ring.publish("key", () -> executed.incrementAndGet()) && ring.isClosed(), "closed ring accepts tasks");
+		check(ring.getDropped() == 0, "rejected tasks counted as dropped: " + ring);
+	}
+
+	/* The driver hands the values over to the new ring, while the ring is replaced */
+	private static void handover() throws Exception {
+		IngressDriver driver = new IngressDriver();
+		Map<String, Object> properties = new HashMap<>();
+		properties.put(ThingDriverOptions.INGRESS_CONSUMERS, 2);
+		properties.put(ThingDriverOptions.INGRESS_CAPACITY, 64);
+		driver.configure(new ThingDriverOptions(properties));
+
+		AtomicLong last = new AtomicLong(-1);
+		AtomicInteger outOfOrder = new AtomicInteger();
+		Thread producer = new Thread(() -> {
+			for (int i = 0; i < TASKS; i++) {
+				long sequence = i;
+				driver.ingress("key", () -> {
+					if (last.getAndSet(sequence) != sequence - 1)
+						outOfOrder.incrementAndGet();
+				});
+			}
+		});
+		producer.start();
+
+		/* Replaces the ring several times while the producer is running */
+		while (producer.isAlive())
+			driver.configure(new ThingDriverOptions(properties));
+		producer.join();
+		driver.closeIngressRing();
+		driver.getEventDispatcher().close();
+		driver.getMetrics().close();
+
+		check(last.get() == TASKS - 1, "values lost by the replaced ring: " + (last.get() + 1));
+		check(outOfOrder.get() == 0, "values out of order: " + outOfOrder.get());
+		check(driver.getMetrics().getIngressDropped() == 0, "values dropped");
+	}
+
+	/* Waits for the latch */
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/* Fails if the condition is false */
+	private static void check(boolean condition, String failure) {
+		if (!condition)
+			throw new IllegalStateException(failure);
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONObject;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Benchmark of the payload validation - the everit schema with the conversion
+ * of the Gson payload to org.json compared with the compiled
+ * {@link ThingSchemaValidator} on the Gson payload.
+ */
+public class ThingSchemaValidator_T {
+
+	/* The number of validated payloads per run */
+	private static final int PAYLOADS = 200000;
+
+	/* The data schema of a temperature property */
+	private static final String SCHEMA = "{\"type\": \"object\", \"required\": [\"time\", \"temperature\"],"
+			+ " \"properties\": {\"time\": {\"type\": \"integer\", \"minimum\": 0},"
+			+ " \"temperature\": {\"type\": \"number\", \"minimum\": -30.0, \"maximum\": 50.0}}}";
+
+	public static void main(String[] args) {
+		Schema everit = SchemaLoader.load(new JSONObject(SCHEMA));
+		ThingSchemaValidator validator = ThingSchemaValidator.compile(new JsonParser().parse(SCHEMA));
+
+		JsonObject valid = new JsonParser().parse("{\"time\": 1610000000000, \"temperature\": 21.5}")
+				.getAsJsonObject();
+		JsonObject invalid = new JsonParser().parse("{\"time\": 1610000000000, \"temperature\": 99.0}")
+				.getAsJsonObject();
+		if (!validator.isValid(valid) || validator.isValid(invalid))
+			throw new IllegalStateException("Unexpected validation result");
+		System.out.println("Violation: " + validator.validate(invalid).orElse(""));
+
+		/* Warm up, then the measured run */
+		for (int run = 0; run < 2; run++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < PAYLOADS; i++) {
+				try {
+					everit.validate(new JSONObject(valid.toString()));
+				} catch (ValidationException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+			long everitNanos = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < PAYLOADS; i++) {
+				if (!validator.isValid(valid))
+					throw new IllegalStateException();
+			}
+			long compiledNanos = System.nanoTime() - start;
+
+			System.out.println(String.format("%d payloads: everit %8.3f us/payload, compiled %8.3f us/payload",
+					PAYLOADS, everitNanos / 1000.0 / PAYLOADS, compiledNanos / 1000.0 / PAYLOADS));
+		}
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.driver.thing;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.ict.kura.driver.thing.ThingWriteQueue.Result;
+import org.ict.kura.driver.thing.ThingWriteQueue.Status;
+import org.ict.kura.driver.thing.ThingWriteQueue.Write;
+import org.ict.model.wot.core.ActionAffordance;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Tests the {@link ThingWriteQueue} - the writes of a device are executed in
+ * order, a queued write is replaced by a newer write of the same action, a
+ * full queue rejects new writes and the close reports every discarded write as
+ * failure.
+ */
+public class ThingWriteQueue_T {
+
+	/* The maximum time in milliseconds to wait for the results */
+	private static final long TIMEOUT = 5000;
+
+	/* A technology binding which records the writes, the first write blocks until released */
+	private static class RecordingBinding implements Binding<String> {
+		private final List<String> written = new CopyOnWriteArrayList<>();
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public Optional<JsonObject> doRead(String technologyBindingConfiguration) {
+			return Optional.empty();
+		}
+
+		@Override
+		public void doWrite(String technologyBindingConfiguration, ActionAffordance actionAffordance,
+				JsonObject jsonValue) {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				throw new IllegalStateException("Write interrupted", e);
+			}
+			written.add(technologyBindingConfiguration + "=" + jsonValue.get("value").getAsInt());
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		ordering();
+		coalescing();
+		overflow();
+		close();
+		System.out.println("ThingWriteQueue: OK");
+	}
+
+	/* The writes of a device are executed in the order of submission */
+	private static void ordering() throws Exception {
+		RecordingBinding binding = new RecordingBinding();
+		List<Result> results = new CopyOnWriteArrayList<>();
+		ThingWriteQueue<String> queue = new ThingWriteQueue<>("ordering", binding, results::add, 4, 16, 1, 0);
+
+		for (int i = 0; i < 5; i++)
+			check(queue.submit(createWrite("device", "action" + i, i)), "write rejected");
+		binding.started.await();
+		binding.release.countDown();
+		awaitResults(results, 5);
+		queue.close();
+
+		check(binding.written.equals(List.of("action0=0", "action1=1", "action2=2", "action3=3", "action4=4")),
+				"writes out of order: " + binding.written);
+		check(results.stream().allMatch(result -> result.getStatus() == Status.SUCCESS), "failed: " + results);
+	}
+
+	/* A queued write is replaced by a newer write of the same action */
+	private static void coalescing() throws Exception {
+		RecordingBinding binding = new RecordingBinding();
+		List<Result> results = new CopyOnWriteArrayList<>();
+		ThingWriteQueue<String> queue = new ThingWriteQueue<>("coalescing", binding, results::add, 4, 16, 1, 0);
+
+		queue.submit(createWrite("device", "dimmer", 0));
+		binding.started.await();
+		for (int i = 1; i <= 10; i++)
+			queue.submit(createWrite("device", "dimmer", i));
+		binding.release.countDown();
+		awaitResults(results, 11);
+		queue.close();
+
+		/* The running write and the latest value are written, the others are coalesced */
+		check(binding.written.equals(List.of("dimmer=0", "dimmer=10")), "latest value lost: " + binding.written);
+		check(queue.getCoalesced() == 9 && count(results, Status.COALESCED) == 9, "not coalesced: " + queue);
+	}
+
+	/* A full queue rejects new writes */
+	private static void overflow() throws Exception {
+		RecordingBinding binding = new RecordingBinding();
+		List<Result> results = new CopyOnWriteArrayList<>();
+		ThingWriteQueue<String> queue = new ThingWriteQueue<>("overflow", binding, results::add, 4, 3, 1, 0);
+
+		queue.submit(createWrite("device", "action0", 0));
+		binding.started.await();
+
+		/* The running write is not queued, 3 writes fit into the queue */
+		int accepted = 0;
+		for (int i = 1; i <= 5; i++)
+			if (queue.submit(createWrite("device", "action" + i, i)))
+				accepted++;
+		check(accepted == 3 && queue.getRejected() == 2 && queue.getQueued() == 3, "overflow not rejected: " + queue);
+
+		/* A queued action is still replaced in a full queue */
+		check(queue.submit(createWrite("device", "action1", 10)), "write of a queued action rejected");
+
+		binding.release.countDown();
+		awaitResults(results, 5);
+		queue.close();
+		check(binding.written.equals(List.of("action0=0", "action1=10", "action2=2", "action3=3")),
+				"accepted writes lost: " + binding.written);
+	}
+
+	/* The close reports the queued writes and the writes not started by a worker as failure */
+	private static void close() throws Exception {
+		RecordingBinding binding = new RecordingBinding();
+		List<Result> results = new CopyOnWriteArrayList<>();
+		ThingWriteQueue<String> queue = new ThingWriteQueue<>("close", binding, results::add, 1, 16, 1, 0);
+
+		/* The only worker is blocked by device a, the write of device b waits for a worker */
+		queue.submit(createWrite("a", "action0", 0));
+		binding.started.await();
+		queue.submit(createWrite("b", "action1", 1));
+		queue.submit(createWrite("a", "action2", 2));
+		queue.close();
+
+		/* The discarded writes and the interrupted write are reported */
+		awaitResults(results, 3);
+		check(queue.getDiscarded() == 2, "discarded writes not counted: " + queue);
+		long closed = results.stream().filter(result -> result.getStatus() == Status.FAILURE
+				&& "The write queue is closed".equals(result.getError())).count();
+		check(closed == 2, "discarded writes not reported: " + results);
+		check(!queue.submit(createWrite("a", "action3", 3)) && queue.getRejected() == 1, "closed queue accepts writes");
+	}
+
+	/* Creates a write of the given device and action */
+	private static Write<String> createWrite(String deviceId, String actionName, int value) {
+		JsonObject jsonValue = new JsonObject();
+		jsonValue.addProperty("value", value);
+		String formAction = "http://localhost/things/" + deviceId + "/actions/" + actionName;
+		return new Write<>(deviceId, deviceId, actionName, formAction, actionName, null, jsonValue);
+	}
+
+	/* Returns the number of results with the given status */
+	private static long count(List<Result> results, Status status) {
+		return results.stream().filter(result -> result.getStatus() == status).count();
+	}
+
+	/* Waits until the number of results is reported */
+	private static void awaitResults(List<Result> results, int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (results.size() < count) {
+			if (System.currentTimeMillis() > deadline)
+				throw new IllegalStateException("Timeout, results: " + results);
+			TimeUnit.MILLISECONDS.sleep(10);
+		}
+	}
+
+	/* Fails if the condition is false */
+	private static void check(boolean condition, String failure) {
+		if (!condition)
+			throw new IllegalStateException(failure);
+	}
+}
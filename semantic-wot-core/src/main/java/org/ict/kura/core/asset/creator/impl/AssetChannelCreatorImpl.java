@@ -15,6 +15,14 @@
  */
 package org.ict.kura.core.asset.creator.impl;
 
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_DEADBAND;
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_DEADBAND_MODE;
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_HEARTBEAT_INTERVAL;
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_MAX_AGE;
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_RATE_LIMIT;
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_VALIDATION;
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_VALIDATION_RATE;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -101,6 +109,21 @@ public class AssetChannelCreatorImpl implements AssetChannelCreator {
 		/* Creates the standard channels */
 		Map<String, Object> channels = createChannel(channelName, channelType, valueType);
 
+		/*
+		 * Section report by exception, rate limit, read cache and validation defaults
+		 * of property channels - sends every value without validation and reads
+		 * always the device, can be changed per channel in the kura web admin
+		 */
+		if (advancedConfiguration.get("formProperty") != null) {
+			channels.put(channelName + "#" + PROP_DEADBAND_MODE, "none");
+			channels.put(channelName + "#" + PROP_DEADBAND, Double.valueOf(0));
+			channels.put(channelName + "#" + PROP_HEARTBEAT_INTERVAL, Integer.valueOf(0));
+			channels.put(channelName + "#" + PROP_RATE_LIMIT, Integer.valueOf(0));
+			channels.put(channelName + "#" + PROP_MAX_AGE, Integer.valueOf(0));
+			channels.put(channelName + "#" + PROP_VALIDATION, "none");
+			channels.put(channelName + "#" + PROP_VALIDATION_RATE, Integer.valueOf(100));
+		}
+
 		/* Section dummy driver additional channel attributes */
 		for (Entry e : advancedConfiguration.entrySet()) {
 			LOGGER.info("Advanced channel configuration {} - {}", e.getKey(), e.getValue());
@@ -0,0 +1,226 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.core.thing.asset.creator.impl;
+
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_DEADBAND;
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_DEADBAND_MODE;
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_HEARTBEAT_INTERVAL;
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_MAX_AGE;
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_RATE_LIMIT;
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_VALIDATION;
+import static org.ict.kura.asset.creator.thing.util.ThingChannelDescriptor.PROP_VALIDATION_RATE;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The difference between the existing configuration of an asset and the
+ * configuration generated from the thing description, channel by channel.
+ * Only the channel attributes derived from the thing description are compared
+ * - the tunable channel options (enabled, deadband, rate limit, ...) may be
+ * changed via the KURA web admin and are kept for the existing channels.
+ */
+final class AssetConfigurationDiff {
+	/* The separator between the channel name and the channel attribute */
+	private static final String SEPARATOR = "#";
+
+	/* The asset attribute with the driver of the asset */
+	private static final String DRIVER_PID = "driver.pid";
+
+	/* The channel options with defaults, not derived from the thing description */
+	private static final Set<String> OPTIONS = Set.of("+enabled", PROP_DEADBAND_MODE, PROP_DEADBAND,
+			PROP_HEARTBEAT_INTERVAL, PROP_RATE_LIMIT, PROP_MAX_AGE, PROP_VALIDATION, PROP_VALIDATION_RATE);
+
+	/* The names of the new channels */
+	private final Set<String> added = new HashSet<>();
+
+	/* The names of the channels which are not part of the thing description anymore */
+	private final Set<String> removed = new HashSet<>();
+
+	/* The names of the channels with a changed thing description */
+	private final Set<String> changed = new HashSet<>();
+
+	/* True if the asset is bound to another driver */
+	private final boolean driverChanged;
+
+	/* The configuration properties of the existing asset */
+	private final Map<String, Object> existing;
+
+	/* The asset configuration generated from the thing description */
+	private final Map<String, Object> generated;
+
+	private AssetConfigurationDiff(Map<String, Object> existing, Map<String, Object> generated) {
+		this.existing = existing;
+		this.generated = generated;
+		this.driverChanged = !equals(existing.get(DRIVER_PID), generated.get(DRIVER_PID));
+
+		Map<String, Map<String, Object>> existingChannels = channels(existing);
+		Map<String, Map<String, Object>> generatedChannels = channels(generated);
+		for (Entry<String, Map<String, Object>> entry : generatedChannels.entrySet()) {
+			Map<String, Object> channel = existingChannels.get(entry.getKey());
+			if (channel == null)
+				added.add(entry.getKey());
+			else if (!equalsWithoutOptions(channel, entry.getValue()))
+				changed.add(entry.getKey());
+		}
+		for (String channelName : existingChannels.keySet())
+			if (!generatedChannels.containsKey(channelName))
+				removed.add(channelName);
+	}
+
+	/**
+	 * Compares the existing asset configuration with the generated one.
+	 *
+	 * @param existing  the configuration properties of the existing asset
+	 * @param generated the asset configuration generated from the thing
+	 *                  description
+	 * @return the {@link AssetConfigurationDiff}
+	 */
+	static AssetConfigurationDiff of(Map<String, Object> existing, Map<String, Object> generated) {
+		return new AssetConfigurationDiff(existing == null ? Collections.emptyMap() : existing, generated);
+	}
+
+	/**
+	 * Returns true if the asset has not changed and need not be updated.
+	 *
+	 * @return true if nothing has changed
+	 */
+	boolean isEmpty() {
+		return !driverChanged && added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+	}
+
+	/**
+	 * Returns true if the asset is bound to another driver.
+	 *
+	 * @return true if the driver has changed
+	 */
+	boolean isDriverChanged() {
+		return driverChanged;
+	}
+
+	/**
+	 * Returns the names of the new channels.
+	 *
+	 * @return the unmodifiable set
+	 */
+	Set<String> getAdded() {
+		return Collections.unmodifiableSet(added);
+	}
+
+	/**
+	 * Returns the names of the channels which are not part of the thing
+	 * description anymore.
+	 *
+	 * @return the unmodifiable set
+	 */
+	Set<String> getRemoved() {
+		return Collections.unmodifiableSet(removed);
+	}
+
+	/**
+	 * Returns the names of the channels with a changed thing description.
+	 *
+	 * @return the unmodifiable set
+	 */
+	Set<String> getChanged() {
+		return Collections.unmodifiableSet(changed);
+	}
+
+	/**
+	 * Merges the changes into the existing configuration. The attributes of the
+	 * unchanged channels and the options of the changed channels are kept, the
+	 * attributes of the removed channels are dropped.
+	 *
+	 * @return the configuration to update the asset with
+	 */
+	Map<String, Object> merge() {
+		Map<String, Object> merged = new HashMap<>(existing);
+
+		/* Drops the removed channels */
+		merged.keySet().removeIf(key -> removed.contains(channelName(key)));
+
+		/* Sets the attributes of the new and changed channels, keeps the tuned options */
+		for (Entry<String, Object> entry : generated.entrySet()) {
+			String channelName = channelName(entry.getKey());
+			if (channelName == null) {
+				merged.putIfAbsent(entry.getKey(), entry.getValue());
+			} else if (added.contains(channelName)) {
+				merged.put(entry.getKey(), entry.getValue());
+			} else if (changed.contains(channelName)) {
+				if (OPTIONS.contains(attribute(entry.getKey())))
+					merged.putIfAbsent(entry.getKey(), entry.getValue());
+				else
+					merged.put(entry.getKey(), entry.getValue());
+			}
+		}
+		merged.put(DRIVER_PID, generated.get(DRIVER_PID));
+		return merged;
+	}
+
+	@Override
+	public String toString() {
+		return "added " + added + ", removed " + removed + ", changed " + changed
+				+ (driverChanged ? ", driver changed" : "");
+	}
+
+	/* Groups the channel attributes by the channel name */
+	private static Map<String, Map<String, Object>> channels(Map<String, Object> configuration) {
+		Map<String, Map<String, Object>> channels = new HashMap<>();
+		for (Entry<String, Object> entry : configuration.entrySet()) {
+			String channelName = channelName(entry.getKey());
+			if (channelName != null)
+				channels.computeIfAbsent(channelName, k -> new HashMap<>()).put(attribute(entry.getKey()),
+						entry.getValue());
+		}
+		return channels;
+	}
+
+	/*
+	 * Compares the attributes derived from the thing description, additional
+	 * attributes of the existing channel (e.g. added by KURA) are ignored
+	 */
+	private static boolean equalsWithoutOptions(Map<String, Object> existing, Map<String, Object> generated) {
+		for (Entry<String, Object> entry : generated.entrySet())
+			if (!OPTIONS.contains(entry.getKey()) && !equals(existing.get(entry.getKey()), entry.getValue()))
+				return false;
+		return true;
+	}
+
+	/*
+	 * Compares two values - the configuration service may return the values with
+	 * another type than generated (e.g. Integer and Long), so the string
+	 * representation is compared as fallback
+	 */
+	private static boolean equals(Object a, Object b) {
+		return Objects.equals(a, b) || (a != null && b != null && a.toString().equals(b.toString()));
+	}
+
+	/* Returns the channel name of the key or null if it is an asset attribute */
+	private static String channelName(String key) {
+		int index = key.indexOf(SEPARATOR);
+		return index < 0 ? null : key.substring(0, index);
+	}
+
+	/* Returns the channel attribute of the key */
+	private static String attribute(String key) {
+		return key.substring(key.indexOf(SEPARATOR) + 1);
+	}
+}
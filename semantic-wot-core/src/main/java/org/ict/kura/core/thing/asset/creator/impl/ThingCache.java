@@ -0,0 +1,228 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.core.thing.asset.creator.impl;
+
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.ict.model.wot.core.Thing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * The warm-start cache of the provisioned thing descriptions. The last known
+ * things of each driver are saved as gzip compressed json file in the cache
+ * directory, one file per driver PID. After a reboot the things are loaded
+ * and provisioned at once - the assets and channels are available before the
+ * drivers have discovered their devices again. A thing which was not
+ * provisioned for {@value #MAX_AGE_DAYS} days is dropped from the cache, the
+ * things of an explicitly deleted asset or driver are removed at once.
+ */
+final class ThingCache {
+	/* The logger instance */
+	private static final Logger LOGGER = LoggerFactory.getLogger(ThingCache.class);
+
+	/* The suffix of the cache files */
+	private static final String SUFFIX = ".json.gz";
+
+	/* The maximum age of a cached thing in days */
+	static final int MAX_AGE_DAYS = 30;
+
+	/* The gson object to serialize the thing descriptions */
+	private final Gson gson;
+
+	/* The cache directory */
+	private final Path directory;
+
+	/* The cached things of each driver, the key of the inner map is the thing id */
+	private final Map<String, Map<String, Cached>> drivers = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param gson      the gson object to serialize the thing descriptions
+	 * @param directory the cache directory, created if it does not exist
+	 */
+	ThingCache(Gson gson, String directory) {
+		this.gson = gson;
+		this.directory = Paths.get(directory);
+	}
+
+	/**
+	 * Loads the cached things of all drivers. Things older than
+	 * {@value #MAX_AGE_DAYS} days and unreadable files are skipped.
+	 *
+	 * @return the cached things, the key is the driver PID
+	 */
+	Map<String, List<Thing>> load() {
+		Map<String, List<Thing>> things = new LinkedHashMap<>();
+		if (!Files.isDirectory(directory))
+			return things;
+
+		long oldest = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(MAX_AGE_DAYS);
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+			for (Path file : files) {
+				try (Reader reader = new InputStreamReader(new GZIPInputStream(Files.newInputStream(file)),
+						StandardCharsets.UTF_8)) {
+					JsonObject json = new JsonParser().parse(reader).getAsJsonObject();
+					String driverPID = json.get("driverPid").getAsString();
+					Map<String, Cached> cached = new ConcurrentHashMap<>();
+					for (JsonElement element : json.getAsJsonArray("things")) {
+						JsonObject entry = element.getAsJsonObject();
+						long time = entry.get("time").getAsLong();
+						if (time < oldest)
+							continue;
+						Thing thing = gson.fromJson(entry.get("thing"), Thing.class);
+						cached.put(getThingId(thing), new Cached(thing, time));
+					}
+					drivers.put(driverPID, cached);
+					List<Thing> list = new ArrayList<>();
+					cached.values().forEach(entry -> list.add(entry.thing));
+					things.put(driverPID, list);
+				} catch (Throwable t) {
+					LOGGER.warn("The thing cache {} could not be loaded", file, t);
+				}
+			}
+		} catch (Throwable t) {
+			LOGGER.error("", t);
+		}
+		return things;
+	}
+
+	/**
+	 * Saves the provisioned things of a driver, the other cached things of the
+	 * driver are kept.
+	 *
+	 * @param driverPID the id of the driver
+	 * @param things    the provisioned things
+	 */
+	void store(String driverPID, Collection<Thing> things) {
+		if (driverPID == null || things.isEmpty())
+			return;
+		long now = System.currentTimeMillis();
+		Map<String, Cached> cached = drivers.computeIfAbsent(driverPID, k -> new ConcurrentHashMap<>());
+		for (Thing thing : things)
+			cached.put(getThingId(thing), new Cached(thing, now));
+		write(driverPID, cached);
+	}
+
+	/**
+	 * Removes the cached things of a driver and its cache file, e.g. after the
+	 * assets of the driver were deleted.
+	 *
+	 * @param driverPID the id of the driver
+	 */
+	void remove(String driverPID) {
+		if (driverPID == null)
+			return;
+		drivers.remove(driverPID);
+		Path file = file(driverPID);
+		synchronized (this) {
+			try {
+				Files.deleteIfExists(file);
+				LOGGER.debug("Removed the cached things of driver {}", driverPID);
+			} catch (Throwable t) {
+				LOGGER.error("The thing cache {} could not be deleted", file, t);
+			}
+		}
+	}
+
+	/**
+	 * Removes a cached thing of a driver, e.g. after its asset was deleted.
+	 *
+	 * @param driverPID the id of the driver
+	 * @param thingId   the id of the thing
+	 */
+	void remove(String driverPID, String thingId) {
+		Map<String, Cached> cached = driverPID == null || thingId == null ? null : drivers.get(driverPID);
+		if (cached != null && cached.remove(thingId) != null)
+			write(driverPID, cached);
+	}
+
+	/* Writes the cache file of a driver - first to a temporary file, which is then moved */
+	private void write(String driverPID, Map<String, Cached> cached) {
+		JsonArray things = new JsonArray();
+		for (Cached entry : cached.values()) {
+			JsonObject json = new JsonObject();
+			json.addProperty("time", entry.time);
+			json.add("thing", gson.toJsonTree(entry.thing));
+			things.add(json);
+		}
+		JsonObject json = new JsonObject();
+		json.addProperty("driverPid", driverPID);
+		json.add("things", things);
+
+		Path file = file(driverPID);
+		Path temporary = directory.resolve(file.getFileName() + ".tmp");
+		synchronized (this) {
+			try {
+				Files.createDirectories(directory);
+				try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(temporary)),
+						StandardCharsets.UTF_8)) {
+					gson.toJson(json, writer);
+				}
+				Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				LOGGER.debug("Saved {} things of driver {} to {}", cached.size(), driverPID, file);
+			} catch (Throwable t) {
+				LOGGER.error("The thing cache {} could not be saved", file, t);
+			}
+		}
+	}
+
+	/* Returns the cache file of a driver */
+	private Path file(String driverPID) {
+		return directory.resolve(driverPID.replaceAll("[^A-Za-z0-9._-]", "_") + SUFFIX);
+	}
+
+	/* Returns the id of the thing, the title if the thing has no id */
+	private static String getThingId(Thing thing) {
+		return thing.getId() == null ? String.valueOf(thing.getTitle()) : thing.getId().toString();
+	}
+
+	/* A cached thing with the time of the last provisioning */
+	private static final class Cached {
+		private final Thing thing;
+		private final long time;
+
+		private Cached(Thing thing, long time) {
+			this.thing = thing;
+			this.time = time;
+		}
+	}
+}
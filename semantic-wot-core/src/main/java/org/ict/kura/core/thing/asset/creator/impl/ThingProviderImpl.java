@@ -16,15 +16,18 @@
 package org.ict.kura.core.thing.asset.creator.impl;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.kura.channel.ChannelType;
 import org.eclipse.kura.configuration.ComponentConfiguration;
@@ -32,8 +35,11 @@ import org.eclipse.kura.configuration.ConfigurationService;
 import org.eclipse.kura.type.DataType;
 import org.ict.gson.utils.AdapterFactory;
 import org.ict.kura.asset.creator.thing.util.ThingContainer;
+import org.ict.kura.asset.creator.thing.util.ThingDataTypes;
 import org.ict.kura.core.asset.creator.impl.AssetChannelCreatorImpl;
 import org.ict.kura.core.thing.asset.creator.util.ThingContainerImpl;
+import org.ict.kura.thing.creator.ProvisioningProgress;
+import org.ict.kura.thing.creator.ProvisioningReport;
 import org.ict.kura.thing.creator.ThingProvider;
 import org.ict.model.wot.core.ActionAffordance;
 import org.ict.model.wot.core.PropertyAffordance;
@@ -63,29 +69,47 @@ import com.google.gson.Gson;
  * @version 2021-02-03
  */
 @Component(immediate = true, property = { "event.topics=things/*",
-		"service.pid=org.ict.kura.core.thing.asset.creator.impl.ThingProvider" }, name = "org.ict.kura.core.thing.asset.creator.impl.ThingProvider")
+		"service.pid=org.ict.kura.core.thing.asset.creator.impl.ThingProvider",
+		"thing.cache.directory=/opt/eclipse/kura/data/thing-cache" }, name = "org.ict.kura.core.thing.asset.creator.impl.ThingProvider")
 public class ThingProviderImpl implements ThingProvider, EventHandler {
 	private static final Logger LOGGER = LoggerFactory.getLogger(ThingProviderImpl.class);
 	private static final String APP_ID = "org.ict.kura.service.asset.creator.thing.ThingProvider";
 	private static final String FACTORY_PID = "org.eclipse.kura.wire.WireAsset";
 
+	/* The component property with the warm-start cache directory, empty disables the cache */
+	private static final String CACHE_DIRECTORY = "thing.cache.directory";
+
 	/* OSGi bundle configuration service */
 	private ConfigurationService configurationService;
 
 	/* ICT gson object and factory to create {@link Thing} from json string */
 	Gson gson = AdapterFactory.getGsonWithDefaultWotTypeAdapters(true);
 
-	/* Map with semantic type informations */
-	private Map<String, List<URI>> semanticTypes = new HashMap<>();
-
-	/* Map with modified thing ids (used as asset names) */
-	private Map<String, String> ids = new HashMap<>();
+	/*
+	 * The registry with the semantic type informations, the modified thing ids
+	 * (used as asset names), the thing properties and actions - read without lock
+	 * by the drivers
+	 */
+	private final ThingRegistry registry = new ThingRegistry();
 
-	/* Map with thing properties */
-	private Map<String, Map.Entry<String, PropertyAffordance>> properties = new HashMap<>();
+	/* The warm-start cache of the discovered things, null if disabled */
+	private volatile ThingCache cache;
 
-	/* Map with action properties */
-	private Map<String, Map.Entry<String, ActionAffordance>> actions = new HashMap<>();
+	/*
+	 * The background provisioning of the things received via events, saves the
+	 * discovered things in the warm-start cache
+	 */
+	private final ThingProvisioningQueue provisioningQueue = new ThingProvisioningQueue(this, gson,
+			(driverPID, things) -> {
+				ThingCache thingCache = cache;
+				if (thingCache != null)
+					thingCache.store(driverPID, things);
+			});
+
+	/* The result of the provisioning of one asset */
+	private enum Provisioning {
+		CREATED, UPDATED, UNCHANGED
+	}
 
 	/**
 	 * Binding function which starts the bundle, see component.xml, is called by the
@@ -104,6 +128,10 @@ public class ThingProviderImpl implements ThingProvider, EventHandler {
 	 */
 	@Deactivate
 	protected void deactivate(ComponentContext componentContext) {
+		/* Stops the background provisioning */
+		provisioningQueue.close();
+		LOGGER.info("Provisioning statistics: {}", provisioningQueue);
+
 		/* Closes all resources */
 		doDeactivate();
 		LOGGER.info("Bundle " + APP_ID + " has stopped!");
@@ -125,43 +153,12 @@ public class ThingProviderImpl implements ThingProvider, EventHandler {
 	}
 
 	/**
-	 * Deletes all driver KURA configurations ! For the next start every driver have
-	 * to reinitialize its configuration with the help of the {@link ThingProvider}.
+	 * Keeps all driver KURA configurations ! The assets survive a restart, the
+	 * warm-start and the drivers only apply the differences. A driver deletes its
+	 * assets when its own configuration is deleted.
 	 */
 	private void doDeactivate() {
 		LOGGER.info("doDeactivate...");
-
-		try {
-			/* Gets all KURA driver configuration */
-			List<ComponentConfiguration> componentConfigurations = configurationService.getComponentConfigurations();
-			/* Iterates over all KURA driver configurations */
-			for (ComponentConfiguration componentConfiguration : componentConfigurations) {
-				/* Gets the KURA driver configuration */
-				Map<String, Object> map = componentConfiguration.getConfigurationProperties();
-				if(map == null) {
-					break;
-				}
-				Iterator<Entry<String, Object>> it = map.entrySet().iterator();
-				/*
-				 * Iterates over the KURA driver configurations parameters and looking for the
-				 * corresponding driver.pid
-				 */
-				while (it.hasNext()) {
-					Entry<String, Object> entry = it.next();
-					switch (entry.getKey()) {
-					case "driver.pid":
-						LOGGER.info("Deletes the driver configuration with Pid: " + componentConfiguration.getPid());
-						/* Deletes the driver (asset) configuration */
-						configurationService.deleteFactoryConfiguration(componentConfiguration.getPid(), true);
-					default:
-						break;
-					}
-				}
-			}
-		} catch (Exception e) {
-			e.printStackTrace();
-			LOGGER.error("" + e);
-		}
 	}
 
 	/**
@@ -170,7 +167,49 @@ public class ThingProviderImpl implements ThingProvider, EventHandler {
 	 * @param properties configuration parameters
 	 */
 	private void doUpdate(Map<String, Object> properties) {
-		// here we do nothing
+		/* Fills the driver index with the existing assets */
+		restoreAssets();
+
+		Object directory = properties == null ? null : properties.get(CACHE_DIRECTORY);
+		if (directory == null || directory.toString().trim().isEmpty()) {
+			cache = null;
+			return;
+		}
+
+		/*
+		 * Warm-start - provisions the cached things of the last run in the background,
+		 * the drivers rediscover their devices and only the differences are applied
+		 */
+		cache = new ThingCache(gson, directory.toString().trim());
+		int count = 0;
+		for (Entry<String, List<Thing>> driver : cache.load().entrySet()) {
+			for (Thing thing : driver.getValue())
+				provisioningQueue.warmStart(driver.getKey(), thing);
+			count += driver.getValue().size();
+		}
+		LOGGER.info("Warm-start with {} cached things from {}", count, directory);
+	}
+
+	/**
+	 * Adds the existing assets of the last run (restored from the KURA snapshot)
+	 * to the driver index of the registry - the only scan of the component
+	 * configurations, the deletion of the assets of a driver uses the index.
+	 */
+	private void restoreAssets() {
+		try {
+			/* The driver PIDs, the key is the asset name */
+			Map<String, String> drivers = new HashMap<>();
+			for (ComponentConfiguration componentConfiguration : configurationService.getComponentConfigurations()) {
+				Map<String, Object> map = componentConfiguration.getConfigurationProperties();
+				Object driverPID = map == null ? null : map.get("driver.pid");
+				if (driverPID != null)
+					drivers.put(componentConfiguration.getPid(), driverPID.toString());
+			}
+			registry.restore(drivers);
+			LOGGER.info("Found {} existing assets", drivers.size());
+		} catch (Exception e) {
+			LOGGER.error("The existing assets could not be found", e);
+		}
 	}
 
 	/*
@@ -200,85 +239,203 @@ public class ThingProviderImpl implements ThingProvider, EventHandler {
 
 	@Override
 	public void createAssetsWithChannels(ThingContainer thingContainer) throws Exception {
+		/* Creates all assets with one configuration snapshot */
+		ProvisioningReport report = createAssetsWithChannels(thingContainer,
+				(done, total, assetName, error) -> LOGGER.debug("Provisioned {}/{} asset {}", done, total, assetName));
+
+		/* Reports the first failed asset to the caller, the other assets are provisioned */
+		Optional<Entry<String, Throwable>> failure = report.getFailures().entrySet().stream().findFirst();
+		if (failure.isPresent())
+			throw new Exception("The asset " + failure.get().getKey() + " could not be provisioned",
+					failure.get().getValue());
+	}
+
+	@Override
+	public ProvisioningReport createAssetsWithChannels(ThingContainer thingContainer, ProvisioningProgress progress)
+			throws Exception {
+		long start = System.nanoTime();
+		List<Thing> things = thingContainer.getThings();
+		int created = 0;
+		int updated = 0;
+		int unchanged = 0;
+		Map<String, Throwable> failures = new LinkedHashMap<>();
+
+		/* The provisioned things, the key is the asset name */
+		Map<String, Thing> provisioned = new LinkedHashMap<>();
+
+		/* The existing components, fetched once for all things */
+		Set<String> pids = new HashSet<>(configurationService.getConfigurableComponentPids());
+
 		/*
 		 * Iterates over the thing list. A thing is equal to an asset, properties and
 		 * actions are equal to channels.
 		 */
-		for (Thing thing : thingContainer.getThings()) {
-			/*
-			 * First, trims the thing id using as asset name (the modified assetName from
-			 * the thing id without base url)
-			 */
-			String assetName = extractAssetName(thing);
+		int done = 0;
+		for (Thing thing : things) {
+			String assetName = null;
+			Throwable error = null;
+			try {
+				/* Trims the thing id using as asset name (the thing id without base url) */
+				assetName = extractAssetName(thing);
+
+				/* Creates or updates the asset without a configuration snapshot */
+				switch (createAssetWithChannels(thingContainer.getDriverPID(), thing, assetName,
+						pids.contains(assetName))) {
+				case CREATED:
+					created++;
+					pids.add(assetName);
+					break;
+				case UPDATED:
+					updated++;
+					break;
+				default:
+					unchanged++;
+					break;
+				}
 
-			/* Creates helpful containers */
-			createMapsFromThingDescription(thing, assetName);
+				/* Registers the thing only if its asset was provisioned */
+				provisioned.put(assetName, thing);
+			} catch (Throwable t) {
+				error = t;
+				failures.put(assetName == null ? String.valueOf(thing.getId()) : assetName, t);
+				LOGGER.error("The asset {} could not be provisioned", assetName, t);
+			}
 
-			/* Creates a new AssetChannelCreator */
-			AssetChannelCreatorImpl assetChannelCreator = new AssetChannelCreatorImpl();
+			/* Reports the progress */
+			done++;
+			if (progress != null) {
+				try {
+					progress.onProgress(done, things.size(), assetName, error);
+				} catch (Throwable t) {
+					LOGGER.error("", t);
+				}
+			}
+		}
 
-			/* Creates a map for one asset configurations */
-			Map<String, Object> asset = new HashMap<>();
+		/*
+		 * Registers the provisioned things with one copy of the registry - the
+		 * configuration admin binds the channels of the assets asynchronously, the
+		 * drivers look up the affordances in the registry then
+		 */
+		registry.register(thingContainer.getDriverPID(), provisioned);
+
+		/* Takes one snapshot of all created and updated assets */
+		long snapshotId = created + updated > 0 ? configurationService.snapshot() : -1;
+
+		ProvisioningReport report = new ProvisioningReport(things.size(), created, updated, unchanged, failures,
+				snapshotId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		LOGGER.info(
+				"Provisioned {} things of driver {} in {} ms: {} created, {} updated, {} unchanged, {} failed, snapshot {}",
+				report.getTotal(), thingContainer.getDriverPID(), report.getDuration(), created, updated, unchanged,
+				report.getFailed(), snapshotId);
+		return report;
+	}
 
-			LOGGER.info("Create a new asset with driverPID {} and asset name {}", thingContainer.getDriverPID(),
-					assetName);
+	/**
+	 * Creates or updates the asset of one thing without a configuration snapshot.
+	 * An existing asset is compared channel by channel with the thing
+	 * description. An unchanged asset is not touched, so its channel listeners,
+	 * subscriptions and observations are kept. A changed asset is updated in place
+	 * with the existing configuration, in which only the added, removed and
+	 * changed channels are replaced - the unchanged channels and the tuned channel
+	 * options are kept. An asset without a readable configuration or bound to
+	 * another driver is recreated.
+	 * 
+	 * @param driverPID the id of the driver
+	 * @param thing     the thing description
+	 * @param assetName the modified assetName (from the thing id without base url)
+	 * @param exists    true if the asset already exists
+	 * @return the {@link Provisioning} of the asset
+	 * @throws Exception if the configuration service fails
+	 */
+	private Provisioning createAssetWithChannels(String driverPID, Thing thing, String assetName, boolean exists)
+			throws Exception {
+		/* Creates a new AssetChannelCreator */
+		AssetChannelCreatorImpl assetChannelCreator = new AssetChannelCreatorImpl();
 
-			/* Creates the asset with the driver name and asset name */
-			asset.putAll(assetChannelCreator.createAsset(thingContainer.getDriverPID(), assetName));
+		/* Creates a map for one asset configurations */
+		Map<String, Object> asset = new HashMap<>();
 
-			LOGGER.info("Content of the actual asset: {}", asset);
+		LOGGER.info("Create a new asset with driverPID {} and asset name {}", driverPID, assetName);
 
-			// Create separate list of actions, properties and action/properties
-			Map<String, Set<String>> interactions = getSensorActuators(thing.getActions(), thing.getProperties());
+		/* Creates the asset with the driver name and asset name */
+		asset.putAll(assetChannelCreator.createAsset(driverPID, assetName));
 
-			LOGGER.debug("Interactions: " + interactions);
+		LOGGER.debug("Content of the actual asset: {}", asset);
 
-			// Create channels from properties (Sensor)
-			if (!interactions.get("properties").isEmpty()) {
-				LOGGER.debug("add properties for: " + assetName);
-				asset.putAll(createChannelsFromProperties(interactions.get("properties"), thing, assetChannelCreator));
-			}
+		// Create separate list of actions, properties and action/properties
+		Map<String, Set<String>> interactions = getSensorActuators(thing.getActions(), thing.getProperties());
 
-			// Create channels from actions (Actuator)
-			if (!interactions.get("actions").isEmpty()) {
-				LOGGER.debug("add actions for: " + assetName);
-				asset.putAll(createChannelsFromActions(interactions.get("actions"), thing, assetChannelCreator));
-			}
+		LOGGER.debug("Interactions: " + interactions);
 
-			// Create channels from properties and actions (Sensor/Actuator)
-			if (!interactions.get("actionProperties").isEmpty()) {
-				LOGGER.debug("add action properties for: " + assetName);
-				asset.putAll(createChannelsFromPropertiesActions(interactions.get("actionProperties"), thing,
-						assetChannelCreator));
-			}
+		// Create channels from properties (Sensor)
+		if (!interactions.get("properties").isEmpty()) {
+			LOGGER.debug("add properties for: " + assetName);
+			asset.putAll(createChannelsFromProperties(interactions.get("properties"), thing, assetChannelCreator));
+		}
+
+		// Create channels from actions (Actuator)
+		if (!interactions.get("actions").isEmpty()) {
+			LOGGER.debug("add actions for: " + assetName);
+			asset.putAll(createChannelsFromActions(interactions.get("actions"), thing, assetChannelCreator));
+		}
+
+		// Create channels from properties and actions (Sensor/Actuator)
+		if (!interactions.get("actionProperties").isEmpty()) {
+			LOGGER.debug("add action properties for: " + assetName);
+			asset.putAll(createChannelsFromPropertiesActions(interactions.get("actionProperties"), thing,
+					assetChannelCreator));
+		}
+
+		LOGGER.debug("The new created asset: {}", asset);
+
+		/*
+		 * Adds the asset to the configuration service. If the asset do not exists, we
+		 * create a new configuration. If the asset exist, we compare the existing
+		 * configuration with the new one and update only the changed channels. The
+		 * snapshot is taken by the caller.
+		 */
+		if (!exists) {
+			configurationService.createFactoryConfiguration(FACTORY_PID, assetName, asset, false);
+			LOGGER.debug("Asset created with assetName {} / {}", assetName, asset);
+			return Provisioning.CREATED;
+		}
 
-			LOGGER.debug("The new created asset: {}", asset);
+		ComponentConfiguration componentConfiguration = configurationService.getComponentConfiguration(assetName);
+		Map<String, Object> existing = componentConfiguration == null ? null
+				: componentConfiguration.getConfigurationProperties();
+		AssetConfigurationDiff diff = AssetConfigurationDiff.of(existing, asset);
+		if (existing != null && diff.isEmpty()) {
+			LOGGER.debug("Asset unchanged with assetName {}", assetName);
+			return Provisioning.UNCHANGED;
+		}
 
+		if (existing == null || diff.isDriverChanged()) {
 			/*
-			 * Adds the asset to the configuration service. If the asset do not exists, we
-			 * create a new configuration. If the asset exist, we delete this asset and
-			 * update the configuration - if we do not delete the configuration, the update
-			 * method has no effect.
+			 * Deletes the asset with the given asset name from the component configuration
+			 * - otherwise the update method has no effect.
 			 */
-			if (!configurationService.getConfigurableComponentPids().contains(assetName)) {
-				configurationService.createFactoryConfiguration(FACTORY_PID, assetName, asset, true);
-				LOGGER.debug("Asset created with assetName {} / {}", assetName, asset);
-			} else {
-				/*
-				 * Deletes the asset with the given asset name from the component configuration
-				 * - otherwise the update method has no effect.
-				 */
-				configurationService.deleteFactoryConfiguration(assetName, false);
-				/* Updates the asset configuration with the given asset name */
-				configurationService.updateConfiguration(assetName, asset, false);
-				LOGGER.debug("Asset updated with assetName {} / {}", assetName, asset);
-			}
+			configurationService.deleteFactoryConfiguration(assetName, false);
+			/* Updates the asset configuration with the given asset name */
+			configurationService.updateConfiguration(assetName, asset, false);
+			LOGGER.info("Asset recreated with assetName {}: {}", assetName, diff);
+		} else {
+			/*
+			 * Updates the asset in place - the configuration service replaces the asset
+			 * properties with the merged configuration, which differs from the existing
+			 * one only in the added, removed and changed channels
+			 */
+			configurationService.updateConfiguration(assetName, diff.merge(), false);
+			LOGGER.info("Asset updated with assetName {}: {}", assetName, diff);
+		}
+		if (LOGGER.isDebugEnabled()) {
 			try {
-				LOGGER.debug(configurationService.getComponentConfiguration(assetName).toString());
+				LOGGER.debug("{}", configurationService.getComponentConfiguration(assetName));
 			} catch (Throwable t) {
-				t.printStackTrace();
+				LOGGER.error("", t);
 			}
 		}
+		return Provisioning.UPDATED;
 	}
 
 	private Map<? extends String, ? extends Object> createChannelsFromPropertiesActions(Set<String> set, Thing thing,
@@ -362,8 +519,15 @@ public class ThingProviderImpl implements ThingProvider, EventHandler {
 		Map<String, Object> channel = new HashMap<>();
 
 		for (String key : set) {
+			/*
+			 * Derives the data type of the channel from the property data schema - read
+			 * only channels get a native KURA type (DOUBLE, INTEGER, LONG, BOOLEAN)
+			 */
+			DataType dataType = ThingDataTypes
+					.getDataType(gson.toJsonTree(thing.getProperties().get(key)).getAsJsonObject(), key);
+
 			LOGGER.info("Create a new channel with channel name {}, ChannelType.READ and data type {}", key,
-					DataType.STRING.name());
+					dataType.name());
 
 			Form form = thing.getProperties().get(key).getForms().get(0);
 			/* Creates a temporary href variable */
@@ -387,7 +551,7 @@ public class ThingProviderImpl implements ThingProvider, EventHandler {
 			/* Creates standard and advanced channel types */
 
 			channel.putAll(
-					assetChannelCreator.createChannel(key, channelType, DataType.STRING.name(), advancedConfiguration));
+					assetChannelCreator.createChannel(key, channelType, dataType.name(), advancedConfiguration));
 			/* Logs the advancedConfiguration */
 			advancedConfiguration.forEach((k, value) -> LOGGER.debug("advancedConfiguration: " + k + "|" + value));
 		}
@@ -457,111 +621,163 @@ public class ThingProviderImpl implements ThingProvider, EventHandler {
 
 	@Override
 	public void deleteAssetsWithChannels(String driverPID) throws Exception {
-		/* Deletes all assets from the component configuration */
-		/* Gets the component configurations from the configuration service */
-		List<ComponentConfiguration> componentConfigurations = configurationService.getComponentConfigurations();
-
-		LOGGER.debug("componentConfigurations: {}", componentConfigurations);
 		/*
-		 * Iterates over all component configurations and looking for the configuration
-		 * property with the given driverPID.
+		 * Deletes all assets of the driver from the component configuration. The
+		 * queued things of the driver are removed from the provisioning queue first -
+		 * a running batch is finished before, so it can not recreate a deleted asset.
 		 */
-		for (ComponentConfiguration componentConfiguration : componentConfigurations) {
-			/* Gets a map with configuration properties */
-			Map<String, Object> configurationProperties = componentConfiguration.getConfigurationProperties();
-
-			LOGGER.info("configurationProperties: {}", configurationProperties);
-			/*
-			 * Iterates over all properties and looking for the key driver.pid and the value
-			 * equals the given driverPID
-			 */
-			for (Entry<String, Object> entry : configurationProperties.entrySet()) {
-				if (entry.getKey().equals("driver.pid") && entry.getValue().equals(driverPID)) {
-					/* Deletes the assets from the component configuration */
-					configurationService.deleteFactoryConfiguration(componentConfiguration.getPid(), false);
-				}
-			}
+		provisioningQueue.forget(driverPID);
+		try {
+			deleteAssets(registry.snapshot().getAssetNames(driverPID), false);
+		} finally {
+			/* The deleted things must not come back with the next warm-start */
+			ThingCache thingCache = cache;
+			if (thingCache != null)
+				thingCache.remove(driverPID);
 		}
 	}
 
+	@Override
+	public int deleteAssets(Collection<String> assetNames) throws Exception {
+		return deleteAssets(assetNames, true);
+	}
+
 	/**
-	 * Parses the thing description and creates different helpful maps from the
-	 * properties, action and events, if these exist.
+	 * Deletes the assets with the given asset names in bulk.
 	 * 
-	 * @param thing     the thing description
-	 * @param assetName the modified assetName (from the thing id without base url)
+	 * @param assetNames the asset names (the modified thing ids)
+	 * @param evict      true if the things are removed from the warm-start cache,
+	 *                   false on a shutdown - the cached things are provisioned
+	 *                   again by the next warm-start
+	 * @return the number of deleted assets
+	 * @throws Exception of the first asset which could not be deleted
 	 */
-	private void createMapsFromThingDescription(Thing thing, String assetName) {
-
-		/* Parses all properties, if these exist */
-		if (thing.getProperties() != null) {
-			for (Map.Entry<String, PropertyAffordance> entry : thing.getProperties().entrySet()) {
-				String hrefProperty = null;
-				for (Form form : entry.getValue().getForms()) {
-					hrefProperty = form.getHref().toString();
+	private int deleteAssets(Collection<String> assetNames, boolean evict) throws Exception {
+		long start = System.nanoTime();
+		List<String> names = new ArrayList<>(assetNames);
+
+		/*
+		 * The next event of a thing has to provision it again - the things are
+		 * forgotten before the assets are deleted, so a running batch can not recreate
+		 * them
+		 */
+		ThingRegistry.Snapshot snapshot = registry.snapshot();
+		for (String assetName : names)
+			provisioningQueue.forget(snapshot.getDriverPID(assetName), snapshot.getThingId(assetName));
+
+		/* The existing components, fetched once for all assets */
+		Set<String> pids = new HashSet<>(configurationService.getConfigurableComponentPids());
+
+		int deleted = 0;
+		Exception failure = null;
+		for (String assetName : names) {
+			try {
+				/* Deletes the asset without a configuration snapshot */
+				if (pids.contains(assetName)) {
+					configurationService.deleteFactoryConfiguration(assetName, false);
+					deleted++;
 				}
-				ids.put(hrefProperty, assetName);
-				semanticTypes.put(hrefProperty, entry.getValue().getAtType());
-				properties.put(hrefProperty, entry);
+			} catch (Exception e) {
+				if (failure == null)
+					failure = e;
+				LOGGER.error("The asset {} could not be deleted", assetName, e);
 			}
 		}
 
-		/* Parses all actions, if these exist */
-		if (thing.getActions() != null) {
-			for (Map.Entry<String, ActionAffordance> entry : thing.getActions().entrySet()) {
-				String hrefAction = null;
-				for (Form form : entry.getValue().getForms()) {
-					hrefAction = form.getHref().toString();
-				}
-				ids.put(hrefAction, assetName);
-				semanticTypes.put(hrefAction, entry.getValue().getAtType());
-				actions.put(hrefAction, entry);
-			}
+		/* Removes the things from the registry and the warm-start cache */
+		registry.unregister(names);
+		ThingCache thingCache = cache;
+		if (evict && thingCache != null) {
+			for (String assetName : names)
+				thingCache.remove(snapshot.getDriverPID(assetName), snapshot.getThingId(assetName));
 		}
 
-		// Parses all events, if these exist
+		/* Takes one snapshot of all deleted assets */
+		long snapshotId = deleted > 0 ? configurationService.snapshot() : -1;
+		LOGGER.info("Deleted {} of {} assets in {} ms, snapshot {}", deleted, names.size(),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), snapshotId);
+
+		/* Reports the first failed asset to the caller, the other assets are deleted */
+		if (failure != null)
+			throw failure;
+		return deleted;
 	}
 
 	@Override
 	public Map<String, List<URI>> getSemanticTypes() {
-		return semanticTypes;
+		return registry.snapshot().getSemanticTypes();
+	}
+
+	@Override
+	public Set<String> getHrefsBySemanticType(URI semanticType) {
+		return registry.snapshot().getHrefs(semanticType);
+	}
+
+	@Override
+	public Map<URI, Set<String>> getSemanticTypeIndex() {
+		return registry.snapshot().getSemanticIndex();
 	}
 
 	@Override
 	public Map<String, String> getIds() {
-		return ids;
+		return registry.snapshot().getIds();
 	}
 
 	@Override
 	public Map<String, Entry<String, PropertyAffordance>> getProperties() {
-		return properties;
+		return registry.snapshot().getProperties();
 	}
 
 	@Override
 	public Map<String, Entry<String, ActionAffordance>> getActions() {
-		return actions;
+		return registry.snapshot().getActions();
 	}
 
 	@Override
 	public PropertyAffordance getPropertyAffordance(String key) {
-		return properties.get(key).getValue();
+		return registry.snapshot().getProperties().get(key).getValue();
 	}
 
 	@Override
 	public ActionAffordance getActionAffordance(String key) {
-		return actions.get(key).getValue();
+		return registry.snapshot().getActions().get(key).getValue();
+	}
+
+	@Override
+	public Set<String> getHrefs(String assetName) {
+		return registry.snapshot().getHrefs(assetName);
+	}
+
+	@Override
+	public String getAssetName(String thingId) {
+		return registry.snapshot().getAssetName(thingId);
+	}
+
+	@Override
+	public Set<String> getAssetNames(String driverPID) {
+		return registry.snapshot().getAssetNames(driverPID);
 	}
 
 	@Override
 	public void handleEvent(Event event) {
 		LOGGER.info("Receiving the event: {}", event.getTopic());
 
+		/*
+		 * Queues the things, they are provisioned in batches by the background thread
+		 * - the sender of the event does not wait for the configuration service
+		 */
 		try {
-			Thing thing = (Thing) event.getProperty("thing");
 			String driverPid = (String) event.getProperty("driverPid");
-			createAssetsWithChannels(driverPid, thing);
+			/* A bulk event contains a list of things */
+			Object things = event.getProperty("things");
+			if (things instanceof List) {
+				for (Object thing : (List<?>) things)
+					provisioningQueue.submit(driverPid, (Thing) thing);
+			} else {
+				provisioningQueue.submit(driverPid, (Thing) event.getProperty("thing"));
+			}
 		} catch (Throwable t) {
-			LOGGER.error("Error: ", t);
+			LOGGER.error("The event {} could not be queued", event.getTopic(), t);
 		}
 	}
 }
@@ -0,0 +1,516 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.core.thing.asset.creator.impl;
+
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import org.ict.kura.core.thing.asset.creator.util.ThingContainerImpl;
+import org.ict.kura.thing.creator.ThingProvider;
+import org.ict.model.wot.core.Thing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+
+/**
+ * The asynchronous provisioning of the things received via the things/*
+ * events. The events are queued and the EventAdmin thread (and the driver
+ * discovery which sends the event) returns at once. A queued thing is replaced
+ * by a newer description of the same thing, the queued things are provisioned
+ * in batches by one background thread - a batch per driver with one
+ * configuration snapshot. A thing description which was already provisioned
+ * unchanged (e.g. a retained MQTT announcement) is skipped.
+ *
+ * The things of the warm-start (loaded from the {@link ThingCache}) are
+ * provisioned the same way, but they are not reported as discovered - only the
+ * things received via events are passed to the discovery consumer.
+ *
+ * A batch is provisioned under the provisioning lock. Forgetting a driver or a
+ * thing takes the same lock and increases its generation, so a queued or
+ * already drained thing of a deleted asset is not provisioned again after the
+ * deletion - the caller forgets the things before it deletes the assets.
+ *
+ * The number of provisioned and failed things and the latency between the
+ * event and the provisioning are counted and logged after each batch.
+ */
+final class ThingProvisioningQueue implements Closeable {
+	/* The logger instance */
+	private static final Logger LOGGER = LoggerFactory.getLogger(ThingProvisioningQueue.class);
+
+	/* The delay in milliseconds to collect the events of a burst in one batch */
+	static final long BATCH_DELAY = 200;
+
+	/* The maximum number of things per batch */
+	static final int BATCH_SIZE = 500;
+
+	/* The provider which provisions the batches */
+	private final ThingProvider provider;
+
+	/* The gson object to create the fingerprints of the thing descriptions */
+	private final Gson gson;
+
+	/* Receives the discovered things after each batch, the key is the driver PID */
+	private final BiConsumer<String, List<Thing>> discovered;
+
+	/* The background thread */
+	private final ScheduledThreadPoolExecutor executor;
+
+	/* The queued things in order of arrival, the key is the driver and thing id */
+	private final Map<Key, Pending> pending = new LinkedHashMap<>();
+
+	/* The fingerprints of the provisioned thing descriptions */
+	private final Map<Key, String> applied = new ConcurrentHashMap<>();
+
+	/* True if a batch is scheduled, guarded by this */
+	private boolean scheduled;
+
+	/*
+	 * The generations of the forgotten drivers (thing id null) and things,
+	 * increased by each forget, guarded by this
+	 */
+	private final Map<Key, Long> generations = new HashMap<>();
+
+	/* The lock held while a batch is provisioned and while things are forgotten */
+	private final Object provisioning = new Object();
+
+	/* Number of queued things */
+	private final LongAdder submitted = new LongAdder();
+
+	/* Number of queued things replaced by a newer description */
+	private final LongAdder coalesced = new LongAdder();
+
+	/* Number of things skipped because they were already provisioned unchanged */
+	private final LongAdder skipped = new LongAdder();
+
+	/* Number of provisioned things */
+	private final LongAdder succeeded = new LongAdder();
+
+	/* Number of things which could not be provisioned */
+	private final LongAdder failed = new LongAdder();
+
+	/* Number of batches */
+	private final LongAdder batches = new LongAdder();
+
+	/* Sum of the latencies in milliseconds, from the event to the provisioning */
+	private final LongAdder latency = new LongAdder();
+
+	/* The maximum latency in milliseconds */
+	private final LongAccumulator maxLatency = new LongAccumulator(Long::max, 0);
+
+	/**
+	 * Constructor.
+	 *
+	 * @param provider   the provider which provisions the batches
+	 * @param gson       the gson object to serialize the thing descriptions
+	 * @param discovered receives the provisioned and skipped things of the events
+	 *                   after each batch
+	 */
+	ThingProvisioningQueue(ThingProvider provider, Gson gson, BiConsumer<String, List<Thing>> discovered) {
+		this.provider = provider;
+		this.gson = gson;
+		this.discovered = discovered;
+		this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "ThingProvisioningQueue");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Queues a thing. A queued (not yet provisioned) description of the same
+	 * thing is replaced.
+	 *
+	 * @param driverPID the id of the driver
+	 * @param thing     the thing description
+	 */
+	void submit(String driverPID, Thing thing) {
+		submit(driverPID, thing, false);
+	}
+
+	/**
+	 * Queues a cached thing of the warm-start. A thing received via an event
+	 * replaces the cached thing.
+	 *
+	 * @param driverPID the id of the driver
+	 * @param thing     the cached thing description
+	 */
+	void warmStart(String driverPID, Thing thing) {
+		submit(driverPID, thing, true);
+	}
+
+	/* Queues a thing, replaces a queued description of the same thing */
+	private void submit(String driverPID, Thing thing, boolean warm) {
+		Key key = new Key(driverPID, thing.getId() == null ? thing.getTitle() : thing.getId().toString());
+		submitted.increment();
+		synchronized (this) {
+			if (executor.isShutdown())
+				return;
+			Pending previous = pending.get(key);
+			if (previous != null) {
+				/* Keeps the position and the time of the first event */
+				pending.put(key, new Pending(key, thing, previous.time, warm));
+				coalesced.increment();
+			} else {
+				pending.put(key, new Pending(key, thing, System.nanoTime(), warm));
+			}
+			if (!scheduled) {
+				scheduled = true;
+				executor.schedule(this::drain, BATCH_DELAY, TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	/**
+	 * Drops the queued things and the fingerprints of a driver, before the assets
+	 * of the driver are deleted - the things are provisioned again by the next
+	 * event. Waits for a running batch, the already drained things of the driver
+	 * are not provisioned anymore.
+	 *
+	 * @param driverPID the id of the driver
+	 */
+	void forget(String driverPID) {
+		synchronized (provisioning) {
+			synchronized (this) {
+				pending.keySet().removeIf(key -> Objects.equals(key.driverPID, driverPID));
+				generations.merge(new Key(driverPID, null), 1L, Long::sum);
+			}
+			applied.keySet().removeIf(key -> Objects.equals(key.driverPID, driverPID));
+		}
+	}
+
+	/**
+	 * Drops the queued thing and the fingerprint of one thing, before its asset
+	 * is deleted. Waits for a running batch, an already drained description of
+	 * the thing is not provisioned anymore.
+	 *
+	 * @param driverPID the id of the driver
+	 * @param thingId   the id of the thing, nothing is dropped if null
+	 */
+	void forget(String driverPID, String thingId) {
+		if (thingId == null)
+			return;
+		Key key = new Key(driverPID, thingId);
+		synchronized (provisioning) {
+			synchronized (this) {
+				pending.remove(key);
+				generations.merge(key, 1L, Long::sum);
+			}
+			applied.remove(key);
+		}
+	}
+
+	/* Provisions the next batch of queued things */
+	private void drain() {
+		List<Pending> batch = new ArrayList<>();
+		synchronized (this) {
+			Iterator<Pending> iterator = pending.values().iterator();
+			while (iterator.hasNext() && batch.size() < BATCH_SIZE) {
+				Pending entry = iterator.next();
+				entry.generation = generation(entry.key);
+				batch.add(entry);
+				iterator.remove();
+			}
+			/* Schedules the next batch at once, if the queue is still not empty */
+			scheduled = !pending.isEmpty();
+			if (scheduled)
+				executor.execute(this::drain);
+		}
+
+		if (batch.isEmpty())
+			return;
+		synchronized (provisioning) {
+			/* Drops the things which were forgotten since they were drained */
+			synchronized (this) {
+				batch.removeIf(entry -> entry.generation != generation(entry.key));
+			}
+			if (batch.isEmpty())
+				return;
+			try {
+				provision(batch);
+			} catch (Throwable t) {
+				LOGGER.error("", t);
+			}
+		}
+	}
+
+	/* Returns the generation of the driver and the thing, guarded by this */
+	private long generation(Key key) {
+		return generations.getOrDefault(new Key(key.driverPID, null), 0L) + generations.getOrDefault(key, 0L);
+	}
+
+	/* Provisions a batch, one bulk provisioning per driver */
+	private void provision(List<Pending> batch) {
+		long batchSucceeded = 0;
+		long batchFailed = 0;
+		long batchSkipped = 0;
+		long batchMaxLatency = 0;
+
+		/* Groups the changed things by driver */
+		Map<String, List<Pending>> drivers = new LinkedHashMap<>();
+		Map<String, List<Thing>> discoveredThings = new LinkedHashMap<>();
+		for (Pending entry : batch) {
+			entry.fingerprint = fingerprint(entry.thing);
+			if (entry.fingerprint != null && entry.fingerprint.equals(applied.get(entry.key))) {
+				batchSkipped++;
+				if (!entry.warm)
+					discoveredThings.computeIfAbsent(entry.key.driverPID, k -> new ArrayList<>()).add(entry.thing);
+				continue;
+			}
+			drivers.computeIfAbsent(entry.key.driverPID, k -> new ArrayList<>()).add(entry);
+		}
+
+		for (Entry<String, List<Pending>> driver : drivers.entrySet()) {
+			List<Pending> entries = driver.getValue();
+			List<Thing> things = new ArrayList<>(entries.size());
+			entries.forEach(entry -> things.add(entry.thing));
+
+			/* The indexes of the things which could not be provisioned */
+			Set<Integer> errors = new HashSet<>();
+			try {
+				provider.createAssetsWithChannels(new ThingContainerImpl(driver.getKey(), things),
+						(done, total, assetName, error) -> {
+							if (error != null)
+								errors.add(done - 1);
+						});
+			} catch (Throwable t) {
+				LOGGER.error("The things of driver {} could not be provisioned", driver.getKey(), t);
+				for (int i = 0; i < entries.size(); i++)
+					errors.add(i);
+			}
+
+			long now = System.nanoTime();
+			for (int i = 0; i < entries.size(); i++) {
+				Pending entry = entries.get(i);
+				long millis = TimeUnit.NANOSECONDS.toMillis(now - entry.time);
+				latency.add(millis);
+				batchMaxLatency = Math.max(batchMaxLatency, millis);
+				if (errors.contains(i)) {
+					applied.remove(entry.key);
+					batchFailed++;
+				} else {
+					if (entry.fingerprint != null)
+						applied.put(entry.key, entry.fingerprint);
+					if (!entry.warm)
+						discoveredThings.computeIfAbsent(entry.key.driverPID, k -> new ArrayList<>())
+								.add(entry.thing);
+					batchSucceeded++;
+				}
+			}
+		}
+
+		/* Reports the discovered things, e.g. to the warm-start cache */
+		for (Entry<String, List<Thing>> driver : discoveredThings.entrySet()) {
+			try {
+				discovered.accept(driver.getKey(), driver.getValue());
+			} catch (Throwable t) {
+				LOGGER.error("", t);
+			}
+		}
+
+		batches.increment();
+		succeeded.add(batchSucceeded);
+		failed.add(batchFailed);
+		skipped.add(batchSkipped);
+		maxLatency.accumulate(batchMaxLatency);
+		LOGGER.info("Provisioned a batch of {} things: {} succeeded, {} failed, {} unchanged skipped, max latency {} ms",
+				batch.size(), batchSucceeded, batchFailed, batchSkipped, batchMaxLatency);
+	}
+
+	/* Returns a digest of the thing description, null if it can not be created */
+	private String fingerprint(Thing thing) {
+		try {
+			byte[] json = gson.toJson(thing).getBytes(StandardCharsets.UTF_8);
+			return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(json));
+		} catch (Throwable t) {
+			LOGGER.error("", t);
+			return null;
+		}
+	}
+
+	/**
+	 * Stops the background thread, the queued things are dropped.
+	 */
+	@Override
+	public void close() {
+		int dropped;
+		synchronized (this) {
+			dropped = pending.size();
+			pending.clear();
+			executor.shutdownNow();
+		}
+		if (dropped > 0)
+			LOGGER.warn("{} queued things were not provisioned", dropped);
+	}
+
+	/**
+	 * Returns the number of queued things.
+	 *
+	 * @return the number of queued things
+	 */
+	synchronized int getQueued() {
+		return pending.size();
+	}
+
+	/**
+	 * Returns the number of queued things, including the coalesced ones.
+	 *
+	 * @return the number of submitted things
+	 */
+	long getSubmitted() {
+		return submitted.sum();
+	}
+
+	/**
+	 * Returns the number of queued things replaced by a newer description.
+	 *
+	 * @return the number of coalesced things
+	 */
+	long getCoalesced() {
+		return coalesced.sum();
+	}
+
+	/**
+	 * Returns the number of things skipped because they were provisioned
+	 * unchanged before.
+	 *
+	 * @return the number of skipped things
+	 */
+	long getSkipped() {
+		return skipped.sum();
+	}
+
+	/**
+	 * Returns the number of provisioned things.
+	 *
+	 * @return the number of succeeded things
+	 */
+	long getSucceeded() {
+		return succeeded.sum();
+	}
+
+	/**
+	 * Returns the number of things which could not be provisioned.
+	 *
+	 * @return the number of failed things
+	 */
+	long getFailed() {
+		return failed.sum();
+	}
+
+	/**
+	 * Returns the number of provisioned batches.
+	 *
+	 * @return the number of batches
+	 */
+	long getBatches() {
+		return batches.sum();
+	}
+
+	/**
+	 * Returns the average latency from the event to the provisioning.
+	 *
+	 * @return the average latency in milliseconds
+	 */
+	double getAverageLatency() {
+		long count = succeeded.sum() + failed.sum();
+		return count == 0 ? 0 : (double) latency.sum() / count;
+	}
+
+	/**
+	 * Returns the maximum latency from the event to the provisioning.
+	 *
+	 * @return the maximum latency in milliseconds
+	 */
+	long getMaxLatency() {
+		return maxLatency.get();
+	}
+
+	@Override
+	public String toString() {
+		return "ThingProvisioningQueue [queued=" + getQueued() + ", submitted=" + getSubmitted() + ", coalesced="
+				+ getCoalesced() + ", skipped=" + getSkipped() + ", succeeded=" + getSucceeded() + ", failed="
+				+ getFailed() + ", batches=" + getBatches() + ", averageLatency="
+				+ String.format("%.1f", getAverageLatency()) + ", maxLatency=" + getMaxLatency() + "]";
+	}
+
+	/* The driver and thing id of a queued thing */
+	private static final class Key {
+		private final String driverPID;
+		private final String thingId;
+
+		private Key(String driverPID, String thingId) {
+			this.driverPID = driverPID;
+			this.thingId = thingId;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(driverPID, thingId);
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (!(object instanceof Key))
+				return false;
+			Key key = (Key) object;
+			return Objects.equals(driverPID, key.driverPID) && Objects.equals(thingId, key.thingId);
+		}
+	}
+
+	/* A queued thing */
+	private static final class Pending {
+		private final Key key;
+		private final Thing thing;
+
+		/* The time in nanoseconds of the first event */
+		private final long time;
+
+		/* True if the thing was loaded from the warm-start cache */
+		private final boolean warm;
+
+		/* The fingerprint of the description, created by the background thread */
+		private String fingerprint;
+
+		/* The generation of the driver and the thing when the thing was drained */
+		private long generation;
+
+		private Pending(Key key, Thing thing, long time, boolean warm) {
+			this.key = key;
+			this.thing = thing;
+			this.time = time;
+			this.warm = warm;
+		}
+	}
+}
@@ -0,0 +1,409 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.core.thing.asset.creator.impl;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.ict.model.wot.core.ActionAffordance;
+import org.ict.model.wot.core.PropertyAffordance;
+import org.ict.model.wot.core.Thing;
+import org.ict.model.wot.hypermedia.Form;
+
+/**
+ * The registry of the provisioned things with lookups by form href, asset
+ * name, thing id, driver PID and semantic type. The registry is copy-on-write -
+ * the readers (the drivers binding channels and writing actions) read an
+ * immutable {@link Snapshot} without any lock, the writers (the provisioning)
+ * are serialized and publish a new {@link Snapshot} after each change. A bulk
+ * registration copies the registry only once.
+ */
+final class ThingRegistry {
+
+	/* The current snapshot, replaced as a whole by each change */
+	private volatile Snapshot snapshot = new Snapshot();
+
+	/**
+	 * Returns the current snapshot of the registry.
+	 *
+	 * @return the immutable {@link Snapshot}
+	 */
+	Snapshot snapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Registers the things of a driver. The affordances of an already registered
+	 * asset are replaced, so affordances which are not part of the thing
+	 * description anymore are removed.
+	 *
+	 * @param driverPID the id of the driver
+	 * @param things    the things, the key is the asset name
+	 */
+	synchronized void register(String driverPID, Map<String, Thing> things) {
+		if (things.isEmpty())
+			return;
+		Snapshot next = new Snapshot(snapshot);
+		for (Entry<String, Thing> entry : things.entrySet()) {
+			next.remove(entry.getKey());
+			next.add(driverPID, entry.getKey(), entry.getValue());
+		}
+		snapshot = next.freeze();
+	}
+
+	/**
+	 * Adds the existing assets of the last run to the driver index, e.g. restored
+	 * from the KURA snapshot. The things of these assets are unknown until they
+	 * are registered, an already registered asset is not changed.
+	 *
+	 * @param drivers the driver PIDs, the key is the asset name
+	 */
+	synchronized void restore(Map<String, String> drivers) {
+		if (drivers.isEmpty())
+			return;
+		Snapshot next = new Snapshot(snapshot);
+		for (Entry<String, String> entry : drivers.entrySet())
+			if (next.getDriverPID(entry.getKey()) == null)
+				next.addDriver(entry.getValue(), entry.getKey());
+		snapshot = next.freeze();
+	}
+
+	/**
+	 * Removes the assets from the registry.
+	 *
+	 * @param assetNames the names of the assets
+	 */
+	synchronized void unregister(Collection<String> assetNames) {
+		if (assetNames.isEmpty())
+			return;
+		Snapshot next = new Snapshot(snapshot);
+		for (String assetName : assetNames)
+			next.remove(assetName);
+		snapshot = next.freeze();
+	}
+
+	/**
+	 * An immutable state of the {@link ThingRegistry}. The maps are only mutable
+	 * while a change is built, the published snapshot contains unmodifiable maps
+	 * and sets.
+	 */
+	static final class Snapshot {
+		/* The form href linked to the asset name */
+		private Map<String, String> ids;
+
+		/* The form href linked to the semantic types of the affordance */
+		private Map<String, List<URI>> semanticTypes;
+
+		/* The semantic type linked to the form hrefs of the affordances (inverted) */
+		private Map<URI, Set<String>> semanticIndex;
+
+		/* The property form href linked to the property */
+		private Map<String, Entry<String, PropertyAffordance>> properties;
+
+		/* The action form href linked to the action */
+		private Map<String, Entry<String, ActionAffordance>> actions;
+
+		/* The asset name linked to the form hrefs of the thing */
+		private Map<String, Set<String>> hrefs;
+
+		/* The thing id linked to the asset name */
+		private Map<String, String> assetNames;
+
+		/* The asset name linked to the thing id */
+		private Map<String, String> thingIds;
+
+		/* The asset name linked to the driver PID */
+		private Map<String, String> drivers;
+
+		/* The driver PID linked to the asset names of the driver */
+		private Map<String, Set<String>> driverAssets;
+
+		/* Creates an empty snapshot */
+		private Snapshot() {
+			this(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(),
+					Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(),
+					Collections.emptyMap(), Collections.emptyMap());
+		}
+
+		/* Creates a mutable copy of the snapshot, the sets are immutable and shared */
+		private Snapshot(Snapshot snapshot) {
+			this(new HashMap<>(snapshot.ids), new HashMap<>(snapshot.semanticTypes),
+					new HashMap<>(snapshot.semanticIndex), new HashMap<>(snapshot.properties),
+					new HashMap<>(snapshot.actions), new HashMap<>(snapshot.hrefs), new HashMap<>(snapshot.assetNames),
+					new HashMap<>(snapshot.thingIds), new HashMap<>(snapshot.drivers),
+					new HashMap<>(snapshot.driverAssets));
+		}
+
+		private Snapshot(Map<String, String> ids, Map<String, List<URI>> semanticTypes,
+				Map<URI, Set<String>> semanticIndex, Map<String, Entry<String, PropertyAffordance>> properties,
+				Map<String, Entry<String, ActionAffordance>> actions, Map<String, Set<String>> hrefs,
+				Map<String, String> assetNames, Map<String, String> thingIds, Map<String, String> drivers,
+				Map<String, Set<String>> driverAssets) {
+			this.ids = ids;
+			this.semanticTypes = semanticTypes;
+			this.semanticIndex = semanticIndex;
+			this.properties = properties;
+			this.actions = actions;
+			this.hrefs = hrefs;
+			this.assetNames = assetNames;
+			this.thingIds = thingIds;
+			this.drivers = drivers;
+			this.driverAssets = driverAssets;
+		}
+
+		/* Makes the maps unmodifiable before the snapshot is published */
+		private Snapshot freeze() {
+			ids = Collections.unmodifiableMap(ids);
+			semanticTypes = Collections.unmodifiableMap(semanticTypes);
+			semanticIndex = Collections.unmodifiableMap(semanticIndex);
+			properties = Collections.unmodifiableMap(properties);
+			actions = Collections.unmodifiableMap(actions);
+			hrefs = Collections.unmodifiableMap(hrefs);
+			assetNames = Collections.unmodifiableMap(assetNames);
+			thingIds = Collections.unmodifiableMap(thingIds);
+			drivers = Collections.unmodifiableMap(drivers);
+			driverAssets = Collections.unmodifiableMap(driverAssets);
+			return this;
+		}
+
+		/* Adds the affordances of the thing */
+		private void add(String driverPID, String assetName, Thing thing) {
+			Set<String> thingHrefs = new HashSet<>();
+
+			/* Parses all properties, if these exist */
+			if (thing.getProperties() != null) {
+				for (Entry<String, PropertyAffordance> entry : thing.getProperties().entrySet()) {
+					String href = getHref(entry.getValue().getForms());
+					if (href == null)
+						continue;
+					ids.put(href, assetName);
+					addSemanticTypes(href, entry.getValue().getAtType());
+					properties.put(href, entry);
+					thingHrefs.add(href);
+				}
+			}
+
+			/* Parses all actions, if these exist */
+			if (thing.getActions() != null) {
+				for (Entry<String, ActionAffordance> entry : thing.getActions().entrySet()) {
+					String href = getHref(entry.getValue().getForms());
+					if (href == null)
+						continue;
+					ids.put(href, assetName);
+					addSemanticTypes(href, entry.getValue().getAtType());
+					actions.put(href, entry);
+					thingHrefs.add(href);
+				}
+			}
+
+			// Parses all events, if these exist
+
+			hrefs.put(assetName, Collections.unmodifiableSet(thingHrefs));
+			if (thing.getId() != null) {
+				assetNames.put(thing.getId().toString(), assetName);
+				thingIds.put(assetName, thing.getId().toString());
+			}
+			if (driverPID != null)
+				addDriver(driverPID, assetName);
+		}
+
+		/* Adds the asset to the driver index */
+		private void addDriver(String driverPID, String assetName) {
+			drivers.put(assetName, driverPID);
+			Set<String> assets = new HashSet<>(driverAssets.getOrDefault(driverPID, Collections.emptySet()));
+			assets.add(assetName);
+			driverAssets.put(driverPID, Collections.unmodifiableSet(assets));
+		}
+
+		/* Removes the affordances of the asset */
+		private void remove(String assetName) {
+			Set<String> thingHrefs = hrefs.remove(assetName);
+			if (thingHrefs != null) {
+				for (String href : thingHrefs) {
+					/* Another asset may have registered the href in the meantime */
+					if (ids.remove(href, assetName)) {
+						removeSemanticTypes(href);
+						properties.remove(href);
+						actions.remove(href);
+					}
+				}
+			}
+
+			String thingId = thingIds.remove(assetName);
+			if (thingId != null)
+				assetNames.remove(thingId, assetName);
+
+			String driverPID = drivers.remove(assetName);
+			if (driverPID != null) {
+				Set<String> assets = new HashSet<>(driverAssets.getOrDefault(driverPID, Collections.emptySet()));
+				assets.remove(assetName);
+				if (assets.isEmpty())
+					driverAssets.remove(driverPID);
+				else
+					driverAssets.put(driverPID, Collections.unmodifiableSet(assets));
+			}
+		}
+
+		/* Adds the semantic types of the affordance, also to the inverted index */
+		private void addSemanticTypes(String href, List<URI> types) {
+			removeSemanticTypes(href);
+			semanticTypes.put(href, types);
+			if (types != null) {
+				for (URI type : types) {
+					Set<String> typeHrefs = new HashSet<>(semanticIndex.getOrDefault(type, Collections.emptySet()));
+					typeHrefs.add(href);
+					semanticIndex.put(type, Collections.unmodifiableSet(typeHrefs));
+				}
+			}
+		}
+
+		/* Removes the semantic types of the affordance, also from the inverted index */
+		private void removeSemanticTypes(String href) {
+			List<URI> types = semanticTypes.remove(href);
+			if (types != null) {
+				for (URI type : types) {
+					Set<String> typeHrefs = new HashSet<>(semanticIndex.getOrDefault(type, Collections.emptySet()));
+					typeHrefs.remove(href);
+					if (typeHrefs.isEmpty())
+						semanticIndex.remove(type);
+					else
+						semanticIndex.put(type, Collections.unmodifiableSet(typeHrefs));
+				}
+			}
+		}
+
+		/* Returns the href of the last form, as the thing provider always did */
+		private static String getHref(List<Form> forms) {
+			String href = null;
+			if (forms != null)
+				for (Form form : forms)
+					href = form.getHref().toString();
+			return href;
+		}
+
+		/**
+		 * Returns the form hrefs linked to the asset names.
+		 *
+		 * @return the unmodifiable map
+		 */
+		Map<String, String> getIds() {
+			return ids;
+		}
+
+		/**
+		 * Returns the form hrefs linked to the semantic types.
+		 *
+		 * @return the unmodifiable map
+		 */
+		Map<String, List<URI>> getSemanticTypes() {
+			return semanticTypes;
+		}
+
+		/**
+		 * Returns the semantic types linked to the form hrefs.
+		 *
+		 * @return the unmodifiable map
+		 */
+		Map<URI, Set<String>> getSemanticIndex() {
+			return semanticIndex;
+		}
+
+		/**
+		 * Returns the form hrefs of the affordances with a semantic type.
+		 *
+		 * @param semanticType the semantic type, e.g. iot:TemperatureData
+		 * @return the unmodifiable set, empty if no affordance has the type
+		 */
+		Set<String> getHrefs(URI semanticType) {
+			return semanticIndex.getOrDefault(semanticType, Collections.emptySet());
+		}
+
+		/**
+		 * Returns the property form hrefs linked to the properties.
+		 *
+		 * @return the unmodifiable map
+		 */
+		Map<String, Entry<String, PropertyAffordance>> getProperties() {
+			return properties;
+		}
+
+		/**
+		 * Returns the action form hrefs linked to the actions.
+		 *
+		 * @return the unmodifiable map
+		 */
+		Map<String, Entry<String, ActionAffordance>> getActions() {
+			return actions;
+		}
+
+		/**
+		 * Returns the form hrefs of an asset.
+		 *
+		 * @param assetName the name of the asset
+		 * @return the unmodifiable set, empty if the asset is unknown
+		 */
+		Set<String> getHrefs(String assetName) {
+			return hrefs.getOrDefault(assetName, Collections.emptySet());
+		}
+
+		/**
+		 * Returns the asset name of a thing.
+		 *
+		 * @param thingId the id of the thing
+		 * @return the asset name or null if the thing is unknown
+		 */
+		String getAssetName(String thingId) {
+			return assetNames.get(thingId);
+		}
+
+		/**
+		 * Returns the driver of an asset.
+		 *
+		 * @param assetName the name of the asset
+		 * @return the driver PID or null if the asset is unknown
+		 */
+		String getDriverPID(String assetName) {
+			return drivers.get(assetName);
+		}
+
+		/**
+		 * Returns the thing id of an asset.
+		 *
+		 * @param assetName the name of the asset
+		 * @return the thing id or null if the asset is unknown
+		 */
+		String getThingId(String assetName) {
+			return thingIds.get(assetName);
+		}
+
+		/**
+		 * Returns the asset names of a driver.
+		 *
+		 * @param driverPID the id of the driver
+		 * @return the unmodifiable set, empty if the driver is unknown
+		 */
+		Set<String> getAssetNames(String driverPID) {
+			return driverAssets.getOrDefault(driverPID, Collections.emptySet());
+		}
+	}
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.core.thing.cache.impl;
+
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.AttributeType;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+
+@ObjectClassDefinition(
+		id = "org.ict.kura.core.thing.cache.impl.LastValueCache",
+		name = "LastValueCache",
+		description = "Configuration parameters | LastValueCache")
+@interface LastValueCacheConfig {
+	@AttributeDefinition(name = "Stale After",
+			type = AttributeType.INTEGER,
+			required = true,
+			cardinality = 0,
+			defaultValue = "300",
+			description = "Age in seconds after which a last value is flagged as stale, 0 disables the flag")
+	int stale_after();
+}
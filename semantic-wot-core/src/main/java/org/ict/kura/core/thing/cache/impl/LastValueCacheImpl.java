@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.core.thing.cache.impl;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.eclipse.kura.configuration.ConfigurableComponent;
+import org.ict.kura.driver.thing.ThingValue;
+import org.ict.kura.thing.cache.LastValue;
+import org.ict.kura.thing.cache.LastValueCache;
+import org.ict.kura.util.Constants;
+import org.osgi.service.component.ComponentContext;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventHandler;
+import org.osgi.service.metatype.annotations.Designate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonObject;
+
+/**
+ * The implementation of the {@link LastValueCache}. The cache receives the
+ * telemetry events of all thing drivers via the OSGi EventAdmin. The last value
+ * of a removed channel (topic removed/things/*) is evicted, a thing without
+ * properties is removed. The event also carries the last value of the
+ * listener, so the values suppressed by the report by exception keep the cached
+ * value fresh.
+ *
+ * Each thing holds an immutable map with the last values of its properties.
+ * An update replaces this map (copy on write, a thing has only a few
+ * properties), so the last value of a property and the snapshot of a whole
+ * thing are read in O(1) without locking.
+ */
+@Component(immediate = true, property = { "event.topics=telemetry/things/*", "event.topics=removed/things/*",
+		"service.pid=org.ict.kura.core.thing.cache.impl.LastValueCache" }, name = "org.ict.kura.core.thing.cache.impl.LastValueCache")
+@Designate(ocd = LastValueCacheConfig.class)
+public class LastValueCacheImpl implements LastValueCache, EventHandler, ConfigurableComponent {
+	private static final Logger LOGGER = LoggerFactory.getLogger(LastValueCacheImpl.class);
+	private static final String APP_ID = "org.ict.kura.core.thing.cache.LastValueCache";
+
+	/* The last values, the key is the thing name */
+	private final Map<String, Map<String, LastValue>> things = new ConcurrentHashMap<>();
+
+	/* The age in milliseconds after which a last value is stale */
+	private volatile long maxAge;
+
+	/**
+	 * Binding function which starts the bundle, see component.xml, is called by the
+	 * OSGi framework
+	 */
+	@Activate
+	protected void activate(ComponentContext componentContext, Map<String, Object> properties) {
+		/* Updates the configuration */
+		updated(properties);
+		LOGGER.info("Bundle " + APP_ID + " has started!");
+	}
+
+	/**
+	 * Binding function which to shutdown the bundle, see component.xml, is called
+	 * by the OSGi framework
+	 */
+	@Deactivate
+	protected void deactivate(ComponentContext componentContext) {
+		/* Removes all last values */
+		things.clear();
+		LOGGER.info("Bundle " + APP_ID + " has stopped!");
+	}
+
+	/**
+	 * Method to handle configuration updates
+	 *
+	 * @param properties Properties that are configured via the Kura web admin
+	 */
+	@Modified
+	public void updated(Map<String, Object> properties) {
+		LastValueCacheOptions options = new LastValueCacheOptions(properties);
+		LOGGER.info(options.toString());
+		this.maxAge = options.getStaleAfter() * 1000L;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void handleEvent(Event event) {
+		try {
+			String thingName = (String) event.getProperty("thingName");
+			String propertyName = (String) event.getProperty("propertyName");
+			if (thingName != null && propertyName != null
+					&& event.getTopic().startsWith(Constants.EVENT_ADMIN_REMOVED_BASE_TOPIC_NAME.value())) {
+				evict(thingName, propertyName);
+				return;
+			}
+			Object value = event.getProperty("value");
+			if (thingName == null || propertyName == null || !(value instanceof JsonObject))
+				return;
+
+			/* Uses the time stamp of the WoT payload, otherwise the receive time */
+			JsonObject payload = (JsonObject) value;
+			long received = System.currentTimeMillis();
+			long timestamp = payload.has("time") ? payload.get("time").getAsLong() : received;
+
+			/* The last value of the listener, updated by the suppressed values as well */
+			Object source = event.getProperty("lastValue");
+			LastValue lastValue = new LastValue(thingName, propertyName, payload, timestamp, received, maxAge,
+					source instanceof Supplier ? (Supplier<ThingValue>) source : null);
+
+			/* Replaces the map of the thing with a new map containing the new value */
+			things.compute(thingName, (key, lastValues) -> {
+				Map<String, LastValue> copy = lastValues == null ? new HashMap<>() : new HashMap<>(lastValues);
+				copy.put(propertyName, lastValue);
+				return Collections.unmodifiableMap(copy);
+			});
+		} catch (Throwable t) {
+			LOGGER.error("", t);
+		}
+	}
+
+	/* Evicts the last value of a removed channel, replaces the map of the thing */
+	private void evict(String thingName, String propertyName) {
+		things.computeIfPresent(thingName, (key, lastValues) -> {
+			if (!lastValues.containsKey(propertyName))
+				return lastValues;
+			Map<String, LastValue> copy = new HashMap<>(lastValues);
+			copy.remove(propertyName);
+			return copy.isEmpty() ? null : Collections.unmodifiableMap(copy);
+		});
+	}
+
+	@Override
+	public Optional<LastValue> getLastValue(String thingName, String propertyName) {
+		Map<String, LastValue> lastValues = things.get(thingName);
+		return lastValues == null ? Optional.empty() : Optional.ofNullable(lastValues.get(propertyName));
+	}
+
+	@Override
+	public Map<String, LastValue> getLastValues(String thingName) {
+		return things.getOrDefault(thingName, Collections.emptyMap());
+	}
+
+	@Override
+	public Set<String> getThingNames() {
+		return Collections.unmodifiableSet(things.keySet());
+	}
+}
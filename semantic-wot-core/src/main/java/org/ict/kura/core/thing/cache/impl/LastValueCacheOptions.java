@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.core.thing.cache.impl;
+
+import static java.util.Objects.nonNull;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map;
+
+public class LastValueCacheOptions {
+	/**
+	 * The age in seconds after which a last value is stale
+	 */
+	private static final String STALE_AFTER = "stale.after";
+
+	/** The default age in seconds after which a last value is stale */
+	private static final int DEFAULT_STALE_AFTER = 300;
+
+	/** The properties as associated */
+	private final Map<String, Object> properties;
+
+	public LastValueCacheOptions(Map<String, Object> properties) {
+		requireNonNull(properties, "Properties cannot be null");
+		this.properties = properties;
+	}
+
+	/**
+	 * Returns the age in seconds after which a last value is stale
+	 *
+	 * @return the age in seconds, 0 disables the stale flag
+	 */
+	public Integer getStaleAfter() {
+		Integer value = DEFAULT_STALE_AFTER;
+		final Object obj = this.properties.get(STALE_AFTER);
+		if (nonNull(obj) && obj instanceof Integer) {
+			value = (Integer) obj;
+		}
+		return value;
+	}
+
+	@Override
+	public String toString() {
+		return "LastValueCacheOptions [getStaleAfter()=" + getStaleAfter() + "]";
+	}
+}
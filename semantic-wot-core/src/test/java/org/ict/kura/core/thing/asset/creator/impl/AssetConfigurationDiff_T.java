@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.core.thing.asset.creator.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.eclipse.kura.channel.ChannelType;
+import org.eclipse.kura.type.DataType;
+import org.ict.kura.core.asset.creator.impl.AssetChannelCreatorImpl;
+
+/**
+ * Compares existing asset configurations with the configurations generated
+ * from the thing descriptions - the configuration service returns the integer
+ * options as Long, the tuned options of the existing channels are kept by the
+ * merge, removed channels are dropped and added channels are taken over.
+ */
+public class AssetConfigurationDiff_T {
+
+	/* The asset creator of the thing provider */
+	private static final AssetChannelCreatorImpl CREATOR = new AssetChannelCreatorImpl();
+
+	public static void main(String[] args) {
+		Map<String, Object> generated = createAsset("driver", "temperature", "humidity");
+
+		/* The configuration service returns the Integer values as Long */
+		Map<String, Object> existing = new HashMap<>();
+		for (Entry<String, Object> entry : generated.entrySet())
+			existing.put(entry.getKey(),
+					entry.getValue() instanceof Integer ? Long.valueOf((Integer) entry.getValue()) : entry.getValue());
+		AssetConfigurationDiff diff = AssetConfigurationDiff.of(existing, generated);
+		check(diff.isEmpty(), "Integer and Long differ: " + diff);
+
+		/* A tuned option is no change of the thing description */
+		existing.put("temperature#deadband", Double.valueOf(0.5));
+		existing.put("temperature#rateLimit", Long.valueOf(1000));
+		diff = AssetConfigurationDiff.of(existing, generated);
+		check(diff.isEmpty(), "tuned options are changes: " + diff);
+
+		/* The humidity is removed, the pressure is added and the temperature changed */
+		Map<String, Object> changed = createAsset("driver", "temperature", "pressure");
+		changed.put("service.pid", "org.eclipse.kura.wire.WireAsset-2-1");
+		changed.put("temperature#formProperty", "http://localhost/things/thing0/properties/temperature2");
+		diff = AssetConfigurationDiff.of(existing, changed);
+		check(!diff.isEmpty() && !diff.isDriverChanged(), "no changes found: " + diff);
+		check(diff.getAdded().equals(Set.of("pressure")), "added " + diff.getAdded());
+		check(diff.getRemoved().equals(Set.of("humidity")), "removed " + diff.getRemoved());
+		check(diff.getChanged().equals(Set.of("temperature")), "changed " + diff.getChanged());
+
+		Map<String, Object> merged = diff.merge();
+		check(merged.keySet().stream().noneMatch(key -> key.startsWith("humidity#")), "removed channel kept");
+		check(merged.keySet().containsAll(changed.keySet()), "added channel missing");
+		check("http://localhost/things/thing0/properties/temperature2".equals(merged.get("temperature#formProperty")),
+				"changed channel not updated");
+		check(Double.valueOf(0.5).equals(merged.get("temperature#deadband")), "tuned deadband lost");
+		check(Long.valueOf(1000).equals(merged.get("temperature#rateLimit")), "tuned rate limit lost");
+		check(existing.get("service.pid").equals(merged.get("service.pid")), "asset attribute replaced");
+
+		/* The merged configuration is unchanged for the thing description */
+		check(AssetConfigurationDiff.of(merged, changed).isEmpty(), "merged configuration differs");
+
+		/* The asset is bound to another driver */
+		diff = AssetConfigurationDiff.of(existing, createAsset("other", "temperature", "humidity"));
+		check(!diff.isEmpty() && diff.isDriverChanged(), "driver change not found: " + diff);
+
+		System.out.println("AssetConfigurationDiff: OK");
+	}
+
+	/* Creates the asset configuration with property channels, as the thing provider */
+	private static Map<String, Object> createAsset(String driverPID, String... channelNames) {
+		Map<String, Object> asset = new HashMap<>(CREATOR.createAsset(driverPID, "thing0"));
+		asset.put("service.pid", "org.eclipse.kura.wire.WireAsset-1-1");
+		for (String channelName : channelNames) {
+			Map<String, Object> advancedConfiguration = new HashMap<>();
+			advancedConfiguration.put("formProperty", "http://localhost/things/thing0/properties/" + channelName);
+			asset.putAll(CREATOR.createChannel(channelName, ChannelType.READ, DataType.DOUBLE.name(),
+					advancedConfiguration));
+		}
+		return asset;
+	}
+
+	/* Fails if the condition is false */
+	private static void check(boolean condition, String failure) {
+		if (!condition)
+			throw new IllegalStateException(failure);
+	}
+}
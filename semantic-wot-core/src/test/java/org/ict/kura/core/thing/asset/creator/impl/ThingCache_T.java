@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.core.thing.asset.creator.impl;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.ict.gson.utils.AdapterFactory;
+import org.ict.kura.asset.creator.thing.util.WoTUtils;
+import org.ict.model.wot.core.PropertyAffordance;
+import org.ict.model.wot.core.Thing;
+
+import com.google.gson.Gson;
+
+/**
+ * Saves the things of a driver in the warm-start cache and loads them again,
+ * as after a reboot. Prints the size of the cache file and the load time.
+ */
+public class ThingCache_T {
+
+	/* The number of things */
+	private static final int THINGS = 300;
+
+	/* The number of properties per thing */
+	private static final int PROPERTIES = 5;
+
+	public static void main(String[] args) throws Exception {
+		Gson gson = AdapterFactory.getGsonWithDefaultWotTypeAdapters(true);
+		Path directory = Files.createTempDirectory("thing-cache");
+
+		List<Thing> things = new ArrayList<>();
+		for (int i = 0; i < THINGS; i++) {
+			String href = "http://localhost/things/thing" + i;
+			Map<String, PropertyAffordance> properties = new HashMap<>();
+			for (int p = 0; p < PROPERTIES; p++)
+				properties.put("temperature" + p, WoTUtils.createTemperaturPropertie(href, "temperature" + p));
+			things.add(Thing.builder().id(URI.create(href)).title("thing" + i).properties(properties).build());
+		}
+
+		long start = System.nanoTime();
+		new ThingCache(gson, directory.toString()).store("org.ict.kura.driver.coap", things);
+		long store = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		Map<String, List<Thing>> loaded = new ThingCache(gson, directory.toString()).load();
+		long load = System.nanoTime() - start;
+
+		try (Stream<Path> files = Files.list(directory)) {
+			files.forEach(file -> {
+				try {
+					System.out.println(file.getFileName() + ": " + Files.size(file) + " bytes");
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+			});
+		}
+		System.out.println(String.format("%d things: store %8.2f ms, load %8.2f ms, loaded %s", THINGS, store / 1e6,
+				load / 1e6, loaded.getOrDefault("org.ict.kura.driver.coap", new ArrayList<>()).size()));
+	}
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright © 2023 Institut fuer Kommunikationstechnik - FH-Dortmund (codebase.ikt@fh-dortmund.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ict.kura.core.thing.asset.creator.impl;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.kura.configuration.ComponentConfiguration;
+import org.eclipse.kura.configuration.ConfigurationService;
+import org.ict.kura.asset.creator.thing.util.WoTUtils;
+import org.ict.kura.core.thing.asset.creator.util.ThingContainerImpl;
+import org.ict.kura.thing.creator.ProvisioningReport;
+import org.ict.model.wot.core.PropertyAffordance;
+import org.ict.model.wot.core.Thing;
+
+/**
+ * Startup benchmark of the asset provisioning - the things are provisioned one
+ * at a time with one configuration snapshot per thing (as the thing events
+ * did), then in bulk with one snapshot. At last the unchanged things are
+ * provisioned again, e.g. after a reconnect of the devices - the assets are not
+ * updated. Then each thing gets a new property, the assets are updated in place
+ * without a delete. After a restart the existing assets are found with one scan
+ * of the configurations, finally all assets of the driver are deleted in bulk
+ * via the driver index. The
+ * {@link ConfigurationService} is simulated, a snapshot writes all
+ * configurations and costs 2 ms plus 20 us per configuration.
+ */
+public class ThingProvisioning_T {
+
+	/* The number of things, e.g. the KNX thing descriptions */
+	private static final int THINGS = 300;
+
+	/* The number of properties per thing */
+	private static final int PROPERTIES = 5;
+
+	public static void main(String[] args) throws Exception {
+		List<Thing> things = createThings(PROPERTIES);
+
+		/* One snapshot per thing */
+		AtomicInteger snapshots = new AtomicInteger();
+		AtomicInteger deletes = new AtomicInteger();
+		AtomicInteger scans = new AtomicInteger();
+		ThingProviderImpl provider = new ThingProviderImpl();
+		provider.setConfigurationService(createConfigurationService(snapshots, deletes, scans));
+		long start = System.nanoTime();
+		for (Thing thing : things)
+			provider.createAssetsWithChannels("driver", thing);
+		long single = System.nanoTime() - start;
+		int singleSnapshots = snapshots.getAndSet(0);
+
+		/* Bulk with one snapshot */
+		ConfigurationService configurationService = createConfigurationService(snapshots, deletes, scans);
+		provider = new ThingProviderImpl();
+		provider.setConfigurationService(configurationService);
+		AtomicInteger progress = new AtomicInteger();
+		ProvisioningReport report = provider.createAssetsWithChannels(new ThingContainerImpl("driver", things),
+				(done, total, assetName, error) -> progress.set(done));
+
+		System.out.println(String.format("%d things: single %8.2f ms (%d snapshots), bulk %8.2f ms (%d snapshot)",
+				THINGS, single / 1e6, singleSnapshots, (double) report.getDuration(), snapshots.get()));
+		System.out.println("Progress: " + progress.get() + "/" + THINGS + ", " + report);
+
+		/* Looks up all temperature properties via the semantic type index */
+		start = System.nanoTime();
+		int temperatures = provider.getHrefsBySemanticType(URI.create("iot:Temperature")).size();
+		System.out.println(String.format("%d iot:Temperature properties found in %.3f ms", temperatures,
+				(System.nanoTime() - start) / 1e6));
+
+		/* Unchanged things, e.g. a reconnect */
+		snapshots.set(0);
+		report = provider.createAssetsWithChannels(new ThingContainerImpl("driver", things), null);
+		System.out.println(String.format("%d unchanged things: %8.2f ms (%d snapshots), %s", THINGS,
+				(double) report.getDuration(), snapshots.get(), report));
+
+		/* Changed things, e.g. a firmware update - the assets are updated in place */
+		snapshots.set(0);
+		report = provider.createAssetsWithChannels(new ThingContainerImpl("driver", createThings(PROPERTIES + 1)),
+				null);
+		System.out.println(String.format("%d changed things: %8.2f ms (%d snapshots, %d deletes), %s", THINGS,
+				(double) report.getDuration(), snapshots.get(), deletes.get(), report));
+		if (report.getUpdated() != THINGS || deletes.get() != 0)
+			throw new IllegalStateException("The changed assets were not updated in place");
+
+		/* Restart - the existing assets are found with one scan of the configurations */
+		scans.set(0);
+		provider = new ThingProviderImpl();
+		provider.setConfigurationService(configurationService);
+		provider.updated(new HashMap<>());
+		System.out.println(String.format("%d existing assets found after a restart (%d scan)",
+				provider.getAssetNames("driver").size(), scans.get()));
+
+		/* Deletes all assets of the driver via the driver index */
+		snapshots.set(0);
+		deletes.set(0);
+		start = System.nanoTime();
+		provider.deleteAssetsWithChannels("driver");
+		System.out.println(String.format("%d assets deleted: %8.2f ms (%d snapshot, %d scan)", deletes.get(),
+				(System.nanoTime() - start) / 1e6, snapshots.get(), scans.get()));
+		if (deletes.get() != THINGS || scans.get() != 1)
+			throw new IllegalStateException("The assets were not deleted via the driver index");
+	}
+
+	/* Creates the things with temperature properties */
+	private static List<Thing> createThings(int count) throws Exception {
+		List<Thing> things = new ArrayList<>();
+		for (int i = 0; i < THINGS; i++) {
+			String href = "http://localhost/things/thing" + i;
+			Map<String, PropertyAffordance> properties = new HashMap<>();
+			for (int p = 0; p < count; p++)
+				properties.put("temperature" + p, WoTUtils.createTemperaturPropertie(href, "temperature" + p));
+			things.add(Thing.builder().id(URI.create(href)).title("thing" + i).properties(properties).build());
+		}
+		return things;
+	}
+
+	/*
+	 * Simulates the configuration service, counts the snapshots, the deleted
+	 * configurations and the scans of all configurations
+	 */
+	private static ConfigurationService createConfigurationService(AtomicInteger snapshots, AtomicInteger deletes,
+			AtomicInteger scans) {
+		Map<String, Map<String, Object>> configurations = new ConcurrentHashMap<>();
+		Set<String> pids = configurations.keySet();
+		return (ConfigurationService) Proxy.newProxyInstance(ConfigurationService.class.getClassLoader(),
+				new Class<?>[] { ConfigurationService.class }, (proxy, method, arguments) -> {
+					switch (method.getName()) {
+					case "getConfigurableComponentPids":
+						return new HashSet<>(pids);
+					case "getComponentConfiguration":
+						return createComponentConfiguration((String) arguments[0],
+								configurations.get(arguments[0]));
+					case "getComponentConfigurations":
+						scans.incrementAndGet();
+						List<ComponentConfiguration> list = new ArrayList<>();
+						configurations.forEach(
+								(pid, configuration) -> list.add(createComponentConfiguration(pid, configuration)));
+						return list;
+					case "createFactoryConfiguration":
+						configurations.put((String) arguments[1], castConfiguration(arguments[2]));
+						if ((Boolean) arguments[3])
+							snapshot(snapshots, pids.size());
+						return null;
+					case "updateConfiguration":
+						configurations.put((String) arguments[0], castConfiguration(arguments[1]));
+						if (Boolean.TRUE.equals(arguments[arguments.length - 1]))
+							snapshot(snapshots, pids.size());
+						return null;
+					case "deleteFactoryConfiguration":
+						configurations.remove(arguments[0]);
+						deletes.incrementAndGet();
+						if (Boolean.TRUE.equals(arguments[arguments.length - 1]))
+							snapshot(snapshots, pids.size());
+						return null;
+					case "snapshot":
+						return snapshot(snapshots, pids.size());
+					default:
+						return null;
+					}
+				});
+	}
+
+	/* Simulates the stored configuration of a component */
+	private static ComponentConfiguration createComponentConfiguration(String pid,
+			Map<String, Object> configuration) {
+		if (configuration == null)
+			return null;
+		return (ComponentConfiguration) Proxy.newProxyInstance(ComponentConfiguration.class.getClassLoader(),
+				new Class<?>[] { ComponentConfiguration.class }, (proxy, method, arguments) -> {
+					switch (method.getName()) {
+					case "getPid":
+						return pid;
+					case "getConfigurationProperties":
+						return configuration;
+					default:
+						return null;
+					}
+				});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> castConfiguration(Object configuration) {
+		return new HashMap<>((Map<String, Object>) configuration);
+	}
+
+	/* Simulates the cost of writing a snapshot of all configurations */
+	private static long snapshot(AtomicInteger snapshots, int configurations) throws InterruptedException {
+		long nanos = 2_000_000L + configurations * 20_000L;
+		Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+		return snapshots.incrementAndGet();
+	}
+}